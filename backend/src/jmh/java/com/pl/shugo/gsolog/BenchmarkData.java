@@ -0,0 +1,41 @@
+package com.pl.shugo.gsolog;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import com.pl.shugo.gsolog.domain.enums.AdifMode;
+import com.pl.shugo.gsolog.domain.enums.AdifSubmode;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shared benchmark fixtures: a realistic mix of FT8 QSOs with occasional
+ * non-ASCII QTHs and notes that need escaping.
+ */
+public final class BenchmarkData {
+
+    private static final String[] CALLS = {"SP1ABC", "DL1XYZ", "G4ABC", "OM1TEST", "F5XYZ", "JA1NEW"};
+
+    private BenchmarkData() {
+    }
+
+    public static List<Qso> qsos(int count) {
+        List<Qso> qsos = new ArrayList<>(count);
+        Instant created = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < count; i++) {
+            Qso qso = Qso.create(UUID.randomUUID(), CALLS[i % CALLS.length],
+                    LocalDate.of(2024, 1, 1).plusDays(i % 365), LocalTime.of(i % 24, i % 60),
+                    "20m", new BigDecimal("14074.000"), AdifMode.MFSK, AdifSubmode.FT8, null,
+                    "-10", "-12", i % 10 == 0 ? "Kraków, PL" : "Warsaw", "KO02", i % 5 == 0 ? "Nice \"QSO\"" : null);
+            qso.setId(UUID.randomUUID());
+            qso.setCreatedAt(created.plusSeconds(i * 60L));
+            qso.setUpdatedAt(created.plusSeconds(i * 60L));
+            qsos.add(qso);
+        }
+        return qsos;
+    }
+}
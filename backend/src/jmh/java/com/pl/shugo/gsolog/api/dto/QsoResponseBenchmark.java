@@ -0,0 +1,65 @@
+package com.pl.shugo.gsolog.api.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pl.shugo.gsolog.BenchmarkData;
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QSO list responses: entity to DTO mapping and JSON serialization of one page,
+ * with an ObjectMapper configured like Spring Boot's (Java time module, ISO dates).
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="QsoResponseBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QsoResponseBenchmark {
+
+    @Param({"50"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<Qso> page;
+    private List<QsoResponse> responses;
+
+    @Setup
+    public void setUp() {
+        page = BenchmarkData.qsos(pageSize);
+        responses = page.stream().map(QsoResponse::from).toList();
+    }
+
+    @Benchmark
+    public List<QsoResponse> mapPage() {
+        return page.stream().map(QsoResponse::from).toList();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page.stream().map(QsoResponse::from).toList());
+    }
+}
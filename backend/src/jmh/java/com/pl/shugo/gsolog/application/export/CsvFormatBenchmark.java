@@ -0,0 +1,106 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.BenchmarkData;
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV export throughput: the streaming CsvFormat writer against the former
+ * String.format-per-row implementation (one String, byte[] and buffer per row).
+ * Each invocation encodes one export chunk.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="CsvFormatBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvFormatBenchmark {
+
+    @Param({"1000"})
+    private int chunkSize;
+
+    private final CsvFormat format = new CsvFormat();
+    private final DataBufferFactory pooledFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final DataBufferFactory unpooledFactory = new DefaultDataBufferFactory();
+
+    private List<Qso> chunk;
+
+    @Setup
+    public void setUp() {
+        chunk = BenchmarkData.qsos(chunkSize);
+    }
+
+    @Benchmark
+    public void csvFormat(Blackhole blackhole) {
+        for (DataBuffer buffer : EncoderSupport.encodeAll(chunk, pooledFactory, format::writeRecord)) {
+            blackhole.consume(buffer.readableByteCount());
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    @Benchmark
+    public void legacyStringFormat(Blackhole blackhole) {
+        for (Qso qso : chunk) {
+            DataBuffer buffer = unpooledFactory.wrap(legacyFormat(qso).getBytes(StandardCharsets.UTF_8));
+            blackhole.consume(buffer.readableByteCount());
+        }
+    }
+
+    /**
+     * The row formatting ExportService used before CsvFormat.
+     */
+    private static String legacyFormat(Qso qso) {
+        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
+                escapeCsv(qso.getTheirCallsign()),
+                qso.getQsoDate(),
+                qso.getTimeOn(),
+                escapeCsv(qso.getBand()),
+                qso.getFrequencyKhz() != null ? qso.getFrequencyKhz() : "",
+                qso.getMode() != null ? qso.getMode().name() : "",
+                qso.getSubmode() != null ? qso.getSubmode().name() : "",
+                escapeCsv(qso.getCustomMode()),
+                escapeCsv(qso.getRstSent()),
+                escapeCsv(qso.getRstRecv()),
+                escapeCsv(qso.getQth()),
+                escapeCsv(qso.getGridSquare()),
+                escapeCsv(qso.getNotes()),
+                qso.getQslStatus() != null ? qso.getQslStatus().name() : "",
+                qso.getLotwStatus() != null ? qso.getLotwStatus().name() : "",
+                qso.getEqslStatus() != null ? qso.getEqslStatus().name() : ""
+        );
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null || value.isBlank()) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,88 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.BenchmarkData;
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-export encoding throughput per format: header, chunks of QSOs and footer
+ * through ExportPipeline into pooled buffers, as ExportService streams them.
+ * Reported as exports per second; each export has 10 chunks.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="ExportFormatBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.nio=ALL-UNNAMED") // for Arrow
+@State(Scope.Benchmark)
+public class ExportFormatBenchmark {
+
+    private static final int CHUNKS = 10;
+
+    @Param({"adif", "csv", "adx", "cabrillo", "arrow"})
+    private String format;
+
+    @Param({"1000"})
+    private int chunkSize;
+
+    private final DataBufferFactory pooledFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final ArrowFormat arrowFormat = new ArrowFormat();
+
+    private ExportFormat exportFormat;
+    private List<List<Qso>> chunks;
+    private ExportContext context;
+
+    @Setup
+    public void setUp() {
+        exportFormat = switch (format) {
+            case "adif" -> new AdifFormat();
+            case "csv" -> new CsvFormat();
+            case "adx" -> new AdxFormat();
+            case "cabrillo" -> new CabrilloFormat();
+            case "arrow" -> arrowFormat;
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        List<Qso> chunk = BenchmarkData.qsos(chunkSize);
+        chunks = Collections.nCopies(CHUNKS, chunk);
+        context = new ExportContext(UUID.randomUUID(), "sp9xyz", null, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        arrowFormat.closeAllocator();
+    }
+
+    @Benchmark
+    public void export(Blackhole blackhole) {
+        ExportWriter writer = exportFormat.newWriter(context);
+        for (DataBuffer buffer : ExportPipeline.encode(Flux.fromIterable(chunks), writer, pooledFactory).toIterable()) {
+            blackhole.consume(buffer.readableByteCount());
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
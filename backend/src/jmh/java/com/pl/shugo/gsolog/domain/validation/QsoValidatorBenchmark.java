@@ -0,0 +1,63 @@
+package com.pl.shugo.gsolog.domain.validation;
+
+import com.pl.shugo.gsolog.domain.enums.AdifMode;
+import com.pl.shugo.gsolog.domain.enums.AdifSubmode;
+import com.pl.shugo.gsolog.domain.enums.Band;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QSO validation on the create/update path: mode configuration rules and band lookup.
+ * Band lookups cover the first and last enum constants and an unknown band, which
+ * goes through the exception path.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="QsoValidatorBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QsoValidatorBenchmark {
+
+    @Param({"160m", "1mm", "11m"})
+    private String band;
+
+    private final QsoValidator validator = new QsoValidator();
+
+    @Benchmark
+    public List<String> validateModeConfiguration_valid() {
+        return validator.validateModeConfiguration(AdifMode.MFSK, AdifSubmode.FT8, null);
+    }
+
+    @Benchmark
+    public List<String> validateModeConfiguration_invalid() {
+        return validator.validateModeConfiguration(AdifMode.SSB, AdifSubmode.FT8, "VARA");
+    }
+
+    @Benchmark
+    public boolean isValidBand() {
+        return validator.isValidBand(band);
+    }
+
+    @Benchmark
+    public Band bandFromAdifValue() {
+        try {
+            return Band.fromAdifValue(band);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of HamQTH XML responses: a full callsign search result and a login session.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="HamQthResponseParsingBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HamQthResponseParsingBenchmark {
+
+    private static final String SEARCH_RESPONSE = """
+            <?xml version="1.0"?>
+            <HamQTH version="2.8" xmlns="https://www.hamqth.com">
+            <search>
+              <callsign>SP1ABC</callsign>
+              <nick>Jan</nick>
+              <qth>Szczecin</qth>
+              <country>Poland</country>
+              <adif>269</adif>
+              <itu>28</itu>
+              <cq>15</cq>
+              <grid>JO73GK</grid>
+              <adr_name>Jan Kowalski</adr_name>
+              <adr_street1>ul. Długa 1</adr_street1>
+              <adr_city>Szczecin</adr_city>
+              <adr_zip>70-001</adr_zip>
+              <adr_country>Poland</adr_country>
+              <adr_adif>269</adr_adif>
+              <district>ZS</district>
+              <lotw>Y</lotw>
+              <qsl>Y</qsl>
+              <qsldirect>Y</qsldirect>
+              <eqsl>Y</eqsl>
+              <email>sp1abc@example.com</email>
+              <birth_year>1970</birth_year>
+              <lic_year>1990</lic_year>
+              <latitude>53.43</latitude>
+              <longitude>14.55</longitude>
+              <continent>EU</continent>
+              <utc_offset>1</utc_offset>
+            </search>
+            </HamQTH>
+            """;
+
+    private static final String SESSION_RESPONSE = """
+            <?xml version="1.0"?>
+            <HamQTH version="2.8" xmlns="https://www.hamqth.com">
+            <session>
+              <session_id>09b0ae90050be03c452ad235a1f2915ad684393c</session_id>
+            </session>
+            </HamQTH>
+            """;
+
+    private final HamQthCallsignLookupAdapter adapter =
+            new HamQthCallsignLookupAdapter("http://localhost", "user", "password");
+
+    @Benchmark
+    public CallsignLookupResponse parseCallsignData() {
+        return adapter.parseCallsignData("SP1ABC", SEARCH_RESPONSE);
+    }
+
+    @Benchmark
+    public String parseSessionId() {
+        return adapter.parseSessionId(SESSION_RESPONSE);
+    }
+}
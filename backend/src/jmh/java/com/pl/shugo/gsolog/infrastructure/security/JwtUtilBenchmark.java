@@ -0,0 +1,62 @@
+package com.pl.shugo.gsolog.infrastructure.security;
+
+import com.pl.shugo.gsolog.domain.entity.User;
+import com.pl.shugo.gsolog.domain.enums.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT handling done on every authenticated request (parse and validate) and on login (generate).
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="JwtUtilBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("BENCHMARK_SECRET_THAT_IS_LONG_ENOUGH_FOR_HS512_SIGNING_KEYS_0123456789");
+        properties.setExpiration(86_400_000);
+        jwtUtil = new JwtUtil(properties);
+        user = new User(UUID.randomUUID(), "sp9xyz@example.com", "sp9xyz", "hash", Role.OPERATOR,
+                Instant.now(), Instant.now());
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public UUID extractUserId() {
+        return jwtUtil.extractUserId(token);
+    }
+}
@@ -1,11 +1,16 @@
 package com.pl.shugo.gsolog.api.controller;
 
+import com.pl.shugo.gsolog.api.dto.AdminStatsResponse;
+import com.pl.shugo.gsolog.api.dto.ExportJobResponse;
 import com.pl.shugo.gsolog.api.dto.UserResponse;
 import com.pl.shugo.gsolog.application.service.AdminService;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import com.pl.shugo.gsolog.application.service.ExportJobService;
+import com.pl.shugo.gsolog.infrastructure.security.AuthenticatedUserIdResolver;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Admin REST controller.
@@ -16,9 +21,14 @@ import reactor.core.publisher.Flux;
 public class AdminController {
 
     private final AdminService adminService;
+    private final ExportJobService exportJobService;
+    private final AuthenticatedUserIdResolver userIdResolver;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, ExportJobService exportJobService,
+                           AuthenticatedUserIdResolver userIdResolver) {
         this.adminService = adminService;
+        this.exportJobService = exportJobService;
+        this.userIdResolver = userIdResolver;
     }
 
     /**
@@ -32,4 +42,42 @@ public class AdminController {
         return adminService.getAllUsers()
                 .map(UserResponse::from);
     }
+
+    /**
+     * Get system-wide statistics (ADMIN only).
+     * Values come from periodically refreshed materialized views.
+     *
+     * @return Statistics across all users by band, mode, day, and totals
+     */
+    @GetMapping("/stats")
+    public Mono<AdminStatsResponse> getSystemStats() {
+        return adminService.getSystemStats();
+    }
+
+    /**
+     * Refresh system-wide statistics now (ADMIN only).
+     * Normally the scheduled refresh keeps them current.
+     */
+    @PostMapping("/stats/refresh")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> refreshSystemStats() {
+        return adminService.refreshSystemStats();
+    }
+
+    /**
+     * Start a whole-instance backup (ADMIN only): every user's log as ADIF in one zip archive.
+     * The backup runs as an export job owned by the admin; poll and download it under
+     * /api/v1/export/jobs.
+     *
+     * @param authentication JWT authentication
+     * @return The submitted backup job
+     */
+    @PostMapping("/backups")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<ExportJobResponse> startBackup(Authentication authentication) {
+        var adminId = userIdResolver.resolve(authentication);
+
+        return exportJobService.submitBackup(adminId)
+                .map(ExportJobResponse::from);
+    }
 }
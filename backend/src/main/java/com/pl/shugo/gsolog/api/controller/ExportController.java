@@ -1,35 +1,42 @@
 package com.pl.shugo.gsolog.api.controller;
 
+import com.pl.shugo.gsolog.api.dto.ExportWatermarkResponse;
+import com.pl.shugo.gsolog.application.export.ExportCompression;
+import com.pl.shugo.gsolog.application.export.ExportFormat;
+import com.pl.shugo.gsolog.application.export.GzipCompressor;
 import com.pl.shugo.gsolog.application.service.ExportService;
 import com.pl.shugo.gsolog.infrastructure.security.AuthenticatedUserIdResolver;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Export REST controller.
- * Provides ADIF and CSV export endpoints for QSO data.
+ * Streams QSO data in any registered export format, optionally gzip-compressed.
  */
 @RestController
 @RequestMapping("/api/v1/export")
 public class ExportController {
 
-    private static final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
-    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String GZIP_MEDIA_TYPE = "application/gzip";
 
     private final ExportService exportService;
     private final AuthenticatedUserIdResolver userIdResolver;
@@ -40,77 +47,125 @@ public class ExportController {
     }
 
     /**
-     * Export QSOs in ADIF format.
+     * Export QSOs in the given format: adif, csv, adx or cabrillo.
      * Optionally filtered by date range.
+     * compress=gzip downloads a .gz file; without it, the stream is gzip-encoded
+     * for transfer when the client sends Accept-Encoding: gzip.
+     * incremental=true exports only QSOs created or updated since the last complete
+     * incremental export to the same target; it always covers every date, so it cannot be
+     * combined with from/to.
+     * <p>
+     * The export is read in chunks, not from one database snapshot: QSOs logged after the
+     * export started are left out, and every QSO left unchanged while it runs is written
+     * exactly once. A QSO edited mid-export is written with either its old or new values,
+     * and if the edit moves its date/time across the part already written it may be written
+     * twice or not at all; a QSO deleted mid-export may still be written. Incremental exports
+     * pick such edits up on their next run.
      *
+     * @param format         Export format id
      * @param from           Start date (inclusive, optional)
      * @param to             End date (inclusive, optional)
+     * @param incremental    Export only changes since the target's watermark (default false)
+     * @param target         Incremental export target, e.g. lotw (optional, default "default")
+     * @param compress       File compression: none or gzip (optional)
+     * @param acceptEncoding Accept-Encoding header (optional)
      * @param authentication JWT authentication
-     * @return ADIF file as streaming response
+     * @param response       Response whose (pooled) buffer factory the export is encoded into
+     * @return Export file as streaming response
      */
-    @GetMapping(value = "/adif", produces = MediaType.TEXT_PLAIN_VALUE)
-    public ResponseEntity<Flux<DataBuffer>> exportAdif(
+    @GetMapping("/{format}")
+    public ResponseEntity<Flux<DataBuffer>> export(
+            @PathVariable String format,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
-            Authentication authentication) {
+            @RequestParam(defaultValue = "false") boolean incremental,
+            @RequestParam(required = false) String target,
+            @RequestParam(required = false) String compress,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Authentication authentication,
+            ServerHttpResponse response) {
 
         var userId = userIdResolver.resolve(authentication);
 
-        Flux<DataBuffer> adifData = exportService.generateAdif(userId, from, to)
-                .map(line -> bufferFactory.wrap(line.getBytes(StandardCharsets.UTF_8)));
+        ExportFormat exportFormat = exportService.findFormat(format)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown export format"));
 
-        String filename = generateFilename("qsolog", from, to, "adi");
+        if (incremental && (from != null || to != null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Incremental exports cover every date; from/to cannot be used with incremental=true");
+        }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(adifData);
+        Flux<DataBuffer> data = incremental
+                ? exportService.generateIncremental(exportFormat, userId, target, response.bufferFactory())
+                : exportService.generate(exportFormat, userId, from, to, response.bufferFactory());
+
+        String filename = exportService.buildFilename(exportFormat, from, to);
+
+        return streamExport(data, filename, MediaType.parseMediaType(exportFormat.mediaType()),
+                compress, acceptEncoding, response);
     }
 
     /**
-     * Export QSOs in CSV format.
-     * Optionally filtered by date range.
+     * List the user's incremental export watermarks.
      *
-     * @param from           Start date (inclusive, optional)
-     * @param to             End date (inclusive, optional)
      * @param authentication JWT authentication
-     * @return CSV file as streaming response
+     * @return Watermark per export target
      */
-    @GetMapping(value = "/csv", produces = "text/csv")
-    public ResponseEntity<Flux<DataBuffer>> exportCsv(
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
-            Authentication authentication) {
-
+    @GetMapping("/watermarks")
+    public Flux<ExportWatermarkResponse> getWatermarks(Authentication authentication) {
         var userId = userIdResolver.resolve(authentication);
 
-        Flux<DataBuffer> csvData = exportService.generateCsv(userId, from, to)
-                .map(line -> bufferFactory.wrap(line.getBytes(StandardCharsets.UTF_8)));
+        return exportService.getWatermarks(userId)
+                .map(ExportWatermarkResponse::from);
+    }
 
-        String filename = generateFilename("qsolog", from, to, "csv");
+    /**
+     * Reset an export target's watermark, so its next incremental export includes every QSO.
+     *
+     * @param target         Export target
+     * @param authentication JWT authentication
+     */
+    @DeleteMapping("/watermarks/{target}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> resetWatermark(@PathVariable String target, Authentication authentication) {
+        var userId = userIdResolver.resolve(authentication);
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(csvData);
+        return exportService.resetWatermark(userId, target)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Export watermark not found"
+                )))
+                .then();
     }
 
     /**
-     * Generate filename with optional date range.
+     * Build the streaming export response, compressing the data if requested.
+     * An explicit compress parameter selects the downloaded file type; otherwise
+     * Accept-Encoding decides the transfer encoding and the file is unchanged.
      */
-    private String generateFilename(String prefix, LocalDate from, LocalDate to, String extension) {
-        StringBuilder filename = new StringBuilder(prefix);
-
-        if (from != null && to != null) {
-            filename.append("_")
-                    .append(from.format(FILE_DATE_FORMAT))
-                    .append("-")
-                    .append(to.format(FILE_DATE_FORMAT));
-        } else if (from != null) {
-            filename.append("_from_").append(from.format(FILE_DATE_FORMAT));
-        } else if (to != null) {
-            filename.append("_to_").append(to.format(FILE_DATE_FORMAT));
+    private ResponseEntity<Flux<DataBuffer>> streamExport(Flux<DataBuffer> data, String filename, MediaType mediaType,
+                                                          String compress, String acceptEncoding,
+                                                          ServerHttpResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+
+        if (compress != null) {
+            if (ExportCompression.fromValue(compress) == ExportCompression.GZIP) {
+                data = GzipCompressor.compress(data, response.bufferFactory());
+                filename = filename + ".gz";
+                mediaType = MediaType.parseMediaType(GZIP_MEDIA_TYPE);
+            }
+        } else {
+            builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (ExportCompression.fromAcceptEncoding(acceptEncoding) == ExportCompression.GZIP) {
+                data = GzipCompressor.compress(data, response.bufferFactory());
+                builder.header(HttpHeaders.CONTENT_ENCODING, ExportCompression.GZIP.getValue());
+            }
         }
 
-        filename.append(".").append(extension);
-        return filename.toString();
+        return builder
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(data);
     }
 }
@@ -0,0 +1,151 @@
+package com.pl.shugo.gsolog.api.controller;
+
+import com.pl.shugo.gsolog.api.dto.ExportJobRequest;
+import com.pl.shugo.gsolog.api.dto.ExportJobResponse;
+import com.pl.shugo.gsolog.application.export.ExportCompression;
+import com.pl.shugo.gsolog.application.export.ExportFormat;
+import com.pl.shugo.gsolog.application.service.ExportJobService;
+import com.pl.shugo.gsolog.application.service.ExportService;
+import com.pl.shugo.gsolog.domain.entity.ExportJob;
+import com.pl.shugo.gsolog.domain.enums.ExportJobStatus;
+import com.pl.shugo.gsolog.infrastructure.security.AuthenticatedUserIdResolver;
+import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Export job REST controller.
+ * Large exports are rendered in the background to a stored file, which can then be
+ * downloaded with HTTP Range requests so an interrupted download resumes where it stopped.
+ */
+@RestController
+@RequestMapping("/api/v1/export/jobs")
+public class ExportJobController {
+
+    private static final String GZIP_MEDIA_TYPE = "application/gzip";
+    private static final String ZIP_MEDIA_TYPE = "application/zip";
+
+    private final ExportJobService exportJobService;
+    private final ExportService exportService;
+    private final AuthenticatedUserIdResolver userIdResolver;
+
+    public ExportJobController(ExportJobService exportJobService, ExportService exportService,
+                               AuthenticatedUserIdResolver userIdResolver) {
+        this.exportJobService = exportJobService;
+        this.exportService = exportService;
+        this.userIdResolver = userIdResolver;
+    }
+
+    /**
+     * Submit an export job.
+     * If an identical export of unchanged QSOs exists, that job is returned instead.
+     *
+     * @param request        Format, optional date range and compression
+     * @param authentication JWT authentication
+     * @return The submitted (or reused) job
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<ExportJobResponse> submitJob(@Valid @RequestBody ExportJobRequest request,
+                                             Authentication authentication) {
+        var userId = userIdResolver.resolve(authentication);
+
+        return exportJobService.submit(userId, request.format(), request.compress(), request.from(), request.to())
+                .map(ExportJobResponse::from);
+    }
+
+    /**
+     * List the user's export jobs, newest first.
+     */
+    @GetMapping
+    public Flux<ExportJobResponse> getJobs(Authentication authentication) {
+        var userId = userIdResolver.resolve(authentication);
+
+        return exportJobService.getJobs(userId)
+                .map(ExportJobResponse::from);
+    }
+
+    /**
+     * Get an export job's status.
+     */
+    @GetMapping("/{id}")
+    public Mono<ExportJobResponse> getJob(@PathVariable UUID id, Authentication authentication) {
+        var userId = userIdResolver.resolve(authentication);
+
+        return findJob(userId, id)
+                .map(ExportJobResponse::from);
+    }
+
+    /**
+     * Download a completed export job's file.
+     * Supports Range requests (206 Partial Content) and conditional requests on the
+     * content hash ETag; the file is sent zero-copy from disk.
+     *
+     * @param id             Export job ID
+     * @param authentication JWT authentication
+     * @return The stored export file
+     */
+    @GetMapping("/{id}/download")
+    public Mono<ResponseEntity<Resource>> downloadJob(@PathVariable UUID id, Authentication authentication) {
+        var userId = userIdResolver.resolve(authentication);
+
+        return findJob(userId, id)
+                .flatMap(job -> {
+                    if (job.getStatus() != ExportJobStatus.COMPLETED) {
+                        return Mono.error(new ResponseStatusException(
+                                HttpStatus.CONFLICT,
+                                "Export job is not completed"
+                        ));
+                    }
+                    return exportJobService.openFile(job)
+                            .switchIfEmpty(Mono.error(new ResponseStatusException(
+                                    HttpStatus.GONE,
+                                    "Export file is no longer available"
+                            )))
+                            .map(file -> ResponseEntity.ok()
+                                    .contentType(mediaType(job))
+                                    .eTag(job.getContentHash())
+                                    .lastModified(job.getCompletedAt())
+                                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                                            "attachment; filename=\"" + job.getFileName() + "\"")
+                                    .body(file));
+                });
+    }
+
+    private Mono<ExportJob> findJob(UUID userId, UUID id) {
+        return exportJobService.getJob(userId, id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Export job not found"
+                )));
+    }
+
+    private MediaType mediaType(ExportJob job) {
+        if (ExportJobService.BACKUP_FORMAT.equals(job.getFormat())) {
+            return MediaType.parseMediaType(ZIP_MEDIA_TYPE);
+        }
+        if (ExportCompression.fromValue(job.getCompression()) == ExportCompression.GZIP) {
+            return MediaType.parseMediaType(GZIP_MEDIA_TYPE);
+        }
+        return exportService.findFormat(job.getFormat())
+                .map(ExportFormat::mediaType)
+                .map(MediaType::parseMediaType)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+}
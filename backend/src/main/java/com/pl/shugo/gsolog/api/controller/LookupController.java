@@ -1,13 +1,21 @@
 package com.pl.shugo.gsolog.api.controller;
 
+import com.pl.shugo.gsolog.api.dto.CallsignBatchLookupRequest;
+import com.pl.shugo.gsolog.api.dto.CallsignBatchLookupResult;
 import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+import com.pl.shugo.gsolog.application.service.LookupService;
 import com.pl.shugo.gsolog.domain.port.CallsignLookupPort;
+import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -19,9 +27,11 @@ import reactor.core.publisher.Mono;
 public class LookupController {
 
     private final CallsignLookupPort callsignLookupPort;
+    private final LookupService lookupService;
 
-    public LookupController(CallsignLookupPort callsignLookupPort) {
+    public LookupController(CallsignLookupPort callsignLookupPort, LookupService lookupService) {
         this.callsignLookupPort = callsignLookupPort;
+        this.lookupService = lookupService;
     }
 
     /**
@@ -39,4 +49,17 @@ public class LookupController {
                         "Callsign not found"
                 )));
     }
+
+    /**
+     * Look up many callsigns at once (authenticated).
+     * Results are streamed as newline-delimited JSON as they resolve: cached callsigns first,
+     * the rest rate-limited against the external service.
+     *
+     * @param request Callsigns to look up (at most 1000)
+     * @return One result per distinct callsign, in completion order
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CallsignBatchLookupResult> lookupBatch(@Valid @RequestBody CallsignBatchLookupRequest request) {
+        return lookupService.lookupBatch(request.callsigns());
+    }
 }
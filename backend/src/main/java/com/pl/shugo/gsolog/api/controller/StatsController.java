@@ -1,15 +1,21 @@
 package com.pl.shugo.gsolog.api.controller;
 
 import com.pl.shugo.gsolog.api.dto.StatsResponse;
+import com.pl.shugo.gsolog.api.dto.UniqueStationsResponse;
 import com.pl.shugo.gsolog.application.service.StatsService;
+import com.pl.shugo.gsolog.domain.enums.StatsGranularity;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -21,6 +27,8 @@ import java.util.UUID;
 @RequestMapping("/api/v1/stats")
 public class StatsController {
 
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(30);
+
     private final StatsService statsService;
 
     public StatsController(StatsService statsService) {
@@ -30,18 +38,73 @@ public class StatsController {
     /**
      * Get statistics summary for the authenticated user.
      * Optionally filtered by date range.
+     * Counts over time are bucketed by granularity (day, week, month, year);
+     * each countsByDay entry carries the bucket start date.
      *
-     * @param userId User ID from JWT token principal
-     * @param from   Start date (inclusive, optional)
-     * @param to     End date (inclusive, optional)
+     * @param userId      User ID from JWT token principal
+     * @param from        Start date (inclusive, optional)
+     * @param to          End date (inclusive, optional)
+     * @param granularity Time bucket size (default: day)
      * @return Statistics response with counts by band, mode, day, and totals
      */
     @GetMapping("/summary")
     public Mono<StatsResponse> getStatsSummary(
+            @AuthenticationPrincipal UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+
+        return statsService.getStatsSummary(userId, from, to, StatsGranularity.fromValue(granularity));
+    }
+
+    /**
+     * Get approximate unique stations worked by the authenticated user,
+     * in total and by band, mode, and month.
+     * Estimates come from monthly HyperLogLog sketches (about 1% error);
+     * the date range is widened to whole months.
+     *
+     * @param userId User ID from JWT token principal
+     * @param from   Start date (inclusive, optional)
+     * @param to     End date (inclusive, optional)
+     * @return Unique station estimates
+     */
+    @GetMapping("/unique-stations")
+    public Mono<UniqueStationsResponse> getUniqueStations(
             @AuthenticationPrincipal UUID userId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
 
-        return statsService.getStatsSummary(userId, from, to);
+        return statsService.getUniqueStations(userId, from, to);
+    }
+
+    /**
+     * Stream live statistics for the authenticated user as Server-Sent Events.
+     * The first event ("snapshot") carries full statistics; following events ("delta")
+     * carry only changed entries plus current totals. Removed entries have zero counts.
+     * A comment heartbeat keeps idle connections open through proxies.
+     *
+     * @param userId      User ID from JWT token principal
+     * @param from        Start date (inclusive, optional)
+     * @param to          End date (inclusive, optional)
+     * @param granularity Time bucket size (default: day)
+     * @return Event stream of statistics updates
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<StatsResponse>> streamStats(
+            @AuthenticationPrincipal UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+
+        Flux<ServerSentEvent<StatsResponse>> updates = statsService
+                .streamStats(userId, from, to, StatsGranularity.fromValue(granularity))
+                .map(update -> ServerSentEvent.builder(update.stats())
+                        .event(update.snapshot() ? "snapshot" : "delta")
+                        .build());
+
+        Flux<ServerSentEvent<StatsResponse>> heartbeat = Flux.interval(HEARTBEAT_INTERVAL)
+                .map(tick -> ServerSentEvent.<StatsResponse>builder().comment("keep-alive").build());
+
+        return Flux.merge(updates, heartbeat);
     }
 }
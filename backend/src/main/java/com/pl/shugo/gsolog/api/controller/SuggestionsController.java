@@ -1,21 +1,25 @@
 package com.pl.shugo.gsolog.api.controller;
 
+import com.pl.shugo.gsolog.api.dto.CallsignMatchResponse;
 import com.pl.shugo.gsolog.api.dto.CallsignSuggestionResponse;
 import com.pl.shugo.gsolog.application.service.SuggestionsService;
+import com.pl.shugo.gsolog.domain.enums.CallsignRanking;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
 /**
  * Suggestions REST controller.
- * Provides callsign suggestions from user's QSO history.
+ * Provides callsign suggestions and autocomplete from user's QSO history.
  */
 @RestController
 @RequestMapping("/api/v1/suggestions")
@@ -46,4 +50,23 @@ public class SuggestionsController {
                         "No suggestions found for callsign"
                 )));
     }
+
+    /**
+     * Autocomplete callsigns: previously worked callsigns starting with the prefix.
+     *
+     * @param userId User ID from JWT token principal
+     * @param q      Callsign prefix (case-insensitive)
+     * @param rank   Order of matches: recent (last QSO first) or frequent (most QSOs first)
+     * @param limit  Maximum number of matches (default: 10, max: 50)
+     * @return Matching callsigns with QSO count and last QSO date
+     */
+    @GetMapping("/prefix")
+    public Flux<CallsignMatchResponse> getPrefixMatches(
+            @AuthenticationPrincipal UUID userId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "recent") String rank,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return suggestionsService.getPrefixMatches(userId, q, CallsignRanking.fromValue(rank), limit);
+    }
 }
@@ -0,0 +1,15 @@
+package com.pl.shugo.gsolog.api.dto;
+
+import java.util.List;
+
+/**
+ * System-wide statistics response for administrators.
+ * Contains aggregated QSO counts across all users by band, mode, and day.
+ */
+public record AdminStatsResponse(
+        List<BandStats> countsByBand,
+        List<ModeStats> countsByMode,
+        List<DayStats> countsByDay,
+        AdminTotals totals
+) {
+}
@@ -0,0 +1,16 @@
+package com.pl.shugo.gsolog.api.dto;
+
+import java.time.Instant;
+
+/**
+ * System-wide totals for administrators.
+ * Active users are users who logged a QSO in the last 30 days.
+ */
+public record AdminTotals(
+        Long users,
+        Long activeUsers,
+        Long all,
+        Long confirmed,
+        Instant refreshedAt
+) {
+}
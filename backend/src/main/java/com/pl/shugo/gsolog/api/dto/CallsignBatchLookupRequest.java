@@ -0,0 +1,16 @@
+package com.pl.shugo.gsolog.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request DTO for looking up many callsigns at once.
+ */
+public record CallsignBatchLookupRequest(
+        @NotEmpty(message = "Callsigns are required")
+        @Size(max = 1000, message = "At most 1000 callsigns per request")
+        List<String> callsigns
+) {
+}
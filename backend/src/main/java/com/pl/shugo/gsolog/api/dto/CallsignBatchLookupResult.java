@@ -0,0 +1,11 @@
+package com.pl.shugo.gsolog.api.dto;
+
+/**
+ * One callsign of a batch lookup, streamed as soon as it is resolved.
+ */
+public record CallsignBatchLookupResult(
+        String callsign,
+        boolean found,
+        CallsignLookupResponse lookup  // null if not found
+) {
+}
@@ -0,0 +1,13 @@
+package com.pl.shugo.gsolog.api.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Previously worked callsign matching an autocomplete prefix.
+ */
+public record CallsignMatchResponse(
+        String callsign,
+        int qsoCount,
+        LocalDate lastQsoDate
+) {
+}
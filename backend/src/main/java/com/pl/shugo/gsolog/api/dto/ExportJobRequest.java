@@ -0,0 +1,19 @@
+package com.pl.shugo.gsolog.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.LocalDate;
+
+/**
+ * Request DTO for submitting an asynchronous export job.
+ */
+public record ExportJobRequest(
+        @NotBlank(message = "Format is required")
+        String format,
+
+        LocalDate from,
+        LocalDate to,
+
+        String compress  // "none" or "gzip", optional
+) {
+}
@@ -0,0 +1,50 @@
+package com.pl.shugo.gsolog.api.dto;
+
+import com.pl.shugo.gsolog.domain.entity.ExportJob;
+import com.pl.shugo.gsolog.domain.enums.ExportJobStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Response DTO for an export job.
+ * downloadUrl is only set once the job has completed.
+ */
+public record ExportJobResponse(
+        UUID id,
+        String format,
+        String compression,
+        LocalDate from,
+        LocalDate to,
+        ExportJobStatus status,
+        String fileName,
+        Long sizeBytes,
+        String contentHash,
+        String errorMessage,
+        String downloadUrl,
+        Instant createdAt,
+        Instant completedAt,
+        Instant expiresAt
+) {
+    public static ExportJobResponse from(ExportJob job) {
+        return new ExportJobResponse(
+                job.getId(),
+                job.getFormat(),
+                job.getCompression(),
+                job.getFromDate(),
+                job.getToDate(),
+                job.getStatus(),
+                job.getFileName(),
+                job.getSizeBytes(),
+                job.getContentHash(),
+                job.getErrorMessage(),
+                job.getStatus() == ExportJobStatus.COMPLETED
+                        ? "/api/v1/export/jobs/" + job.getId() + "/download"
+                        : null,
+                job.getCreatedAt(),
+                job.getCompletedAt(),
+                job.getExpiresAt()
+        );
+    }
+}
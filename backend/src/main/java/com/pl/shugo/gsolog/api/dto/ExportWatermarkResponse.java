@@ -0,0 +1,22 @@
+package com.pl.shugo.gsolog.api.dto;
+
+import com.pl.shugo.gsolog.domain.entity.ExportWatermark;
+
+import java.time.Instant;
+
+/**
+ * Response DTO for an incremental export watermark.
+ */
+public record ExportWatermarkResponse(
+        String target,
+        Instant watermark,
+        Instant updatedAt
+) {
+    public static ExportWatermarkResponse from(ExportWatermark watermark) {
+        return new ExportWatermarkResponse(
+                watermark.getTarget(),
+                watermark.getWatermark(),
+                watermark.getUpdatedAt()
+        );
+    }
+}
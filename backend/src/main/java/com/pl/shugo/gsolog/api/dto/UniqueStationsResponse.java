@@ -0,0 +1,19 @@
+package com.pl.shugo.gsolog.api.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Approximate unique stations (distinct callsigns) worked.
+ * Counts are HyperLogLog estimates (about 1% error) over whole months;
+ * from/to are the requested dates widened to month boundaries.
+ */
+public record UniqueStationsResponse(
+        LocalDate from,
+        LocalDate to,
+        Long total,
+        Map<String, Long> byBand,
+        Map<String, Long> byMode,
+        Map<LocalDate, Long> byMonth
+) {
+}
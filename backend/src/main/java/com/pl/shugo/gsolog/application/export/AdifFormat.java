@@ -0,0 +1,202 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static com.pl.shugo.gsolog.application.export.EncoderSupport.isAscii;
+import static com.pl.shugo.gsolog.application.export.EncoderSupport.writeAscii;
+import static com.pl.shugo.gsolog.application.export.EncoderSupport.writeDigits;
+import static com.pl.shugo.gsolog.application.export.EncoderSupport.writeInt;
+
+/**
+ * ADIF export format.
+ * Writes QSOs straight into data buffers from the response's buffer factory
+ * (pooled Netty buffers on the server), filling each buffer to about 64 KB
+ * so a large export is a few big writes instead of one small write per QSO.
+ * Field tags are precomputed bytes; field lengths are UTF-8 byte counts as ADIF requires.
+ */
+@Component
+public class AdifFormat implements ExportFormat, ExportWriter {
+
+    private static final byte[] HEADER = """
+            ADIF Export
+            <ADIF_VER:5>3.1.4
+            <PROGRAMID:6>QSOLOG
+            <EOH>
+
+            """.getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] CALL = tag("CALL");
+    private static final byte[] QSO_DATE = tag("QSO_DATE");
+    private static final byte[] TIME_ON = tag("TIME_ON");
+    private static final byte[] BAND = tag("BAND");
+    private static final byte[] MODE = tag("MODE");
+    private static final byte[] SUBMODE = tag("SUBMODE");
+    private static final byte[] CUSTOM_MODE = tag("APP_QSOLOG_CUSTOMMODE");
+    private static final byte[] FREQ = tag("FREQ");
+    private static final byte[] RST_SENT = tag("RST_SENT");
+    private static final byte[] RST_RCVD = tag("RST_RCVD");
+    private static final byte[] QTH = tag("QTH");
+    private static final byte[] GRIDSQUARE = tag("GRIDSQUARE");
+    private static final byte[] COMMENT = tag("COMMENT");
+    private static final byte[] QSL_RCVD = tag("QSL_RCVD");
+    private static final byte[] LOTW_QSLRDATE = tag("LOTW_QSLRDATE");
+    private static final byte[] EQSL_QSLRDATE = tag("EQSL_QSLRDATE");
+    private static final byte[] EOR = "<EOR>\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DATA = "DATA".getBytes(StandardCharsets.US_ASCII);
+
+    private static final BigDecimal THOUSAND = new BigDecimal("1000");
+
+    private static byte[] tag(String fieldName) {
+        return ("<" + fieldName + ":").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public String id() {
+        return "adif";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "adi";
+    }
+
+    @Override
+    public String mediaType() {
+        return "text/plain";
+    }
+
+    /**
+     * ADIF records need no per-export state, so the format is its own writer.
+     */
+    @Override
+    public ExportWriter newWriter(ExportContext context) {
+        return this;
+    }
+
+    /**
+     * Write the ADIF file header.
+     */
+    @Override
+    public void writeHeader(DataBuffer buffer) {
+        buffer.write(HEADER);
+    }
+
+    /**
+     * Write a single QSO as an ADIF record.
+     * Handles mode/submode/customMode mapping according to ADIF specification.
+     */
+    @Override
+    public void writeRecord(Qso qso, DataBuffer buffer) {
+        // Required fields
+        writeField(buffer, CALL, qso.getTheirCallsign());
+        writeDateField(buffer, QSO_DATE, qso.getQsoDate());
+        writeTimeField(buffer, TIME_ON, qso.getTimeOn());
+        writeField(buffer, BAND, qso.getBand());
+
+        // Mode handling according to ADIF specification
+        if (qso.getCustomMode() != null && !qso.getCustomMode().isBlank()) {
+            // Custom mode: emit MODE=DATA and vendor field
+            writeField(buffer, MODE, DATA);
+            writeField(buffer, CUSTOM_MODE, qso.getCustomMode());
+        } else {
+            // Standard mode
+            writeField(buffer, MODE, qso.getMode().name());
+            if (qso.getSubmode() != null) {
+                writeField(buffer, SUBMODE, qso.getSubmode().name());
+            }
+        }
+
+        // Optional fields
+        if (qso.getFrequencyKhz() != null) {
+            BigDecimal freqMhz = qso.getFrequencyKhz().divide(THOUSAND, 6, RoundingMode.HALF_UP);
+            writeField(buffer, FREQ, freqMhz.stripTrailingZeros().toPlainString());
+        }
+        writeField(buffer, RST_SENT, qso.getRstSent());
+        writeField(buffer, RST_RCVD, qso.getRstRecv());
+        writeField(buffer, QTH, qso.getQth());
+        writeField(buffer, GRIDSQUARE, qso.getGridSquare());
+        writeField(buffer, COMMENT, qso.getNotes());
+
+        // QSL status fields
+        if (qso.getQslStatus() != null) {
+            writeField(buffer, QSL_RCVD, qso.getQslStatus().name());
+        }
+        if (qso.getLotwStatus() != null) {
+            writeField(buffer, LOTW_QSLRDATE, qso.getLotwStatus().name());
+        }
+        if (qso.getEqslStatus() != null) {
+            writeField(buffer, EQSL_QSLRDATE, qso.getEqslStatus().name());
+        }
+
+        buffer.write(EOR);
+    }
+
+    /**
+     * Write an ADIF field in the format: <FIELD:length>value
+     * Blank values are skipped. ASCII values are copied char by char without allocating;
+     * other values are encoded once to get their UTF-8 byte count.
+     */
+    private static void writeField(DataBuffer buffer, byte[] tag, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        if (isAscii(value)) {
+            int length = value.length();
+            buffer.write(tag);
+            writeInt(buffer, length);
+            buffer.write((byte) '>');
+            writeAscii(buffer, value);
+            buffer.write((byte) ' ');
+        } else {
+            writeField(buffer, tag, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void writeField(DataBuffer buffer, byte[] tag, byte[] value) {
+        buffer.write(tag);
+        writeInt(buffer, value.length);
+        buffer.write((byte) '>');
+        buffer.write(value);
+        buffer.write((byte) ' ');
+    }
+
+    /**
+     * Write a date as <FIELD:8>yyyyMMdd
+     */
+    private static void writeDateField(DataBuffer buffer, byte[] tag, LocalDate date) {
+        if (date == null) {
+            return;
+        }
+        buffer.write(tag);
+        buffer.write((byte) '8');
+        buffer.write((byte) '>');
+        writeDigits(buffer, date.getYear(), 4);
+        writeDigits(buffer, date.getMonthValue(), 2);
+        writeDigits(buffer, date.getDayOfMonth(), 2);
+        buffer.write((byte) ' ');
+    }
+
+    /**
+     * Write a time as <FIELD:6>HHmmss
+     */
+    private static void writeTimeField(DataBuffer buffer, byte[] tag, LocalTime time) {
+        if (time == null) {
+            return;
+        }
+        buffer.write(tag);
+        buffer.write((byte) '6');
+        buffer.write((byte) '>');
+        writeDigits(buffer, time.getHour(), 2);
+        writeDigits(buffer, time.getMinute(), 2);
+        writeDigits(buffer, time.getSecond(), 2);
+        buffer.write((byte) ' ');
+    }
+}
@@ -0,0 +1,214 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * ADX (ADIF XML) export format.
+ * Each export gets one streaming XML writer whose output is pointed at the current
+ * data buffer before every call and flushed after it, so records go straight into
+ * the shared 64 KB buffers without building a document in memory.
+ * Fields mirror the ADIF export; custom modes are written as MODE DATA plus an APP field.
+ */
+@Component
+public class AdxFormat implements ExportFormat {
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+    private static final DateTimeFormatter ADIF_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter ADIF_TIME_FORMAT = DateTimeFormatter.ofPattern("HHmmss");
+    private static final BigDecimal THOUSAND = new BigDecimal("1000");
+
+    @Override
+    public String id() {
+        return "adx";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "adx";
+    }
+
+    @Override
+    public String mediaType() {
+        return "application/xml";
+    }
+
+    @Override
+    public ExportWriter newWriter(ExportContext context) {
+        return new AdxWriter();
+    }
+
+    private static final class AdxWriter implements ExportWriter {
+        private final BufferOutputStream output = new BufferOutputStream();
+        private final XMLStreamWriter xml;
+
+        AdxWriter() {
+            try {
+                xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(output, "UTF-8");
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException("Failed to create ADX writer", e);
+            }
+        }
+
+        @Override
+        public void writeHeader(DataBuffer buffer) {
+            write(buffer, () -> {
+                xml.writeStartDocument("UTF-8", "1.0");
+                xml.writeCharacters("\n");
+                xml.writeStartElement("ADX");
+                xml.writeCharacters("\n");
+                xml.writeStartElement("HEADER");
+                writeField("ADIF_VER", "3.1.4");
+                writeField("PROGRAMID", "QSOLOG");
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+                xml.writeStartElement("RECORDS");
+                xml.writeCharacters("\n");
+            });
+        }
+
+        @Override
+        public void writeRecord(Qso qso, DataBuffer buffer) {
+            write(buffer, () -> {
+                xml.writeStartElement("RECORD");
+                writeField("CALL", qso.getTheirCallsign());
+                if (qso.getQsoDate() != null) {
+                    writeField("QSO_DATE", qso.getQsoDate().format(ADIF_DATE_FORMAT));
+                }
+                if (qso.getTimeOn() != null) {
+                    writeField("TIME_ON", qso.getTimeOn().format(ADIF_TIME_FORMAT));
+                }
+                writeField("BAND", qso.getBand());
+
+                if (qso.getCustomMode() != null && !qso.getCustomMode().isBlank()) {
+                    writeField("MODE", "DATA");
+                    xml.writeStartElement("APP");
+                    xml.writeAttribute("PROGRAMID", "QSOLOG");
+                    xml.writeAttribute("FIELDNAME", "CUSTOMMODE");
+                    xml.writeAttribute("TYPE", "S");
+                    xml.writeCharacters(sanitize(qso.getCustomMode()));
+                    xml.writeEndElement();
+                } else {
+                    writeField("MODE", qso.getMode().name());
+                    if (qso.getSubmode() != null) {
+                        writeField("SUBMODE", qso.getSubmode().name());
+                    }
+                }
+
+                if (qso.getFrequencyKhz() != null) {
+                    BigDecimal freqMhz = qso.getFrequencyKhz().divide(THOUSAND, 6, RoundingMode.HALF_UP);
+                    writeField("FREQ", freqMhz.stripTrailingZeros().toPlainString());
+                }
+                writeField("RST_SENT", qso.getRstSent());
+                writeField("RST_RCVD", qso.getRstRecv());
+                writeField("QTH", qso.getQth());
+                writeField("GRIDSQUARE", qso.getGridSquare());
+                writeField("COMMENT", qso.getNotes());
+
+                if (qso.getQslStatus() != null) {
+                    writeField("QSL_RCVD", qso.getQslStatus().name());
+                }
+                if (qso.getLotwStatus() != null) {
+                    writeField("LOTW_QSLRDATE", qso.getLotwStatus().name());
+                }
+                if (qso.getEqslStatus() != null) {
+                    writeField("EQSL_QSLRDATE", qso.getEqslStatus().name());
+                }
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+            });
+        }
+
+        @Override
+        public void writeFooter(DataBuffer buffer) {
+            write(buffer, () -> {
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+                xml.writeEndDocument();
+            });
+        }
+
+        /**
+         * Write an element with text content. Blank values are skipped.
+         */
+        private void writeField(String name, String value) throws XMLStreamException {
+            if (value == null || value.isBlank()) {
+                return;
+            }
+            xml.writeStartElement(name);
+            xml.writeCharacters(sanitize(value));
+            xml.writeEndElement();
+        }
+
+        /**
+         * Run the given XML writes against the buffer and flush them into it.
+         */
+        private void write(DataBuffer buffer, XmlWrites writes) {
+            output.target = buffer;
+            try {
+                writes.run();
+                xml.flush();
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException("Failed to write ADX export", e);
+            } finally {
+                output.target = null;
+            }
+        }
+    }
+
+    /**
+     * Drop control characters that XML 1.0 does not allow, even escaped.
+     */
+    static String sanitize(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!isXmlChar(value.charAt(i))) {
+                StringBuilder sanitized = new StringBuilder(value.length());
+                for (int j = 0; j < value.length(); j++) {
+                    char c = value.charAt(j);
+                    if (isXmlChar(c)) {
+                        sanitized.append(c);
+                    }
+                }
+                return sanitized.toString();
+            }
+        }
+        return value;
+    }
+
+    private static boolean isXmlChar(char c) {
+        return c >= 0x20 ? c != 0xFFFE && c != 0xFFFF : c == '\t' || c == '\n' || c == '\r';
+    }
+
+    @FunctionalInterface
+    private interface XmlWrites {
+        void run() throws XMLStreamException;
+    }
+
+    /**
+     * Output stream writing into whichever data buffer is currently set.
+     */
+    private static final class BufferOutputStream extends OutputStream {
+        private DataBuffer target;
+
+        @Override
+        public void write(int b) {
+            target.write((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            target.write(bytes, offset, length);
+        }
+    }
+}
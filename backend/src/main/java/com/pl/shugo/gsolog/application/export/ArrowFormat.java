@@ -0,0 +1,377 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import com.pl.shugo.gsolog.domain.enums.AdifMode;
+import com.pl.shugo.gsolog.domain.enums.AdifSubmode;
+import com.pl.shugo.gsolog.domain.enums.Band;
+import com.pl.shugo.gsolog.domain.enums.EqslStatus;
+import com.pl.shugo.gsolog.domain.enums.LotwStatus;
+import com.pl.shugo.gsolog.domain.enums.QslStatus;
+import jakarta.annotation.PreDestroy;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeSecVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Apache Arrow IPC file export format (also known as Feather v2), for loading logs
+ * into pandas, Polars or DuckDB without parsing text.
+ * QSOs are buffered column by column and written out as a record batch every
+ * {@value #BATCH_SIZE} rows. Band, mode, submode and the QSL statuses are dictionary
+ * encoded against fixed dictionaries built from the domain enums, so each value is one byte.
+ */
+@Component
+public class ArrowFormat implements ExportFormat {
+
+    static final int BATCH_SIZE = 4096;
+
+    private static final ArrowType.Int INDEX_TYPE = new ArrowType.Int(8, true);
+
+    private static final List<String> BANDS = Stream.of(Band.values()).map(Band::getAdifValue).toList();
+    private static final List<String> MODES = names(AdifMode.values());
+    private static final List<String> SUBMODES = names(AdifSubmode.values());
+    private static final List<String> QSL_STATUSES = names(QslStatus.values());
+    private static final List<String> LOTW_STATUSES = names(LotwStatus.values());
+    private static final List<String> EQSL_STATUSES = names(EqslStatus.values());
+
+    /**
+     * Dictionary-encoded columns and their values; the list index is the dictionary id.
+     */
+    private static final List<DictionaryColumn> DICTIONARY_COLUMNS = List.of(
+            new DictionaryColumn("band", BANDS),
+            new DictionaryColumn("mode", MODES),
+            new DictionaryColumn("submode", SUBMODES),
+            new DictionaryColumn("qsl_status", QSL_STATUSES),
+            new DictionaryColumn("lotw_status", LOTW_STATUSES),
+            new DictionaryColumn("eqsl_status", EQSL_STATUSES));
+
+    private static final Map<String, Integer> BAND_INDEX = indexOf(BANDS);
+
+    private static final Schema SCHEMA = new Schema(List.of(
+            field("id", false, ArrowType.Utf8.INSTANCE, null),
+            field("call", false, ArrowType.Utf8.INSTANCE, null),
+            field("qso_date", false, new ArrowType.Date(DateUnit.DAY), null),
+            field("time_on", false, new ArrowType.Time(TimeUnit.SECOND, 32), null),
+            dictionaryField("band"),
+            field("frequency_khz", true, new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE), null),
+            dictionaryField("mode"),
+            dictionaryField("submode"),
+            field("custom_mode", true, ArrowType.Utf8.INSTANCE, null),
+            field("rst_sent", true, ArrowType.Utf8.INSTANCE, null),
+            field("rst_recv", true, ArrowType.Utf8.INSTANCE, null),
+            field("qth", true, ArrowType.Utf8.INSTANCE, null),
+            field("grid_square", true, ArrowType.Utf8.INSTANCE, null),
+            field("notes", true, ArrowType.Utf8.INSTANCE, null),
+            dictionaryField("qsl_status"),
+            dictionaryField("lotw_status"),
+            dictionaryField("eqsl_status"),
+            field("created_at", true, new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC"), null),
+            field("updated_at", true, new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC"), null)));
+
+    private final BufferAllocator rootAllocator = new RootAllocator();
+
+    @Override
+    public String id() {
+        return "arrow";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "arrow";
+    }
+
+    @Override
+    public String mediaType() {
+        return "application/vnd.apache.arrow.file";
+    }
+
+    @Override
+    public ExportWriter newWriter(ExportContext context) {
+        return new ArrowWriter(rootAllocator.newChildAllocator("export-" + context.userId(), 0, Long.MAX_VALUE));
+    }
+
+    @PreDestroy
+    void closeAllocator() {
+        rootAllocator.close();
+    }
+
+    private static final class ArrowWriter implements ExportWriter {
+        private final BufferAllocator allocator;
+        private final List<Dictionary> dictionaries = new ArrayList<>(DICTIONARY_COLUMNS.size());
+        private final VectorSchemaRoot root;
+        private final BufferChannel channel = new BufferChannel();
+        private final ArrowFileWriter fileWriter;
+
+        private final VarCharVector id;
+        private final VarCharVector call;
+        private final DateDayVector qsoDate;
+        private final TimeSecVector timeOn;
+        private final TinyIntVector band;
+        private final Float8Vector frequencyKhz;
+        private final TinyIntVector mode;
+        private final TinyIntVector submode;
+        private final VarCharVector customMode;
+        private final VarCharVector rstSent;
+        private final VarCharVector rstRecv;
+        private final VarCharVector qth;
+        private final VarCharVector gridSquare;
+        private final VarCharVector notes;
+        private final TinyIntVector qslStatus;
+        private final TinyIntVector lotwStatus;
+        private final TinyIntVector eqslStatus;
+        private final TimeStampMicroTZVector createdAt;
+        private final TimeStampMicroTZVector updatedAt;
+
+        private int rows;
+
+        ArrowWriter(BufferAllocator allocator) {
+            this.allocator = allocator;
+            try {
+                for (int i = 0; i < DICTIONARY_COLUMNS.size(); i++) {
+                    dictionaries.add(DICTIONARY_COLUMNS.get(i).toDictionary(i, allocator));
+                }
+                root = VectorSchemaRoot.create(SCHEMA, allocator);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            DictionaryProvider provider = new DictionaryProvider.MapDictionaryProvider(
+                    dictionaries.toArray(Dictionary[]::new));
+            fileWriter = new ArrowFileWriter(root, provider, channel);
+
+            id = vector("id");
+            call = vector("call");
+            qsoDate = vector("qso_date");
+            timeOn = vector("time_on");
+            band = vector("band");
+            frequencyKhz = vector("frequency_khz");
+            mode = vector("mode");
+            submode = vector("submode");
+            customMode = vector("custom_mode");
+            rstSent = vector("rst_sent");
+            rstRecv = vector("rst_recv");
+            qth = vector("qth");
+            gridSquare = vector("grid_square");
+            notes = vector("notes");
+            qslStatus = vector("qsl_status");
+            lotwStatus = vector("lotw_status");
+            eqslStatus = vector("eqsl_status");
+            createdAt = vector("created_at");
+            updatedAt = vector("updated_at");
+            root.allocateNew();
+        }
+
+        @Override
+        public void writeHeader(DataBuffer buffer) {
+            write(buffer, fileWriter::start);
+        }
+
+        @Override
+        public void writeRecord(Qso qso, DataBuffer buffer) {
+            int row = rows;
+            setString(id, row, qso.getId() != null ? qso.getId().toString() : "");
+            setString(call, row, qso.getTheirCallsign());
+            qsoDate.setSafe(row, (int) qso.getQsoDate().toEpochDay());
+            timeOn.setSafe(row, qso.getTimeOn().toSecondOfDay());
+            setIndex(band, row, qso.getBand() != null ? BAND_INDEX.get(qso.getBand().toLowerCase(Locale.ROOT)) : null);
+            if (qso.getFrequencyKhz() != null) {
+                frequencyKhz.setSafe(row, qso.getFrequencyKhz().doubleValue());
+            } else {
+                frequencyKhz.setNull(row);
+            }
+            setIndex(mode, row, qso.getMode() != null ? qso.getMode().ordinal() : null);
+            setIndex(submode, row, qso.getSubmode() != null ? qso.getSubmode().ordinal() : null);
+            setString(customMode, row, qso.getCustomMode());
+            setString(rstSent, row, qso.getRstSent());
+            setString(rstRecv, row, qso.getRstRecv());
+            setString(qth, row, qso.getQth());
+            setString(gridSquare, row, qso.getGridSquare());
+            setString(notes, row, qso.getNotes());
+            setIndex(qslStatus, row, qso.getQslStatus() != null ? qso.getQslStatus().ordinal() : null);
+            setIndex(lotwStatus, row, qso.getLotwStatus() != null ? qso.getLotwStatus().ordinal() : null);
+            setIndex(eqslStatus, row, qso.getEqslStatus() != null ? qso.getEqslStatus().ordinal() : null);
+            setTimestamp(createdAt, row, qso.getCreatedAt());
+            setTimestamp(updatedAt, row, qso.getUpdatedAt());
+            rows++;
+
+            if (rows == BATCH_SIZE) {
+                write(buffer, this::writeBatch);
+            }
+        }
+
+        @Override
+        public void writeFooter(DataBuffer buffer) {
+            write(buffer, () -> {
+                if (rows > 0) {
+                    writeBatch();
+                }
+                fileWriter.end();
+            });
+        }
+
+        /**
+         * Free the column and dictionary memory. The file writer is not closed, since that
+         * would try to finish the file; it holds no memory of its own.
+         */
+        @Override
+        public void close() {
+            if (root != null) {
+                root.close();
+            }
+            dictionaries.forEach(dictionary -> dictionary.getVector().close());
+            allocator.close();
+        }
+
+        private void writeBatch() throws IOException {
+            root.setRowCount(rows);
+            fileWriter.writeBatch();
+            for (FieldVector vector : root.getFieldVectors()) {
+                vector.reset();
+            }
+            rows = 0;
+        }
+
+        /**
+         * Run the given Arrow writes with their output going into the buffer.
+         */
+        private void write(DataBuffer buffer, ArrowWrites writes) {
+            channel.target = buffer;
+            try {
+                writes.run();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write Arrow export", e);
+            } finally {
+                channel.target = null;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V extends FieldVector> V vector(String name) {
+            return (V) root.getVector(name);
+        }
+    }
+
+    private static void setString(VarCharVector vector, int row, String value) {
+        if (value != null) {
+            vector.setSafe(row, value.getBytes(StandardCharsets.UTF_8));
+        } else {
+            vector.setNull(row);
+        }
+    }
+
+    private static void setIndex(TinyIntVector vector, int row, Integer index) {
+        if (index != null) {
+            vector.setSafe(row, index);
+        } else {
+            vector.setNull(row);
+        }
+    }
+
+    private static void setTimestamp(TimeStampMicroTZVector vector, int row, Instant value) {
+        if (value != null) {
+            vector.setSafe(row, ChronoUnit.MICROS.between(Instant.EPOCH, value));
+        } else {
+            vector.setNull(row);
+        }
+    }
+
+    private static Field field(String name, boolean nullable, ArrowType type, DictionaryEncoding encoding) {
+        return new Field(name, new FieldType(nullable, type, encoding), null);
+    }
+
+    /**
+     * An int8 index column pointing into the column's dictionary.
+     */
+    private static Field dictionaryField(String name) {
+        for (int i = 0; i < DICTIONARY_COLUMNS.size(); i++) {
+            if (DICTIONARY_COLUMNS.get(i).name().equals(name)) {
+                return field(name, true, INDEX_TYPE, new DictionaryEncoding(i, false, INDEX_TYPE));
+            }
+        }
+        throw new IllegalArgumentException("No dictionary for column: " + name);
+    }
+
+    private static List<String> names(Enum<?>[] values) {
+        return Stream.of(values).map(Enum::name).toList();
+    }
+
+    private static Map<String, Integer> indexOf(List<String> values) {
+        return values.stream().collect(Collectors.toUnmodifiableMap(
+                value -> value.toLowerCase(Locale.ROOT), values::indexOf));
+    }
+
+    private record DictionaryColumn(String name, List<String> values) {
+
+        Dictionary toDictionary(long id, BufferAllocator allocator) {
+            VarCharVector vector = new VarCharVector(name + "_dictionary", allocator);
+            vector.allocateNew(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                vector.setSafe(i, values.get(i).getBytes(StandardCharsets.UTF_8));
+            }
+            vector.setValueCount(values.size());
+            return new Dictionary(vector, new DictionaryEncoding(id, false, INDEX_TYPE));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ArrowWrites {
+        void run() throws IOException;
+    }
+
+    /**
+     * Channel writing into whichever data buffer is currently set.
+     */
+    private static final class BufferChannel implements WritableByteChannel {
+        private DataBuffer target;
+
+        @Override
+        public int write(ByteBuffer source) {
+            int length = source.remaining();
+            target.write(source);
+            source.position(source.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.pl.shugo.gsolog.application.export.EncoderSupport.isAscii;
+import static com.pl.shugo.gsolog.application.export.EncoderSupport.writeAscii;
+import static com.pl.shugo.gsolog.application.export.EncoderSupport.writeDigits;
+
+/**
+ * Cabrillo 3.0 export format, for submitting a log to a contest robot.
+ * The log has no contest exchange, so QSO lines carry frequency, mode, date, time,
+ * both callsigns and signal reports. The operator's username is used as the station callsign.
+ * Frequencies below 30 MHz are written in kHz; higher bands use the Cabrillo band designators.
+ * Nothing is made up for adjudication: a QSO without a frequency on HF (or on a band with no
+ * designator) or without both signal reports is left out, and the number left out is noted
+ * in a SOAPBOX line.
+ */
+@Component
+public class CabrilloFormat implements ExportFormat {
+
+    private static final String LINE_END = "\r\n";
+    private static final BigDecimal HF_LIMIT_KHZ = new BigDecimal("30000");
+
+    /**
+     * Cabrillo band designator per ADIF band above 30 MHz. HF has none: it needs the frequency.
+     */
+    private static final Map<String, String> BAND_DESIGNATORS = Map.ofEntries(
+            Map.entry("6m", "50"),
+            Map.entry("4m", "70"),
+            Map.entry("2m", "144"),
+            Map.entry("1.25m", "222"),
+            Map.entry("70cm", "432"),
+            Map.entry("33cm", "902"),
+            Map.entry("23cm", "1.2G"),
+            Map.entry("13cm", "2.3G"),
+            Map.entry("9cm", "3.4G"),
+            Map.entry("6cm", "5.7G"),
+            Map.entry("3cm", "10G"),
+            Map.entry("1.25cm", "24G"),
+            Map.entry("6mm", "47G"),
+            Map.entry("4mm", "75G"),
+            Map.entry("2.5mm", "122G"),
+            Map.entry("2mm", "134G"),
+            Map.entry("1mm", "241G"));
+
+    @Override
+    public String id() {
+        return "cabrillo";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "log";
+    }
+
+    @Override
+    public String mediaType() {
+        return "text/plain";
+    }
+
+    @Override
+    public ExportWriter newWriter(ExportContext context) {
+        String callsign = context.operator() != null
+                ? context.operator().trim().toUpperCase(Locale.ROOT)
+                : "";
+        return new CabrilloWriter(callsign);
+    }
+
+    private static final class CabrilloWriter implements ExportWriter {
+        private final String callsign;
+        private int skipped;
+
+        CabrilloWriter(String callsign) {
+            this.callsign = callsign;
+        }
+
+        @Override
+        public void writeHeader(DataBuffer buffer) {
+            writeAscii(buffer, "START-OF-LOG: 3.0" + LINE_END);
+            writeAscii(buffer, "CREATED-BY: QSOLOG" + LINE_END);
+            writeAscii(buffer, "CALLSIGN: ");
+            writeText(buffer, callsign);
+            writeAscii(buffer, LINE_END);
+        }
+
+        /**
+         * Write a QSO line: QSO: freq mo yyyy-mm-dd hhmm call rst call rst
+         */
+        @Override
+        public void writeRecord(Qso qso, DataBuffer buffer) {
+            String frequency = frequency(qso);
+            String rstSent = report(qso.getRstSent());
+            String rstRecv = report(qso.getRstRecv());
+            if (frequency == null || rstSent == null || rstRecv == null) {
+                skipped++;
+                return;
+            }
+            String mode = mode(qso);
+            writeAscii(buffer, "QSO: ");
+            writePadded(buffer, frequency, 5, true);
+            buffer.write((byte) ' ');
+            writeAscii(buffer, mode);
+            buffer.write((byte) ' ');
+            writeDigits(buffer, qso.getQsoDate().getYear(), 4);
+            buffer.write((byte) '-');
+            writeDigits(buffer, qso.getQsoDate().getMonthValue(), 2);
+            buffer.write((byte) '-');
+            writeDigits(buffer, qso.getQsoDate().getDayOfMonth(), 2);
+            buffer.write((byte) ' ');
+            writeDigits(buffer, qso.getTimeOn().getHour(), 2);
+            writeDigits(buffer, qso.getTimeOn().getMinute(), 2);
+            buffer.write((byte) ' ');
+            writePadded(buffer, callsign, 13, false);
+            buffer.write((byte) ' ');
+            writePadded(buffer, rstSent, 3, false);
+            buffer.write((byte) ' ');
+            writePadded(buffer, qso.getTheirCallsign().trim().toUpperCase(Locale.ROOT), 13, false);
+            buffer.write((byte) ' ');
+            writeText(buffer, rstRecv);
+            writeAscii(buffer, LINE_END);
+        }
+
+        @Override
+        public void writeFooter(DataBuffer buffer) {
+            if (skipped > 0) {
+                writeAscii(buffer, "SOAPBOX: " + skipped + " QSO(s) without frequency or signal reports left out"
+                        + LINE_END);
+            }
+            writeAscii(buffer, "END-OF-LOG:" + LINE_END);
+        }
+    }
+
+    /**
+     * Frequency in kHz below 30 MHz, otherwise the band designator.
+     *
+     * @return the frequency field, or null if the QSO has no frequency below 30 MHz and its band
+     *         has no designator
+     */
+    static String frequency(Qso qso) {
+        BigDecimal frequencyKhz = qso.getFrequencyKhz();
+        if (frequencyKhz != null && frequencyKhz.compareTo(HF_LIMIT_KHZ) < 0) {
+            return frequencyKhz.setScale(0, RoundingMode.HALF_UP).toPlainString();
+        }
+        String band = qso.getBand() != null ? qso.getBand().trim().toLowerCase(Locale.ROOT) : "";
+        return BAND_DESIGNATORS.get(band);
+    }
+
+    /**
+     * Cabrillo mode: CW, PH (phone), FM, RY (RTTY) or DG (other digital modes).
+     */
+    static String mode(Qso qso) {
+        if ((qso.getCustomMode() != null && !qso.getCustomMode().isBlank()) || qso.getMode() == null) {
+            return "DG";
+        }
+        return switch (qso.getMode()) {
+            case CW -> "CW";
+            case SSB, AM -> "PH";
+            case FM -> "FM";
+            case RTTY -> "RY";
+            default -> "DG";
+        };
+    }
+
+    /**
+     * Signal report, or null if none was logged.
+     */
+    private static String report(String rst) {
+        return rst != null && !rst.isBlank() ? rst.trim() : null;
+    }
+
+    private static void writePadded(DataBuffer buffer, String value, int width, boolean alignRight) {
+        int padding = Math.max(0, width - value.length());
+        if (alignRight) {
+            writeSpaces(buffer, padding);
+        }
+        writeText(buffer, value);
+        if (!alignRight) {
+            writeSpaces(buffer, padding);
+        }
+    }
+
+    private static void writeSpaces(DataBuffer buffer, int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.write((byte) ' ');
+        }
+    }
+
+    private static void writeText(DataBuffer buffer, String value) {
+        if (isAscii(value)) {
+            writeAscii(buffer, value);
+        } else {
+            buffer.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
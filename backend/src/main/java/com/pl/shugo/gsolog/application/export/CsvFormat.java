@@ -0,0 +1,199 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static com.pl.shugo.gsolog.application.export.EncoderSupport.isAscii;
+import static com.pl.shugo.gsolog.application.export.EncoderSupport.writeAscii;
+import static com.pl.shugo.gsolog.application.export.EncoderSupport.writeDigits;
+
+/**
+ * CSV export format.
+ * Writes and escapes QSO rows straight into data buffers of about 64 KB,
+ * with no per-row format string parsing, boxing, or intermediate Strings.
+ * Values containing commas, quotes, or line breaks are quoted, with quotes doubled.
+ */
+@Component
+public class CsvFormat implements ExportFormat, ExportWriter {
+
+    private static final byte[] HEADER = ("Callsign,Date,Time,Band,Frequency (kHz),Mode,Submode,Custom Mode," +
+            "RST Sent,RST Recv,QTH,Grid Square,Notes," +
+            "QSL Status,LoTW Status,eQSL Status\n").getBytes(StandardCharsets.US_ASCII);
+
+    @Override
+    public String id() {
+        return "csv";
+    }
+
+    @Override
+    public String fileExtension() {
+        return "csv";
+    }
+
+    @Override
+    public String mediaType() {
+        return "text/csv";
+    }
+
+    /**
+     * CSV rows need no per-export state, so the format is its own writer.
+     */
+    @Override
+    public ExportWriter newWriter(ExportContext context) {
+        return this;
+    }
+
+    /**
+     * Write the CSV header row.
+     */
+    @Override
+    public void writeHeader(DataBuffer buffer) {
+        buffer.write(HEADER);
+    }
+
+    /**
+     * Write a single QSO as a CSV row.
+     */
+    @Override
+    public void writeRecord(Qso qso, DataBuffer buffer) {
+        writeValue(buffer, qso.getTheirCallsign());
+        buffer.write((byte) ',');
+        writeDate(buffer, qso.getQsoDate());
+        buffer.write((byte) ',');
+        writeTime(buffer, qso.getTimeOn());
+        buffer.write((byte) ',');
+        writeValue(buffer, qso.getBand());
+        buffer.write((byte) ',');
+        if (qso.getFrequencyKhz() != null) {
+            writeAscii(buffer, qso.getFrequencyKhz().toString());
+        }
+        buffer.write((byte) ',');
+        if (qso.getMode() != null) {
+            writeAscii(buffer, qso.getMode().name());
+        }
+        buffer.write((byte) ',');
+        if (qso.getSubmode() != null) {
+            writeAscii(buffer, qso.getSubmode().name());
+        }
+        buffer.write((byte) ',');
+        writeValue(buffer, qso.getCustomMode());
+        buffer.write((byte) ',');
+        writeValue(buffer, qso.getRstSent());
+        buffer.write((byte) ',');
+        writeValue(buffer, qso.getRstRecv());
+        buffer.write((byte) ',');
+        writeValue(buffer, qso.getQth());
+        buffer.write((byte) ',');
+        writeValue(buffer, qso.getGridSquare());
+        buffer.write((byte) ',');
+        writeValue(buffer, qso.getNotes());
+        buffer.write((byte) ',');
+        if (qso.getQslStatus() != null) {
+            writeAscii(buffer, qso.getQslStatus().name());
+        }
+        buffer.write((byte) ',');
+        if (qso.getLotwStatus() != null) {
+            writeAscii(buffer, qso.getLotwStatus().name());
+        }
+        buffer.write((byte) ',');
+        if (qso.getEqslStatus() != null) {
+            writeAscii(buffer, qso.getEqslStatus().name());
+        }
+        buffer.write((byte) '\n');
+    }
+
+    /**
+     * Write a value, quoting it if it contains a comma, quote, or line break.
+     * Blank values are written as empty fields.
+     */
+    private static void writeValue(DataBuffer buffer, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        boolean quote = needsQuoting(value);
+        if (quote) {
+            buffer.write((byte) '"');
+        }
+        if (isAscii(value)) {
+            if (quote) {
+                for (int i = 0; i < value.length(); i++) {
+                    writeEscaped(buffer, (byte) value.charAt(i));
+                }
+            } else {
+                writeAscii(buffer, value);
+            }
+        } else {
+            // A quote byte never occurs inside a multi-byte UTF-8 sequence, so escaping per byte is safe
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                if (quote) {
+                    writeEscaped(buffer, b);
+                } else {
+                    buffer.write(b);
+                }
+            }
+        }
+        if (quote) {
+            buffer.write((byte) '"');
+        }
+    }
+
+    private static void writeEscaped(DataBuffer buffer, byte b) {
+        if (b == '"') {
+            buffer.write((byte) '"');
+        }
+        buffer.write(b);
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write a date in ISO format (yyyy-MM-dd), as LocalDate.toString() does.
+     */
+    private static void writeDate(DataBuffer buffer, LocalDate date) {
+        if (date == null) {
+            return;
+        }
+        if (date.getYear() < 0 || date.getYear() > 9999) {
+            writeAscii(buffer, date.toString());
+            return;
+        }
+        writeDigits(buffer, date.getYear(), 4);
+        buffer.write((byte) '-');
+        writeDigits(buffer, date.getMonthValue(), 2);
+        buffer.write((byte) '-');
+        writeDigits(buffer, date.getDayOfMonth(), 2);
+    }
+
+    /**
+     * Write a time as LocalTime.toString() does: HH:mm, with :ss only when seconds are set.
+     */
+    private static void writeTime(DataBuffer buffer, LocalTime time) {
+        if (time == null) {
+            return;
+        }
+        if (time.getNano() != 0) {
+            writeAscii(buffer, time.toString());
+            return;
+        }
+        writeDigits(buffer, time.getHour(), 2);
+        buffer.write((byte) ':');
+        writeDigits(buffer, time.getMinute(), 2);
+        if (time.getSecond() != 0) {
+            buffer.write((byte) ':');
+            writeDigits(buffer, time.getSecond(), 2);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.pl.shugo.gsolog.application.export;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Raw deflate state for one compressed stream, shared by the gzip and zip writers.
+ * Tracks the CRC-32 and sizes that their trailers need. Only used from one signal at a time.
+ */
+final class DeflateStream {
+
+    private final DataBufferFactory bufferFactory;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final CRC32 crc = new CRC32();
+    private long inputSize;
+    private DataBuffer current;
+
+    DeflateStream(DataBufferFactory bufferFactory) {
+        this.bufferFactory = bufferFactory;
+    }
+
+    /**
+     * Deflate an input buffer (released by this method), returning any full output buffers.
+     */
+    List<DataBuffer> deflate(DataBuffer input) {
+        List<DataBuffer> output = new ArrayList<>(1);
+        try (DataBuffer.ByteBufferIterator iterator = input.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                ByteBuffer bytes = iterator.next();
+                inputSize += bytes.remaining();
+                crc.update(bytes.duplicate());
+                deflater.setInput(bytes);
+                while (!deflater.needsInput()) {
+                    drain(output);
+                }
+            }
+        } finally {
+            DataBufferUtils.release(input);
+        }
+        return output;
+    }
+
+    /**
+     * Finish the deflate stream, then let the caller append its trailer after the compressed data.
+     */
+    List<DataBuffer> finish(Consumer<DataBuffer> trailer) {
+        List<DataBuffer> output = new ArrayList<>(2);
+        deflater.finish();
+        while (!deflater.finished()) {
+            drain(output);
+        }
+
+        if (current == null) {
+            current = bufferFactory.allocateBuffer(64);
+        }
+        trailer.accept(current);
+        output.add(current);
+        current = null;
+        return output;
+    }
+
+    int crc() {
+        return (int) crc.getValue();
+    }
+
+    long inputSize() {
+        return inputSize;
+    }
+
+    long compressedSize() {
+        return deflater.getBytesWritten();
+    }
+
+    void end() {
+        deflater.end();
+        if (current != null) {
+            DataBufferUtils.release(current);
+            current = null;
+        }
+    }
+
+    /**
+     * Deflate into the current output buffer, handing it over once full.
+     */
+    private void drain(List<DataBuffer> output) {
+        if (current == null) {
+            current = bufferFactory.allocateBuffer(EncoderSupport.BUFFER_SIZE);
+        }
+        int written;
+        try (DataBuffer.ByteBufferIterator iterator = current.writableByteBuffers()) {
+            written = deflater.deflate(iterator.next(), Deflater.NO_FLUSH);
+        }
+        current.writePosition(current.writePosition() + written);
+        if (current.writableByteCount() == 0) {
+            output.add(current);
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.pl.shugo.gsolog.application.export;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Shared helpers for export encoders that write straight into data buffers.
+ */
+final class EncoderSupport {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Start a new buffer when less than this is left, so typical records don't force a resize.
+     */
+    private static final int RECORD_RESERVE = 1024;
+
+    private EncoderSupport() {
+    }
+
+    /**
+     * Encode records into buffers of about 64 KB each, in record order.
+     * All buffers are released if encoding fails.
+     */
+    static <T> List<DataBuffer> encodeAll(List<T> records, DataBufferFactory bufferFactory,
+                                          BiConsumer<T, DataBuffer> encoder) {
+        List<DataBuffer> buffers = new ArrayList<>(1 + records.size() / 256);
+        DataBuffer buffer = bufferFactory.allocateBuffer(BUFFER_SIZE);
+        try {
+            for (T record : records) {
+                if (buffer.writableByteCount() < RECORD_RESERVE && buffer.readableByteCount() > 0) {
+                    buffers.add(buffer);
+                    buffer = bufferFactory.allocateBuffer(BUFFER_SIZE);
+                }
+                encoder.accept(record, buffer);
+            }
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            buffers.forEach(DataBufferUtils::release);
+            throw e;
+        }
+
+        if (buffer.readableByteCount() > 0) {
+            buffers.add(buffer);
+        } else {
+            DataBufferUtils.release(buffer);
+        }
+        return buffers;
+    }
+
+    /**
+     * Write a non-negative number in decimal.
+     */
+    static void writeInt(DataBuffer buffer, int value) {
+        int digits = 1;
+        for (int limit = 10; digits < 10 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        writeDigits(buffer, value, digits);
+    }
+
+    /**
+     * Write a non-negative number as exactly the given count of decimal digits, zero-padded.
+     */
+    static void writeDigits(DataBuffer buffer, int value, int digits) {
+        int divisor = 1;
+        for (int i = 1; i < digits; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.write((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    /**
+     * Write an ASCII-only string char by char, without allocating.
+     */
+    static void writeAscii(DataBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.write((byte) value.charAt(i));
+        }
+    }
+
+    /**
+     * Write a 16-bit value, little-endian.
+     */
+    static void writeShortLe(DataBuffer buffer, int value) {
+        buffer.write((byte) value);
+        buffer.write((byte) (value >>> 8));
+    }
+
+    /**
+     * Write a 32-bit value, little-endian.
+     */
+    static void writeIntLe(DataBuffer buffer, int value) {
+        writeShortLe(buffer, value);
+        writeShortLe(buffer, value >>> 16);
+    }
+
+    static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package com.pl.shugo.gsolog.application.export;
+
+/**
+ * Compression applied to an export stream.
+ */
+public enum ExportCompression {
+    NONE("none"),
+    GZIP("gzip");
+
+    private final String value;
+
+    ExportCompression(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static ExportCompression fromValue(String value) {
+        for (ExportCompression compression : values()) {
+            if (compression.value.equalsIgnoreCase(value)) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported compression: " + value + ". Must be one of: none, gzip");
+    }
+
+    /**
+     * Pick the compression a client accepts for transfer, from an Accept-Encoding header.
+     * gzip is chosen unless it is missing or explicitly refused with q=0.
+     *
+     * @param acceptEncoding Accept-Encoding header value (null if absent)
+     * @return GZIP if accepted, NONE otherwise
+     */
+    public static ExportCompression fromAcceptEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return NONE;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equalsIgnoreCase("x-gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        if (Double.parseDouble(parameter.substring(2)) <= 0) {
+                            return NONE;
+                        }
+                    } catch (NumberFormatException e) {
+                        return NONE;
+                    }
+                }
+            }
+            return GZIP;
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,15 @@
+package com.pl.shugo.gsolog.application.export;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * What a writer may need to know about the export besides the QSOs.
+ *
+ * @param userId   Owner of the exported log
+ * @param operator Username of the owner, used as the station callsign where a format needs one
+ * @param from     Start date (inclusive, null for no limit)
+ * @param to       End date (inclusive, null for no limit)
+ */
+public record ExportContext(UUID userId, String operator, LocalDate from, LocalDate to) {
+}
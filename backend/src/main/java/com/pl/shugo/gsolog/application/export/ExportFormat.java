@@ -0,0 +1,30 @@
+package com.pl.shugo.gsolog.application.export;
+
+/**
+ * An export file format.
+ * Formats are Spring beans; the export endpoint picks one by {@link #id()} and streams
+ * the user's QSOs through a fresh {@link ExportWriter}, so adding a format only means
+ * adding a bean. Every format shares the same chunked cursor and buffer pipeline.
+ */
+public interface ExportFormat {
+
+    /**
+     * Format identifier used in the export URL, e.g. "adif".
+     */
+    String id();
+
+    /**
+     * File extension without the dot, e.g. "adi".
+     */
+    String fileExtension();
+
+    /**
+     * Content type of the exported file.
+     */
+    String mediaType();
+
+    /**
+     * Create a writer for a single export. Writers may keep state between records.
+     */
+    ExportWriter newWriter(ExportContext context);
+}
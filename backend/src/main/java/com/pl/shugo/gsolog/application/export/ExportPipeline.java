@@ -0,0 +1,53 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The buffer pipeline shared by all export formats.
+ * Each chunk of QSOs is written into buffers of about 64 KB from the response's
+ * buffer factory, and the next chunk is only requested once those are consumed.
+ */
+public final class ExportPipeline {
+
+    private ExportPipeline() {
+    }
+
+    /**
+     * Write a header, each chunk of QSOs, and a footer.
+     * Buffers that are never written out (e.g. the client disconnected) are released,
+     * and the writer is closed however the stream ends.
+     *
+     * @param chunks        QSO chunks in export order
+     * @param writer        Writer for this export
+     * @param bufferFactory Factory of the response the export is written to
+     * @return Flux of data buffers
+     */
+    public static Flux<DataBuffer> encode(Flux<List<Qso>> chunks, ExportWriter writer,
+                                          DataBufferFactory bufferFactory) {
+        return Flux.using(
+                        () -> writer,
+                        w -> Flux.concat(
+                                Mono.fromSupplier(() -> encodeSection(w::writeHeader, bufferFactory)),
+                                chunks.concatMapIterable(
+                                        chunk -> EncoderSupport.encodeAll(chunk, bufferFactory, w::writeRecord), 1),
+                                Mono.fromSupplier(() -> encodeSection(w::writeFooter, bufferFactory))),
+                        ExportWriter::close)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    /**
+     * Encode a header or footer, or return null (an empty Mono) if the writer wrote nothing.
+     */
+    private static DataBuffer encodeSection(Consumer<DataBuffer> section, DataBufferFactory bufferFactory) {
+        List<DataBuffer> buffers = EncoderSupport.encodeAll(List.of(section), bufferFactory, Consumer::accept);
+        return buffers.isEmpty() ? null : buffers.get(0);
+    }
+}
@@ -0,0 +1,38 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import org.springframework.core.io.buffer.DataBuffer;
+
+/**
+ * Streaming writer for one export.
+ * Called with the header first, then once per QSO in cursor order, then the footer,
+ * always from one signal at a time. Each call writes into the given buffer, which
+ * may differ between calls; the buffers are concatenated in order.
+ * The writer is closed once the export completes, fails or is cancelled.
+ */
+public interface ExportWriter extends AutoCloseable {
+
+    /**
+     * Write the file header. Writes nothing by default.
+     */
+    default void writeHeader(DataBuffer buffer) {
+    }
+
+    /**
+     * Write a single QSO record.
+     */
+    void writeRecord(Qso qso, DataBuffer buffer);
+
+    /**
+     * Write the file footer. Writes nothing by default.
+     */
+    default void writeFooter(DataBuffer buffer) {
+    }
+
+    /**
+     * Release any resources held by this writer. Does nothing by default.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,45 @@
+package com.pl.shugo.gsolog.application.export;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streaming gzip compression of data buffers.
+ * Input buffers are deflated and released as they arrive; compressed output is emitted
+ * in buffers of about 64 KB, so memory stays flat regardless of export size.
+ */
+public final class GzipCompressor {
+
+    /**
+     * Gzip member header: magic, deflate, no flags, no mtime, no extra flags, unknown OS.
+     */
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private GzipCompressor() {
+    }
+
+    /**
+     * Compress a stream of buffers into a single gzip member.
+     *
+     * @param input         Uncompressed buffers (released by this method)
+     * @param bufferFactory Factory for compressed output buffers
+     * @return Flux of gzip data buffers
+     */
+    public static Flux<DataBuffer> compress(Flux<DataBuffer> input, DataBufferFactory bufferFactory) {
+        return Flux.using(
+                        () -> new DeflateStream(bufferFactory),
+                        deflate -> Flux.concat(
+                                Mono.fromSupplier(() -> bufferFactory.allocateBuffer(HEADER.length).write(HEADER)),
+                                input.concatMapIterable(deflate::deflate, 1),
+                                Mono.fromSupplier(() -> deflate.finish(trailer -> {
+                                    // Trailer: CRC-32 and uncompressed size (mod 2^32), little-endian
+                                    EncoderSupport.writeIntLe(trailer, deflate.crc());
+                                    EncoderSupport.writeIntLe(trailer, (int) deflate.inputSize());
+                                })).flatMapIterable(buffers -> buffers)),
+                        DeflateStream::end)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+}
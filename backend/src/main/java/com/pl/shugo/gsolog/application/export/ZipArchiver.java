@@ -0,0 +1,203 @@
+package com.pl.shugo.gsolog.application.export;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming zip archive of data buffer streams.
+ * Entries are deflated concurrently, each on its own parallel worker, and written out in
+ * order: entries ahead of the one being written buffer a bounded number of compressed
+ * buffers, so memory stays flat however large the archive. Sizes and CRCs follow each
+ * entry in a data descriptor, and the central directory is written once all entries are done.
+ * ZIP64 is not supported, so an archive is limited to 65535 entries and 4 GB.
+ */
+public final class ZipArchiver {
+
+    /**
+     * Compressed buffers queued per entry waiting for its turn.
+     */
+    private static final int ENTRY_PREFETCH = 16;
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int VERSION = 20;
+    private static final int FLAGS = 0x0808; // sizes in data descriptor, UTF-8 names
+    private static final int METHOD_DEFLATED = 8;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int DATA_DESCRIPTOR_SIZE = 16;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int MAX_ENTRIES = 0xFFFF;
+    private static final long MAX_SIZE = 0xFFFFFFFFL;
+
+    private ZipArchiver() {
+    }
+
+    /**
+     * An archive entry: its file name and uncompressed content (released by the archiver).
+     */
+    public record Entry(String name, Flux<DataBuffer> content) {
+    }
+
+    /**
+     * Write entries into a zip archive.
+     *
+     * @param entries       Entries in archive order
+     * @param concurrency   Entries compressed at once
+     * @param bufferFactory Factory for archive buffers
+     * @return Flux of zip data buffers
+     */
+    public static Flux<DataBuffer> archive(Flux<Entry> entries, int concurrency, DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> {
+                    List<EntryRecord> records = new ArrayList<>();
+                    int[] dosTime = dosTime(LocalDateTime.now());
+                    return Flux.concat(
+                            entries.flatMapSequential(entry -> {
+                                if (records.size() == MAX_ENTRIES) {
+                                    return Flux.error(new IllegalStateException(
+                                            "Zip archive exceeds " + MAX_ENTRIES + " entries"));
+                                }
+                                EntryRecord record = new EntryRecord(
+                                        entry.name().getBytes(StandardCharsets.UTF_8), dosTime[0], dosTime[1]);
+                                records.add(record);
+                                return writeEntry(entry.content(), record, bufferFactory);
+                            }, concurrency, ENTRY_PREFETCH),
+                            Mono.fromSupplier(() -> writeCentralDirectory(records, bufferFactory)));
+                })
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    /**
+     * Local header, deflated content and data descriptor of one entry.
+     * Compression runs on a parallel worker, off the thread producing the content.
+     */
+    private static Flux<DataBuffer> writeEntry(Flux<DataBuffer> content, EntryRecord record,
+                                               DataBufferFactory bufferFactory) {
+        return Flux.using(
+                        () -> new DeflateStream(bufferFactory),
+                        deflate -> Flux.concat(
+                                Mono.fromSupplier(() -> writeLocalHeader(record, bufferFactory)),
+                                content.publishOn(Schedulers.parallel(), 1)
+                                        .concatMapIterable(deflate::deflate, 1),
+                                Mono.fromSupplier(() -> deflate.finish(descriptor -> {
+                                    record.complete(deflate);
+                                    EncoderSupport.writeIntLe(descriptor, DATA_DESCRIPTOR_SIGNATURE);
+                                    EncoderSupport.writeIntLe(descriptor, record.crc);
+                                    EncoderSupport.writeIntLe(descriptor, (int) record.compressedSize);
+                                    EncoderSupport.writeIntLe(descriptor, (int) record.size);
+                                })).flatMapIterable(buffers -> buffers)),
+                        DeflateStream::end);
+    }
+
+    private static DataBuffer writeLocalHeader(EntryRecord record, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(LOCAL_HEADER_SIZE + record.name.length);
+        EncoderSupport.writeIntLe(buffer, LOCAL_HEADER_SIGNATURE);
+        EncoderSupport.writeShortLe(buffer, VERSION);
+        EncoderSupport.writeShortLe(buffer, FLAGS);
+        EncoderSupport.writeShortLe(buffer, METHOD_DEFLATED);
+        EncoderSupport.writeShortLe(buffer, record.time);
+        EncoderSupport.writeShortLe(buffer, record.date);
+        EncoderSupport.writeIntLe(buffer, 0); // CRC and sizes follow in the data descriptor
+        EncoderSupport.writeIntLe(buffer, 0);
+        EncoderSupport.writeIntLe(buffer, 0);
+        EncoderSupport.writeShortLe(buffer, record.name.length);
+        EncoderSupport.writeShortLe(buffer, 0);
+        buffer.write(record.name);
+        return buffer;
+    }
+
+    private static DataBuffer writeCentralDirectory(List<EntryRecord> records, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(EncoderSupport.BUFFER_SIZE);
+        try {
+            long offset = 0;
+            for (EntryRecord record : records) {
+                checkSize(offset);
+                EncoderSupport.writeIntLe(buffer, CENTRAL_HEADER_SIGNATURE);
+                EncoderSupport.writeShortLe(buffer, VERSION);
+                EncoderSupport.writeShortLe(buffer, VERSION);
+                EncoderSupport.writeShortLe(buffer, FLAGS);
+                EncoderSupport.writeShortLe(buffer, METHOD_DEFLATED);
+                EncoderSupport.writeShortLe(buffer, record.time);
+                EncoderSupport.writeShortLe(buffer, record.date);
+                EncoderSupport.writeIntLe(buffer, record.crc);
+                EncoderSupport.writeIntLe(buffer, (int) record.compressedSize);
+                EncoderSupport.writeIntLe(buffer, (int) record.size);
+                EncoderSupport.writeShortLe(buffer, record.name.length);
+                EncoderSupport.writeShortLe(buffer, 0); // extra field length
+                EncoderSupport.writeShortLe(buffer, 0); // comment length
+                EncoderSupport.writeShortLe(buffer, 0); // disk number
+                EncoderSupport.writeShortLe(buffer, 0); // internal attributes
+                EncoderSupport.writeIntLe(buffer, 0);   // external attributes
+                EncoderSupport.writeIntLe(buffer, (int) offset);
+                buffer.write(record.name);
+                offset += LOCAL_HEADER_SIZE + record.name.length + record.compressedSize + DATA_DESCRIPTOR_SIZE;
+            }
+            checkSize(offset);
+
+            int directorySize = buffer.readableByteCount();
+            EncoderSupport.writeIntLe(buffer, END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+            EncoderSupport.writeShortLe(buffer, 0);
+            EncoderSupport.writeShortLe(buffer, 0);
+            EncoderSupport.writeShortLe(buffer, records.size());
+            EncoderSupport.writeShortLe(buffer, records.size());
+            EncoderSupport.writeIntLe(buffer, directorySize);
+            EncoderSupport.writeIntLe(buffer, (int) offset);
+            EncoderSupport.writeShortLe(buffer, 0); // comment length
+            return buffer;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    private static void checkSize(long size) {
+        if (size > MAX_SIZE) {
+            throw new IllegalStateException("Zip archive exceeds 4 GB");
+        }
+    }
+
+    /**
+     * MS-DOS time and date fields, at two-second resolution.
+     */
+    private static int[] dosTime(LocalDateTime time) {
+        int dosTime = (time.getHour() << 11) | (time.getMinute() << 5) | (time.getSecond() >> 1);
+        int dosDate = ((time.getYear() - 1980) << 9) | (time.getMonthValue() << 5) | time.getDayOfMonth();
+        return new int[]{dosTime, dosDate};
+    }
+
+    /**
+     * What the central directory needs to know about a written entry.
+     */
+    private static final class EntryRecord {
+        private final byte[] name;
+        private final int time;
+        private final int date;
+        private int crc;
+        private long size;
+        private long compressedSize;
+
+        EntryRecord(byte[] name, int time, int date) {
+            this.name = name;
+            this.time = time;
+            this.date = date;
+        }
+
+        void complete(DeflateStream deflate) {
+            crc = deflate.crc();
+            size = deflate.inputSize();
+            compressedSize = deflate.compressedSize();
+            checkSize(size);
+            checkSize(compressedSize);
+        }
+    }
+}
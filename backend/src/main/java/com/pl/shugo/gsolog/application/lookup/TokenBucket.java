@@ -0,0 +1,56 @@
+package com.pl.shugo.gsolog.application.lookup;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Token bucket rate limiter for reactive callers.
+ * Tokens refill continuously at the configured rate up to the burst size. A caller that finds
+ * the bucket empty reserves the next token anyway and waits until it is due, so waiting callers
+ * are served in order without polling. Thread-safe.
+ */
+public final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    /**
+     * @param permitsPerSecond Sustained rate
+     * @param burst            Tokens available at once after an idle period
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.tokensPerNano = permitsPerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Take one token, completing once it is available.
+     */
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            long waitNanos = reserve(System.nanoTime());
+            return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then() : Mono.empty();
+        });
+    }
+
+    /**
+     * Reserve one token at the given time.
+     *
+     * @return Nanoseconds until the reserved token is due
+     */
+    synchronized long reserve(long now) {
+        tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        tokens -= 1;
+        // A negative balance is the queue of reservations ahead of this one
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
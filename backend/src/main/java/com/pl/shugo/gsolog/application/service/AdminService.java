@@ -1,9 +1,17 @@
 package com.pl.shugo.gsolog.application.service;
 
+import com.pl.shugo.gsolog.api.dto.*;
 import com.pl.shugo.gsolog.domain.entity.User;
+import com.pl.shugo.gsolog.domain.repository.QsoRepository;
 import com.pl.shugo.gsolog.domain.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Admin service for user management operations.
@@ -13,9 +21,11 @@ import reactor.core.publisher.Flux;
 public class AdminService {
 
     private final UserRepository userRepository;
+    private final QsoRepository qsoRepository;
 
-    public AdminService(UserRepository userRepository) {
+    public AdminService(UserRepository userRepository, QsoRepository qsoRepository) {
         this.userRepository = userRepository;
+        this.qsoRepository = qsoRepository;
     }
 
     /**
@@ -27,4 +37,66 @@ public class AdminService {
     public Flux<User> getAllUsers() {
         return userRepository.findAll();
     }
+
+    /**
+     * Get system-wide statistics across all users.
+     * Served from materialized views, so values are as of the last refresh.
+     *
+     * @return Statistics response with counts by band, mode, day, and totals
+     */
+    public Mono<AdminStatsResponse> getSystemStats() {
+        Mono<List<BandStats>> bandStats = qsoRepository.getAdminStatsByBand()
+                .map(StatsService::mapToBandStats)
+                .collectList();
+
+        Mono<List<ModeStats>> modeStats = qsoRepository.getAdminStatsByMode()
+                .map(StatsService::mapToModeStats)
+                .collectList();
+
+        Mono<List<DayStats>> dayStats = qsoRepository.getAdminStatsByDay()
+                .map(StatsService::mapToDayStats)
+                .collectList();
+
+        Mono<AdminTotals> totals = qsoRepository.getAdminTotals()
+                .map(this::mapToAdminTotals)
+                .defaultIfEmpty(new AdminTotals(0L, 0L, 0L, 0L, null));
+
+        return Mono.zip(bandStats, modeStats, dayStats, totals)
+                .map(tuple -> new AdminStatsResponse(
+                        tuple.getT1(),
+                        tuple.getT2(),
+                        tuple.getT3(),
+                        tuple.getT4()
+                ));
+    }
+
+    /**
+     * Refresh the system-wide statistics views.
+     * Uses REFRESH ... CONCURRENTLY, so readers are never blocked.
+     * Views are refreshed one after another to keep at most one refresh running.
+     */
+    public Mono<Void> refreshSystemStats() {
+        return qsoRepository.refreshAdminStatsByBand()
+                .then(qsoRepository.refreshAdminStatsByMode())
+                .then(qsoRepository.refreshAdminStatsByDay())
+                .then(qsoRepository.refreshAdminTotals());
+    }
+
+    private AdminTotals mapToAdminTotals(Map<String, Object> row) {
+        Object refreshedAt = row.get("refreshed_at");
+        Instant refreshed = null;
+        if (refreshedAt instanceof OffsetDateTime odt) {
+            refreshed = odt.toInstant();
+        } else if (refreshedAt instanceof Instant instant) {
+            refreshed = instant;
+        }
+
+        return new AdminTotals(
+                StatsService.getLongValue(row, "total_users"),
+                StatsService.getLongValue(row, "active_users"),
+                StatsService.getLongValue(row, "count_all"),
+                StatsService.getLongValue(row, "count_confirmed"),
+                refreshed
+        );
+    }
 }
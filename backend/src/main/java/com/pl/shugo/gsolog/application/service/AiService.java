@@ -3,6 +3,7 @@ package com.pl.shugo.gsolog.application.service;
 import com.pl.shugo.gsolog.api.dto.AiReportResponse;
 import com.pl.shugo.gsolog.api.dto.AiTextResponse;
 import com.pl.shugo.gsolog.api.dto.QsoDescriptionRequest;
+import com.pl.shugo.gsolog.api.dto.UniqueStationsResponse;
 import com.pl.shugo.gsolog.domain.entity.AiReport;
 import com.pl.shugo.gsolog.domain.port.AiHelperPort;
 import com.pl.shugo.gsolog.domain.repository.AiReportRepository;
@@ -11,6 +12,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -46,7 +48,9 @@ public class AiService {
 
     /**
      * Generate AI report for a period.
-     * Computes stats, generates narrative, and saves to history.
+     * Computes stats and unique station estimates, generates narrative, and saves to history.
+     * Unique stations are only estimated per whole month, so they are left out of the report
+     * when the range does not start and end on month boundaries.
      *
      * @param userId User ID
      * @param from   Start date (optional)
@@ -57,8 +61,12 @@ public class AiService {
     public Mono<AiReportResponse> generatePeriodReport(UUID userId, LocalDate from, LocalDate to, String lang) {
         String language = lang != null ? lang : "EN";
 
-        return statsService.getStatsSummary(userId, from, to)
-                .flatMap(stats -> aiHelperPort.generatePeriodReport(stats, language)
+        Mono<Optional<UniqueStationsResponse>> uniqueStations = StatsService.isWholeMonthRange(from, to)
+                ? statsService.getUniqueStations(userId, from, to).map(Optional::of)
+                : Mono.just(Optional.empty());
+
+        return Mono.zip(statsService.getStatsSummary(userId, from, to), uniqueStations)
+                .flatMap(tuple -> aiHelperPort.generatePeriodReport(tuple.getT1(), tuple.getT2().orElse(null), language)
                         .map(text -> AiReport.create(userId, from, to, language, text)))
                 .flatMap(aiReportRepository::save)
                 .map(this::mapToResponse);
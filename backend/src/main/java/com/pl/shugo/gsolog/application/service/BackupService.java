@@ -0,0 +1,81 @@
+package com.pl.shugo.gsolog.application.service;
+
+import com.pl.shugo.gsolog.application.export.ExportFormat;
+import com.pl.shugo.gsolog.application.export.ZipArchiver;
+import com.pl.shugo.gsolog.domain.entity.User;
+import com.pl.shugo.gsolog.domain.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+
+/**
+ * Whole-instance backup: every user's log as ADIF in one zip archive.
+ * Users are exported and compressed in parallel. Each export holds at most one database
+ * connection at a time, so the concurrency is capped at half the R2DBC pool to leave
+ * room for regular requests.
+ */
+@Service
+public class BackupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BackupService.class);
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final Pattern UNSAFE_NAME_CHARS = Pattern.compile("[^A-Za-z0-9._-]");
+
+    private final UserRepository userRepository;
+    private final ExportService exportService;
+    private final int concurrency;
+
+    public BackupService(UserRepository userRepository,
+                         ExportService exportService,
+                         @Value("${export.backup.concurrency:4}") int concurrency,
+                         @Value("${spring.r2dbc.pool.max-size:10}") int poolMaxSize) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("export.backup.concurrency must be positive");
+        }
+        this.userRepository = userRepository;
+        this.exportService = exportService;
+        this.concurrency = Math.min(concurrency, Math.max(1, poolMaxSize / 2));
+        if (this.concurrency < concurrency) {
+            log.warn("export.backup.concurrency {} capped to {} (half the R2DBC pool)", concurrency, this.concurrency);
+        }
+    }
+
+    /**
+     * Generate the backup archive: one ADIF entry per user, named after the username and id.
+     *
+     * @param bufferFactory Factory for archive buffers
+     * @return Flux of zip data buffers
+     */
+    public Flux<DataBuffer> generate(DataBufferFactory bufferFactory) {
+        ExportFormat adif = exportService.findFormat("adif")
+                .orElseThrow(() -> new IllegalStateException("ADIF export format is not registered"));
+        // Users are read up front, so no connection stays open while the archive is written
+        Flux<ZipArchiver.Entry> entries = userRepository.findAll()
+                .collectList()
+                .flatMapIterable(users -> users)
+                .map(user -> new ZipArchiver.Entry(
+                        entryName(user, adif),
+                        exportService.generate(adif, user.getId(), null, null, bufferFactory)));
+        return ZipArchiver.archive(entries, concurrency, bufferFactory);
+    }
+
+    /**
+     * Build the archive filename from the backup time.
+     */
+    public String buildFilename(LocalDateTime time) {
+        return "qsolog_backup_" + time.format(FILE_TIME_FORMAT) + ".zip";
+    }
+
+    private static String entryName(User user, ExportFormat format) {
+        String username = UNSAFE_NAME_CHARS.matcher(user.getUsername()).replaceAll("_");
+        return username + "_" + user.getId() + "." + format.fileExtension();
+    }
+}
@@ -0,0 +1,325 @@
+package com.pl.shugo.gsolog.application.service;
+
+import com.pl.shugo.gsolog.application.export.ExportCompression;
+import com.pl.shugo.gsolog.application.export.ExportFormat;
+import com.pl.shugo.gsolog.application.export.GzipCompressor;
+import com.pl.shugo.gsolog.domain.entity.ExportJob;
+import com.pl.shugo.gsolog.domain.enums.ExportJobStatus;
+import com.pl.shugo.gsolog.domain.port.ExportFileStorePort;
+import com.pl.shugo.gsolog.domain.repository.ExportJobRepository;
+import com.pl.shugo.gsolog.domain.repository.QsoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous export jobs.
+ * A submitted job is rendered in the background through the regular export pipeline
+ * into the export file store, then downloaded (with Range support) as often as needed.
+ * A job over unchanged QSOs with the same parameters reuses the previous artifact.
+ * Running jobs carry a heartbeat refreshed by the instance rendering them; only jobs whose
+ * heartbeat is older than the lease are requeued, so instances never take over each other's work.
+ * Whole-instance backups (format {@value #BACKUP_FORMAT}) run as jobs owned by the requesting admin.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobService.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * Job format of whole-instance backups; not an export format users can request.
+     */
+    public static final String BACKUP_FORMAT = "backup";
+
+    private final ExportJobRepository exportJobRepository;
+    private final QsoRepository qsoRepository;
+    private final ExportService exportService;
+    private final BackupService backupService;
+    private final ExportFileStorePort fileStore;
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private final int concurrency;
+    private final Duration retention;
+    private final Duration lease;
+    private final AtomicInteger running = new AtomicInteger();
+    /**
+     * Jobs this instance is rendering, whose heartbeat it keeps fresh.
+     */
+    private final Set<UUID> rendering = ConcurrentHashMap.newKeySet();
+
+    public ExportJobService(ExportJobRepository exportJobRepository,
+                            QsoRepository qsoRepository,
+                            ExportService exportService,
+                            BackupService backupService,
+                            ExportFileStorePort fileStore,
+                            @Value("${export.jobs.concurrency:2}") int concurrency,
+                            @Value("${export.jobs.retention:24h}") Duration retention,
+                            @Value("${export.jobs.lease:2m}") Duration lease) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("export.jobs.concurrency must be positive");
+        }
+        this.exportJobRepository = exportJobRepository;
+        this.qsoRepository = qsoRepository;
+        this.exportService = exportService;
+        this.backupService = backupService;
+        this.fileStore = fileStore;
+        this.concurrency = concurrency;
+        this.retention = retention;
+        this.lease = lease;
+    }
+
+    /**
+     * Submit an export job.
+     * Returns the existing job instead if one with the same parameters over the same
+     * QSOs is pending, running, or completed with its file still stored.
+     *
+     * @param userId   User ID
+     * @param format   Export format id
+     * @param compress File compression: none or gzip (null for none)
+     * @param from     Start date (inclusive, null for no limit)
+     * @param to       End date (inclusive, null for no limit)
+     * @return The new or reused job
+     */
+    public Mono<ExportJob> submit(UUID userId, String format, String compress, LocalDate from, LocalDate to) {
+        return Mono.defer(() -> {
+            ExportFormat exportFormat = exportService.findFormat(format)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown export format: " + format));
+            String compression = (compress != null ? ExportCompression.fromValue(compress) : ExportCompression.NONE)
+                    .getValue();
+
+            return qsoRepository.getExportFingerprint(userId, from, to)
+                    .flatMap(fingerprint -> exportJobRepository
+                            .findReusable(userId, exportFormat.id(), compression, from, to, fingerprint)
+                            .filterWhen(this::isReusable)
+                            .switchIfEmpty(Mono.defer(() -> exportJobRepository.save(ExportJob.create(
+                                            userId, exportFormat.id(), compression, from, to, fingerprint))
+                                    .doOnNext(job -> startPendingJobs()))));
+        });
+    }
+
+    /**
+     * Submit a whole-instance backup job: every user's log as ADIF in one zip archive.
+     * Backups are never reused, since any user's log may have changed.
+     *
+     * @param adminId ID of the admin who owns (and downloads) the backup
+     * @return The new job
+     */
+    public Mono<ExportJob> submitBackup(UUID adminId) {
+        return exportJobRepository.save(ExportJob.create(
+                        adminId, BACKUP_FORMAT, ExportCompression.NONE.getValue(), null, null, null))
+                .doOnNext(job -> startPendingJobs());
+    }
+
+    /**
+     * Find a user's export job.
+     */
+    public Mono<ExportJob> getJob(UUID userId, UUID jobId) {
+        return exportJobRepository.findByIdAndUserId(jobId, userId);
+    }
+
+    /**
+     * List a user's export jobs, newest first.
+     */
+    public Flux<ExportJob> getJobs(UUID userId) {
+        return exportJobRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    /**
+     * Open the stored file of a completed job.
+     *
+     * @return Mono of the file, or empty if it is no longer stored
+     */
+    public Mono<Resource> openFile(ExportJob job) {
+        return fileStore.open(job.getId());
+    }
+
+    /**
+     * Claim pending jobs up to the concurrency limit and render them in the background.
+     *
+     * @return Number of jobs started
+     */
+    public Mono<Integer> runPendingJobs() {
+        return Mono.defer(() -> {
+            int slots = reserveSlots();
+            if (slots == 0) {
+                return Mono.just(0);
+            }
+            return exportJobRepository.claimPending(slots)
+                    .collectList()
+                    .doOnError(error -> running.addAndGet(-slots))
+                    .map(jobs -> {
+                        running.addAndGet(jobs.size() - slots);
+                        jobs.forEach(job -> {
+                            rendering.add(job.getId());
+                            render(job)
+                                    .doFinally(signal -> {
+                                        rendering.remove(job.getId());
+                                        running.decrementAndGet();
+                                    })
+                                    .subscribe();
+                        });
+                        return jobs.size();
+                    });
+        });
+    }
+
+    /**
+     * Refresh the heartbeat of the jobs this instance is rendering.
+     *
+     * @return Number of jobs touched
+     */
+    public Mono<Integer> heartbeat() {
+        List<UUID> ids = List.copyOf(rendering);
+        return ids.isEmpty() ? Mono.just(0) : exportJobRepository.touchRunning(ids);
+    }
+
+    /**
+     * Requeue running jobs whose heartbeat is older than the lease, left behind by a stopped
+     * instance (this one before a restart, or a peer).
+     *
+     * @return Number of jobs requeued
+     */
+    public Mono<Integer> recoverInterruptedJobs() {
+        return exportJobRepository.requeueOrphaned(lease.toSeconds());
+    }
+
+    /**
+     * Delete jobs past their retention, together with their files.
+     *
+     * @return Number of jobs deleted
+     */
+    public Mono<Long> cleanupExpiredJobs() {
+        return exportJobRepository.findExpired(Instant.now())
+                .concatMap(job -> fileStore.delete(job.getId())
+                        .then(exportJobRepository.delete(job))
+                        .thenReturn(job))
+                .count();
+    }
+
+    /**
+     * Render a claimed job into the file store and record the outcome.
+     */
+    Mono<ExportJob> render(ExportJob job) {
+        Mono<Flux<DataBuffer>> content = BACKUP_FORMAT.equals(job.getFormat())
+                ? Mono.fromSupplier(() -> prepareBackup(job))
+                : Mono.justOrEmpty(exportService.findFormat(job.getFormat()))
+                        .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                                "Unknown export format: " + job.getFormat())))
+                        // Fingerprint taken as rendering starts, so it matches (or predates) the rendered QSOs
+                        .flatMap(format -> qsoRepository
+                                .getExportFingerprint(job.getUserId(), job.getFromDate(), job.getToDate())
+                                .map(fingerprint -> {
+                                    job.setSourceFingerprint(fingerprint);
+                                    return prepare(job, format);
+                                }));
+        return content
+                .flatMap(data -> fileStore.store(job.getId(), data))
+                .flatMap(stored -> {
+                    Instant now = Instant.now();
+                    job.setStatus(ExportJobStatus.COMPLETED);
+                    job.setSizeBytes(stored.sizeBytes());
+                    job.setContentHash(stored.contentHash());
+                    job.setCompletedAt(now);
+                    job.setExpiresAt(now.plus(retention));
+                    return exportJobRepository.save(job);
+                })
+                .doOnNext(saved -> log.debug("Export job {} completed: {} bytes", saved.getId(), saved.getSizeBytes()))
+                .onErrorResume(error -> {
+                    log.warn("Export job {} failed: {}", job.getId(), error.getMessage());
+                    Instant now = Instant.now();
+                    job.setStatus(ExportJobStatus.FAILED);
+                    job.setErrorMessage(truncate(error.getMessage()));
+                    job.setCompletedAt(now);
+                    job.setExpiresAt(now.plus(retention));
+                    return fileStore.delete(job.getId())
+                            .then(exportJobRepository.save(job));
+                });
+    }
+
+    /**
+     * Set the job's file name and build its (optionally gzip-compressed) export stream.
+     */
+    private Flux<DataBuffer> prepare(ExportJob job, ExportFormat format) {
+        Flux<DataBuffer> data = exportService.generate(
+                format, job.getUserId(), job.getFromDate(), job.getToDate(), bufferFactory);
+        String fileName = exportService.buildFilename(format, job.getFromDate(), job.getToDate());
+        if (ExportCompression.fromValue(job.getCompression()) == ExportCompression.GZIP) {
+            data = GzipCompressor.compress(data, bufferFactory);
+            fileName = fileName + ".gz";
+        }
+        job.setFileName(fileName);
+        return data;
+    }
+
+    /**
+     * Set the backup's file name and build its archive stream.
+     */
+    private Flux<DataBuffer> prepareBackup(ExportJob job) {
+        job.setFileName(backupService.buildFilename(LocalDateTime.now(ZoneOffset.UTC)));
+        return backupService.generate(bufferFactory);
+    }
+
+    /**
+     * A completed job is only reusable while its file is stored; its retention is extended on reuse.
+     */
+    private Mono<Boolean> isReusable(ExportJob job) {
+        if (job.getStatus() != ExportJobStatus.COMPLETED) {
+            return Mono.just(true);
+        }
+        return fileStore.open(job.getId())
+                .flatMap(file -> exportJobRepository.extendExpiry(job.getId(), Instant.now().plus(retention)))
+                .map(updated -> true)
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Kick the worker right after a submit instead of waiting for the next poll.
+     */
+    private void startPendingJobs() {
+        runPendingJobs()
+                .doOnError(error -> log.warn("Failed to start export jobs: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+
+    /**
+     * Reserve all free worker slots; unused ones are given back once jobs are claimed.
+     */
+    private int reserveSlots() {
+        while (true) {
+            int current = running.get();
+            int free = concurrency - current;
+            if (free <= 0) {
+                return 0;
+            }
+            if (running.compareAndSet(current, concurrency)) {
+                return free;
+            }
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "Export failed";
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
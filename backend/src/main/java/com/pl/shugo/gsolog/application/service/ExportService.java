@@ -1,199 +1,223 @@
 package com.pl.shugo.gsolog.application.service;
 
+import com.pl.shugo.gsolog.application.export.ExportContext;
+import com.pl.shugo.gsolog.application.export.ExportFormat;
+import com.pl.shugo.gsolog.application.export.ExportPipeline;
+import com.pl.shugo.gsolog.domain.entity.ExportWatermark;
 import com.pl.shugo.gsolog.domain.entity.Qso;
+import com.pl.shugo.gsolog.domain.entity.User;
+import com.pl.shugo.gsolog.domain.repository.ExportWatermarkRepository;
 import com.pl.shugo.gsolog.domain.repository.QsoRepository;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import com.pl.shugo.gsolog.domain.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
- * Export service for generating ADIF and CSV files.
- * Provides reactive streaming of QSO data in various formats.
+ * Export service for streaming QSOs in any registered {@link ExportFormat}.
+ * All formats share one chunked cursor query and one buffer pipeline.
  */
 @Service
 public class ExportService {
 
-    private static final DateTimeFormatter ADIF_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
-    private static final DateTimeFormatter ADIF_TIME_FORMAT = DateTimeFormatter.ofPattern("HHmmss");
-    private static final String ADIF_HEADER = """
-            ADIF Export
-            <ADIF_VER:5>3.1.4
-            <PROGRAMID:6>QSOLOG
-            <EOH>
-
-            """;
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String DEFAULT_TARGET = "default";
+    private static final Pattern TARGET_PATTERN = Pattern.compile("[a-z0-9_-]{1,50}");
 
     private final QsoRepository qsoRepository;
-
-    public ExportService(QsoRepository qsoRepository) {
+    private final UserRepository userRepository;
+    private final ExportWatermarkRepository exportWatermarkRepository;
+    private final Map<String, ExportFormat> formats;
+    private final int chunkSize;
+    private final Duration incrementalLag;
+
+    public ExportService(QsoRepository qsoRepository,
+                         UserRepository userRepository,
+                         ExportWatermarkRepository exportWatermarkRepository,
+                         List<ExportFormat> formats,
+                         @Value("${export.chunk-size:1000}") int chunkSize,
+                         @Value("${export.incremental.lag:5m}") Duration incrementalLag) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("export.chunk-size must be positive");
+        }
+        if (incrementalLag.isNegative()) {
+            throw new IllegalArgumentException("export.incremental.lag must not be negative");
+        }
         this.qsoRepository = qsoRepository;
+        this.userRepository = userRepository;
+        this.exportWatermarkRepository = exportWatermarkRepository;
+        this.formats = formats.stream()
+                .collect(Collectors.toUnmodifiableMap(ExportFormat::id, Function.identity()));
+        this.chunkSize = chunkSize;
+        this.incrementalLag = incrementalLag;
     }
 
     /**
-     * Generate ADIF format export for user's QSOs.
-     * Properly maps mode/submode/customMode according to ADIF specification.
+     * Find an export format by id.
      *
-     * @param userId User ID
-     * @param from   Start date (inclusive, null for no limit)
-     * @param to     End date (inclusive, null for no limit)
-     * @return Flux of ADIF formatted strings
+     * @param id Format id, e.g. "adif" (case-insensitive)
+     * @return The format, or empty if no such format is registered
      */
-    public Flux<String> generateAdif(UUID userId, LocalDate from, LocalDate to) {
-        return Flux.concat(
-                Flux.just(ADIF_HEADER),
-                fetchQsos(userId, from, to).map(this::formatQsoAsAdif)
-        );
+    public Optional<ExportFormat> findFormat(String id) {
+        return Optional.ofNullable(formats.get(id.toLowerCase(Locale.ROOT)));
     }
 
     /**
-     * Generate CSV format export for user's QSOs.
+     * Generate an export of user's QSOs in the given format.
+     * Records are encoded straight into buffers from the given factory, one batch per chunk.
      *
-     * @param userId User ID
-     * @param from   Start date (inclusive, null for no limit)
-     * @param to     End date (inclusive, null for no limit)
-     * @return Flux of CSV formatted strings
+     * @param format        Export format
+     * @param userId        User ID
+     * @param from          Start date (inclusive, null for no limit)
+     * @param to            End date (inclusive, null for no limit)
+     * @param bufferFactory Factory of the response the export is written to
+     * @return Flux of data buffers
      */
-    public Flux<String> generateCsv(UUID userId, LocalDate from, LocalDate to) {
-        String header = "Callsign,Date,Time,Band,Frequency (kHz),Mode,Submode,Custom Mode," +
-                "RST Sent,RST Recv,QTH,Grid Square,Notes," +
-                "QSL Status,LoTW Status,eQSL Status\n";
-
-        return Flux.concat(
-                Flux.just(header),
-                fetchQsos(userId, from, to).map(this::formatQsoAsCsv)
-        );
+    public Flux<DataBuffer> generate(ExportFormat format, UUID userId, LocalDate from, LocalDate to,
+                                     DataBufferFactory bufferFactory) {
+        return Flux.defer(() -> encode(format, userId, from, to, null, Instant.now(), bufferFactory));
     }
 
     /**
-     * Fetch QSOs for export with proper ordering.
+     * Generate an incremental export: only QSOs created or updated since the target's watermark
+     * (all QSOs if the target has none yet). Once every record has been written out, the
+     * watermark advances to the export's start time less the incremental lag; an interrupted
+     * download leaves it unchanged. The start time is read from the database, whose clock stamps
+     * the QSOs, and timestamps are taken when a transaction starts, so a change committed after
+     * the export may still be stamped before it. Holding the watermark back by the lag exports
+     * such late commits next time, at the cost of repeating changes made within the lag.
+     * Deleted QSOs are not represented. An incremental export always covers every date,
+     * since the watermark is kept for the whole target: changes outside a date range would be
+     * skipped over by the advance and never exported.
+     *
+     * @param format        Export format
+     * @param userId        User ID
+     * @param target        Upload destination the watermark is kept for, e.g. "lotw"
+     * @param bufferFactory Factory of the response the export is written to
+     * @return Flux of data buffers
      */
-    private Flux<Qso> fetchQsos(UUID userId, LocalDate from, LocalDate to) {
-        PageRequest pageRequest = PageRequest.of(0, Integer.MAX_VALUE,
-                Sort.by(Sort.Direction.ASC, "qsoDate", "timeOn"));
+    public Flux<DataBuffer> generateIncremental(ExportFormat format, UUID userId, String target,
+                                                DataBufferFactory bufferFactory) {
+        String watermarkTarget = normalizeTarget(target);
+        return exportWatermarkRepository.currentTime()
+                .flatMapMany(asOf -> exportWatermarkRepository.findByUserIdAndTarget(userId, watermarkTarget)
+                        .map(ExportWatermark::getWatermark)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMapMany(since -> encode(format, userId, null, null, since.orElse(null), asOf, bufferFactory))
+                        .concatWith(exportWatermarkRepository.advance(userId, watermarkTarget, asOf.minus(incrementalLag))
+                                .then(Mono.empty())));
+    }
 
-        if (from != null && to != null) {
-            return qsoRepository.findByUserIdAndDateRange(userId, from, to, Integer.MAX_VALUE, 0);
-        } else if (from != null) {
-            return qsoRepository.findByUserIdAndDateRange(userId, from, LocalDate.now().plusYears(100), Integer.MAX_VALUE, 0);
-        } else if (to != null) {
-            return qsoRepository.findByUserIdAndDateRange(userId, LocalDate.now().minusYears(100), to, Integer.MAX_VALUE, 0);
-        } else {
-            return qsoRepository.findByUserId(userId, pageRequest);
-        }
+    /**
+     * List the user's incremental export watermarks.
+     */
+    public Flux<ExportWatermark> getWatermarks(UUID userId) {
+        return exportWatermarkRepository.findByUserIdOrderByTarget(userId);
     }
 
     /**
-     * Format a single QSO as ADIF record.
-     * Handles mode/submode/customMode mapping according to ADIF specification.
+     * Reset a target's watermark, so its next incremental export includes every QSO.
+     *
+     * @return true if a watermark was deleted
      */
-    private String formatQsoAsAdif(Qso qso) {
-        StringBuilder sb = new StringBuilder();
-
-        // Required fields
-        appendAdifField(sb, "CALL", qso.getTheirCallsign());
-        appendAdifField(sb, "QSO_DATE", qso.getQsoDate().format(ADIF_DATE_FORMAT));
-        appendAdifField(sb, "TIME_ON", qso.getTimeOn().format(ADIF_TIME_FORMAT));
-        appendAdifField(sb, "BAND", qso.getBand());
-
-        // Mode handling according to ADIF specification
-        if (qso.getCustomMode() != null && !qso.getCustomMode().isBlank()) {
-            // Custom mode: emit MODE=DATA and vendor field
-            appendAdifField(sb, "MODE", "DATA");
-            appendAdifField(sb, "APP_QSOLOG_CUSTOMMODE", qso.getCustomMode());
-        } else {
-            // Standard mode
-            appendAdifField(sb, "MODE", qso.getMode().name());
-            if (qso.getSubmode() != null) {
-                appendAdifField(sb, "SUBMODE", qso.getSubmode().name());
-            }
-        }
+    public Mono<Boolean> resetWatermark(UUID userId, String target) {
+        return exportWatermarkRepository.deleteByUserIdAndTarget(userId, normalizeTarget(target))
+                .map(deleted -> deleted > 0);
+    }
 
-        // Optional fields
-        if (qso.getFrequencyKhz() != null) {
-            BigDecimal freqMhz = qso.getFrequencyKhz().divide(new BigDecimal("1000"), 6, RoundingMode.HALF_UP);
-            appendAdifField(sb, "FREQ", freqMhz.stripTrailingZeros().toPlainString());
-        }
-        if (qso.getRstSent() != null && !qso.getRstSent().isBlank()) {
-            appendAdifField(sb, "RST_SENT", qso.getRstSent());
-        }
-        if (qso.getRstRecv() != null && !qso.getRstRecv().isBlank()) {
-            appendAdifField(sb, "RST_RCVD", qso.getRstRecv());
-        }
-        if (qso.getQth() != null && !qso.getQth().isBlank()) {
-            appendAdifField(sb, "QTH", qso.getQth());
-        }
-        if (qso.getGridSquare() != null && !qso.getGridSquare().isBlank()) {
-            appendAdifField(sb, "GRIDSQUARE", qso.getGridSquare());
-        }
-        if (qso.getNotes() != null && !qso.getNotes().isBlank()) {
-            appendAdifField(sb, "COMMENT", qso.getNotes());
-        }
+    /**
+     * Build the download filename: qsolog plus the optional date range and the format's extension.
+     */
+    public String buildFilename(ExportFormat format, LocalDate from, LocalDate to) {
+        StringBuilder filename = new StringBuilder("qsolog");
 
-        // QSL status fields
-        if (qso.getQslStatus() != null && qso.getQslStatus().name() != null) {
-            appendAdifField(sb, "QSL_RCVD", qso.getQslStatus().name());
-        }
-        if (qso.getLotwStatus() != null && qso.getLotwStatus().name() != null) {
-            appendAdifField(sb, "LOTW_QSLRDATE", qso.getLotwStatus().name());
-        }
-        if (qso.getEqslStatus() != null && qso.getEqslStatus().name() != null) {
-            appendAdifField(sb, "EQSL_QSLRDATE", qso.getEqslStatus().name());
+        if (from != null && to != null) {
+            filename.append("_")
+                    .append(from.format(FILE_DATE_FORMAT))
+                    .append("-")
+                    .append(to.format(FILE_DATE_FORMAT));
+        } else if (from != null) {
+            filename.append("_from_").append(from.format(FILE_DATE_FORMAT));
+        } else if (to != null) {
+            filename.append("_to_").append(to.format(FILE_DATE_FORMAT));
         }
 
-        sb.append("<EOR>\n");
-        return sb.toString();
+        filename.append(".").append(format.fileExtension());
+        return filename.toString();
     }
 
     /**
-     * Append an ADIF field in the format: <FIELD:length>value
+     * Stream the selected QSOs through a new writer for the format.
      */
-    private void appendAdifField(StringBuilder sb, String fieldName, String value) {
-        if (value != null && !value.isBlank()) {
-            sb.append("<").append(fieldName).append(":").append(value.length()).append(">").append(value).append(" ");
-        }
+    private Flux<DataBuffer> encode(ExportFormat format, UUID userId, LocalDate from, LocalDate to,
+                                    Instant since, Instant asOf, DataBufferFactory bufferFactory) {
+        return userRepository.findById(userId)
+                .map(User::getUsername)
+                .defaultIfEmpty("")
+                .flatMapMany(operator -> ExportPipeline.encode(
+                        fetchQsoChunks(userId, from, to, since, asOf),
+                        format.newWriter(new ExportContext(userId, operator, from, to)),
+                        bufferFactory));
     }
 
     /**
-     * Format a single QSO as CSV record.
+     * Validate and normalize a watermark target name.
      */
-    private String formatQsoAsCsv(Qso qso) {
-        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
-                escapeCsv(qso.getTheirCallsign()),
-                qso.getQsoDate(),
-                qso.getTimeOn(),
-                escapeCsv(qso.getBand()),
-                qso.getFrequencyKhz() != null ? qso.getFrequencyKhz() : "",
-                qso.getMode() != null ? qso.getMode().name() : "",
-                qso.getSubmode() != null ? qso.getSubmode().name() : "",
-                escapeCsv(qso.getCustomMode()),
-                escapeCsv(qso.getRstSent()),
-                escapeCsv(qso.getRstRecv()),
-                escapeCsv(qso.getQth()),
-                escapeCsv(qso.getGridSquare()),
-                escapeCsv(qso.getNotes()),
-                qso.getQslStatus() != null ? qso.getQslStatus().name() : "",
-                qso.getLotwStatus() != null ? qso.getLotwStatus().name() : "",
-                qso.getEqslStatus() != null ? qso.getEqslStatus().name() : ""
-        );
+    static String normalizeTarget(String target) {
+        if (target == null || target.isBlank()) {
+            return DEFAULT_TARGET;
+        }
+        String normalized = target.trim().toLowerCase(Locale.ROOT);
+        if (!TARGET_PATTERN.matcher(normalized).matches()) {
+            throw new IllegalArgumentException(
+                    "Invalid export target: " + target + ". Use up to 50 letters, digits, '-' or '_'");
+        }
+        return normalized;
     }
 
     /**
-     * Escape CSV value (handle quotes and commas).
+     * Fetch QSOs for export in chunks, following a keyset cursor on (qso_date, time_on, id).
+     * Each chunk is a short query, so no connection is held between chunks or while the
+     * client reads, and cancelling the download stops at the next chunk boundary.
+     * The next chunk is only requested once the previous one has been consumed,
+     * which bounds memory to about two chunks regardless of log size.
+     * QSOs created after the export started (asOf) are left out; with a since
+     * watermark, only QSOs updated after it are included.
+     * This is not a snapshot: QSOs edited or deleted while the export runs are seen as they are
+     * when their chunk is read (see {@link QsoRepository#findExportChunk}).
      */
-    private String escapeCsv(String value) {
-        if (value == null || value.isBlank()) {
-            return "";
-        }
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+    Flux<List<Qso>> fetchQsoChunks(UUID userId, LocalDate from, LocalDate to, Instant since, Instant asOf) {
+        return fetchChunk(userId, from, to, since, asOf, null)
+                .expand(chunk -> chunk.size() < chunkSize
+                        ? Mono.empty()
+                        : fetchChunk(userId, from, to, since, asOf, chunk.get(chunk.size() - 1)))
+                .filter(chunk -> !chunk.isEmpty());
+    }
+
+    private Mono<List<Qso>> fetchChunk(UUID userId, LocalDate from, LocalDate to, Instant since, Instant asOf,
+                                       Qso after) {
+        return qsoRepository.findExportChunk(userId, from, to, asOf, since,
+                        after != null ? after.getQsoDate() : null,
+                        after != null ? after.getTimeOn() : null,
+                        after != null ? after.getId() : null,
+                        chunkSize)
+                .collectList();
     }
 }
@@ -0,0 +1,87 @@
+package com.pl.shugo.gsolog.application.service;
+
+import com.pl.shugo.gsolog.api.dto.CallsignBatchLookupResult;
+import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+import com.pl.shugo.gsolog.application.lookup.TokenBucket;
+import com.pl.shugo.gsolog.domain.port.CallsignLookupPort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Batch callsign lookup service.
+ * Cached callsigns are answered at once; the rest go to the lookup port with bounded
+ * concurrency, paced by a token bucket shared by all batches so the external service's
+ * rate limit holds however many batches run at once.
+ */
+@Service
+public class LookupService {
+
+    private static final int CACHE_PROBE_CONCURRENCY = 32;
+
+    private final CallsignLookupPort callsignLookupPort;
+    private final TokenBucket rateLimiter;
+    private final int concurrency;
+
+    public LookupService(CallsignLookupPort callsignLookupPort,
+                         @Value("${lookup.batch.rate-per-second:5}") double ratePerSecond,
+                         @Value("${lookup.batch.burst:10}") int burst,
+                         @Value("${lookup.batch.concurrency:4}") int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("lookup.batch.concurrency must be positive");
+        }
+        this.callsignLookupPort = callsignLookupPort;
+        this.rateLimiter = new TokenBucket(ratePerSecond, burst);
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Look up many callsigns, emitting each result as soon as it is resolved.
+     * Callsigns are normalized (trimmed, upper-case) and deduplicated; blank ones are skipped.
+     *
+     * @param callsigns Callsigns to look up
+     * @return Results in completion order, one per distinct callsign
+     */
+    public Flux<CallsignBatchLookupResult> lookupBatch(List<String> callsigns) {
+        List<String> distinct = callsigns.stream()
+                .filter(Objects::nonNull)
+                .map(callsign -> callsign.trim().toUpperCase(Locale.ROOT))
+                .filter(callsign -> !callsign.isEmpty())
+                .distinct()
+                .toList();
+
+        return Flux.fromIterable(distinct)
+                .flatMap(callsign -> callsignLookupPort.lookupCached(callsign)
+                        .map(cached -> new CacheProbe(callsign, true, cached))
+                        .defaultIfEmpty(new CacheProbe(callsign, false, Optional.empty())),
+                        CACHE_PROBE_CONCURRENCY)
+                .publish(probes -> Flux.merge(
+                        probes.filter(CacheProbe::hit)
+                                .map(probe -> result(probe.callsign(), probe.cached().orElse(null))),
+                        probes.filter(probe -> !probe.hit())
+                                // Misses queue here, so hits are not held back behind them
+                                .onBackpressureBuffer()
+                                .flatMap(probe -> lookupRemote(probe.callsign()), concurrency)));
+    }
+
+    private Mono<CallsignBatchLookupResult> lookupRemote(String callsign) {
+        return rateLimiter.acquire()
+                // Deferred: lookup() checks the cache and joins in-flight lookups when called
+                .then(Mono.defer(() -> callsignLookupPort.lookup(callsign)))
+                .map(response -> result(callsign, response))
+                .defaultIfEmpty(result(callsign, null));
+    }
+
+    private static CallsignBatchLookupResult result(String callsign, CallsignLookupResponse response) {
+        return new CallsignBatchLookupResult(callsign, response != null, response);
+    }
+
+    private record CacheProbe(String callsign, boolean hit, Optional<CallsignLookupResponse> cached) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.pl.shugo.gsolog.application.service;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process notifier for QSO changes.
+ * Keeps one sink per user while someone is listening; publishing for a user
+ * without listeners is a no-op.
+ */
+@Component
+public class QsoChangeNotifier {
+
+    private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Signal that the user's QSOs changed (created, updated, or deleted).
+     *
+     * @param userId Owner of the changed QSOs
+     */
+    public void publish(UUID userId) {
+        Channel channel = channels.get(userId);
+        if (channel != null) {
+            // Sinks reject concurrent emissions, so serialize publishers per user
+            synchronized (channel) {
+                channel.sink.tryEmitNext(Instant.now());
+            }
+        }
+    }
+
+    /**
+     * Stream of change signals for a user.
+     * The per-user sink is released when the last subscriber cancels.
+     *
+     * @param userId User ID
+     * @return Flux emitting the time of each change
+     */
+    public Flux<Instant> changes(UUID userId) {
+        return Flux.defer(() -> channels.compute(userId, (id, channel) -> {
+                    Channel current = channel != null ? channel : new Channel();
+                    current.subscribers.incrementAndGet();
+                    return current;
+                }).sink.asFlux())
+                .doFinally(signal -> channels.computeIfPresent(userId, (id, channel) ->
+                        channel.subscribers.decrementAndGet() == 0 ? null : channel));
+    }
+
+    private static class Channel {
+        final Sinks.Many<Instant> sink = Sinks.many().multicast().directBestEffort();
+        final AtomicInteger subscribers = new AtomicInteger();
+    }
+}
@@ -1,5 +1,6 @@
 package com.pl.shugo.gsolog.application.service;
 
+import com.pl.shugo.gsolog.application.suggestions.CallsignHistoryCache;
 import com.pl.shugo.gsolog.domain.entity.Qso;
 import com.pl.shugo.gsolog.domain.enums.AdifMode;
 import com.pl.shugo.gsolog.domain.enums.AdifSubmode;
@@ -27,10 +28,15 @@ public class QsoService {
 
     private final QsoRepository qsoRepository;
     private final QsoValidator qsoValidator;
+    private final QsoChangeNotifier changeNotifier;
+    private final CallsignHistoryCache historyCache;
 
-    public QsoService(QsoRepository qsoRepository, QsoValidator qsoValidator) {
+    public QsoService(QsoRepository qsoRepository, QsoValidator qsoValidator, QsoChangeNotifier changeNotifier,
+                      CallsignHistoryCache historyCache) {
         this.qsoRepository = qsoRepository;
         this.qsoValidator = qsoValidator;
+        this.changeNotifier = changeNotifier;
+        this.historyCache = historyCache;
     }
 
     /**
@@ -93,7 +99,11 @@ public class QsoService {
                               String gridSquare, String notes) {
         Qso qso = Qso.create(userId, theirCallsign, qsoDate, timeOn, band, frequencyKhz, mode, submode,
                 customMode, rstSent, rstRecv, qth, gridSquare, notes);
-        return qsoRepository.save(qso);
+        return qsoRepository.save(qso)
+                .doOnSuccess(saved -> {
+                    historyCache.recordCreated(saved);
+                    changeNotifier.publish(userId);
+                });
     }
 
     /**
@@ -145,6 +155,8 @@ public class QsoService {
         return qsoRepository.findByIdAndUserId(id, userId)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "QSO not found")))
                 .flatMap(existingQso -> {
+                    String previousCallsign = existingQso.getTheirCallsign();
+
                     // Update fields
                     existingQso.setTheirCallsign(theirCallsign);
                     existingQso.setQsoDate(qsoDate);
@@ -161,8 +173,13 @@ public class QsoService {
                     existingQso.setNotes(notes);
                     existingQso.setUpdatedAt(java.time.Instant.now());
 
-                    return qsoRepository.save(existingQso);
-                });
+                    return qsoRepository.save(existingQso)
+                            .doOnSuccess(saved -> {
+                                historyCache.recordChanged(userId, previousCallsign);
+                                historyCache.recordChanged(userId, theirCallsign);
+                            });
+                })
+                .doOnSuccess(saved -> changeNotifier.publish(userId));
     }
 
     /**
@@ -171,7 +188,9 @@ public class QsoService {
     public Mono<Void> deleteQso(UUID id, UUID userId) {
         return qsoRepository.findByIdAndUserId(id, userId)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "QSO not found")))
-                .flatMap(qso -> qsoRepository.deleteByIdAndUserId(id, userId));
+                .flatMap(qso -> qsoRepository.deleteByIdAndUserId(id, userId)
+                        .doOnSuccess(ignored -> historyCache.recordChanged(userId, qso.getTheirCallsign())))
+                .doOnSuccess(ignored -> changeNotifier.publish(userId));
     }
 
     /**
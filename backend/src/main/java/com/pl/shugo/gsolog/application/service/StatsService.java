@@ -1,14 +1,25 @@
 package com.pl.shugo.gsolog.application.service;
 
 import com.pl.shugo.gsolog.api.dto.*;
+import com.pl.shugo.gsolog.application.stats.HyperLogLog;
+import com.pl.shugo.gsolog.domain.enums.StatsGranularity;
 import com.pl.shugo.gsolog.domain.repository.QsoRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * Statistics service.
@@ -18,9 +29,15 @@ import java.util.UUID;
 public class StatsService {
 
     private final QsoRepository qsoRepository;
+    private final QsoChangeNotifier changeNotifier;
+    private final Duration streamInterval;
 
-    public StatsService(QsoRepository qsoRepository) {
+    public StatsService(QsoRepository qsoRepository,
+                        QsoChangeNotifier changeNotifier,
+                        @Value("${stats.stream.interval:PT2S}") Duration streamInterval) {
         this.qsoRepository = qsoRepository;
+        this.changeNotifier = changeNotifier;
+        this.streamInterval = streamInterval;
     }
 
     /**
@@ -32,21 +49,36 @@ public class StatsService {
      * @return Statistics response with counts by band, mode, day, and totals
      */
     public Mono<StatsResponse> getStatsSummary(UUID userId, LocalDate from, LocalDate to) {
+        return getStatsSummary(userId, from, to, StatsGranularity.DAY);
+    }
+
+    /**
+     * Get statistics summary for a user within a date range, with counts over time
+     * aggregated into buckets of the given granularity.
+     * Each entry in countsByDay then carries the bucket start date.
+     *
+     * @param userId      User ID
+     * @param from        Start date (inclusive, null for no limit)
+     * @param to          End date (inclusive, null for no limit)
+     * @param granularity Time bucket size for countsByDay
+     * @return Statistics response with counts by band, mode, time bucket, and totals
+     */
+    public Mono<StatsResponse> getStatsSummary(UUID userId, LocalDate from, LocalDate to,
+                                               StatsGranularity granularity) {
         // Fetch all statistics in parallel
         Mono<List<BandStats>> bandStats = qsoRepository.getStatsByBand(userId, from, to)
-                .map(this::mapToBandStats)
+                .map(StatsService::mapToBandStats)
                 .collectList();
 
         Mono<List<ModeStats>> modeStats = qsoRepository.getStatsByMode(userId, from, to)
-                .map(this::mapToModeStats)
+                .map(StatsService::mapToModeStats)
                 .collectList();
 
-        Mono<List<DayStats>> dayStats = qsoRepository.getStatsByDay(userId, from, to)
-                .map(this::mapToDayStats)
+        Mono<List<DayStats>> dayStats = getStatsOverTime(userId, from, to, granularity)
                 .collectList();
 
         Mono<Totals> totals = qsoRepository.getTotals(userId, from, to)
-                .map(this::mapToTotals);
+                .map(StatsService::mapToTotals);
 
         // Combine all results into a single response
         return Mono.zip(bandStats, modeStats, dayStats, totals)
@@ -58,7 +90,157 @@ public class StatsService {
                 ));
     }
 
-    private BandStats mapToBandStats(Map<String, Object> row) {
+    /**
+     * Get QSO counts over time for the given granularity.
+     * Month and year buckets come from monthly rollups when the range covers whole months;
+     * otherwise the QSO table is aggregated with date_trunc.
+     */
+    private Flux<DayStats> getStatsOverTime(UUID userId, LocalDate from, LocalDate to,
+                                            StatsGranularity granularity) {
+        if (granularity == StatsGranularity.DAY) {
+            return qsoRepository.getStatsByDay(userId, from, to)
+                    .map(StatsService::mapToDayStats);
+        }
+        if (granularity.isMonthAligned() && isWholeMonthRange(from, to)) {
+            return qsoRepository.getStatsByMonthlyRollup(userId, granularity.getValue(), from, to)
+                    .map(StatsService::mapToBucketStats);
+        }
+        return qsoRepository.getStatsByBucket(userId, granularity.getValue(), from, to)
+                .map(StatsService::mapToBucketStats);
+    }
+
+    static boolean isWholeMonthRange(LocalDate from, LocalDate to) {
+        return (from == null || from.getDayOfMonth() == 1)
+                && (to == null || to.getDayOfMonth() == to.lengthOfMonth());
+    }
+
+    /**
+     * Get approximate unique stations worked, in total and by band, mode, and month.
+     * Merges the per-month HyperLogLog sketches in the database instead of counting distinct
+     * callsigns, so the cost depends on the sketch registers in the range (at most 16384 per
+     * band/mode/month cell), not the size of the log.
+     * The date range is widened to whole months.
+     *
+     * @param userId User ID
+     * @param from   Start date (inclusive, null for no limit)
+     * @param to     End date (inclusive, null for no limit)
+     * @return Unique station estimates
+     */
+    public Mono<UniqueStationsResponse> getUniqueStations(UUID userId, LocalDate from, LocalDate to) {
+        LocalDate monthFrom = from != null ? from.withDayOfMonth(1) : null;
+        LocalDate monthTo = to != null ? to.withDayOfMonth(to.lengthOfMonth()) : null;
+
+        return qsoRepository.getCallsignSketchSummaries(userId, monthFrom, monthTo)
+                .reduce(new UniqueStationsEstimates(), UniqueStationsEstimates::add)
+                .map(estimates -> estimates.toResponse(monthFrom, monthTo));
+    }
+
+    /**
+     * Collects the estimates of the merged sketches streamed from the database.
+     */
+    private static final class UniqueStationsEstimates {
+        private long total;
+        private final Map<String, Long> byBand = new TreeMap<>();
+        private final Map<String, Long> byMode = new TreeMap<>();
+        private final Map<LocalDate, Long> byMonth = new TreeMap<>();
+
+        UniqueStationsEstimates add(Map<String, Object> row) {
+            long estimate = HyperLogLog.estimate(
+                    ((Number) row.get("filled")).intValue(), ((Number) row.get("harmonic")).doubleValue());
+            if (row.get("band") != null) {
+                byBand.put((String) row.get("band"), estimate);
+            } else if (row.get("mode") != null) {
+                byMode.put((String) row.get("mode"), estimate);
+            } else if (row.get("month") != null) {
+                byMonth.put((LocalDate) row.get("month"), estimate);
+            } else {
+                total = estimate;
+            }
+            return this;
+        }
+
+        UniqueStationsResponse toResponse(LocalDate from, LocalDate to) {
+            return new UniqueStationsResponse(from, to, total, byBand, byMode, byMonth);
+        }
+    }
+
+    /**
+     * Stream statistics updates for a user.
+     * Emits a full snapshot first, then a delta whenever the user's QSOs change.
+     * Bursts of writes are coalesced into at most one update per stream interval.
+     *
+     * @param userId User ID
+     * @param from   Start date (inclusive, null for no limit)
+     * @param to     End date (inclusive, null for no limit)
+     * @param granularity Time bucket size for countsByDay
+     * @return Flux of statistics updates
+     */
+    public Flux<StatsUpdate> streamStats(UUID userId, LocalDate from, LocalDate to,
+                                         StatsGranularity granularity) {
+        return Flux.defer(() -> {
+            AtomicReference<StatsResponse> previous = new AtomicReference<>();
+
+            // Subscribe to changes together with the initial tick, so nothing is missed in between
+            return Flux.merge(
+                            Mono.just(Boolean.TRUE),
+                            changeNotifier.changes(userId).sample(streamInterval).map(changedAt -> Boolean.TRUE))
+                    .onBackpressureLatest()
+                    .concatMap(tick -> getStatsSummary(userId, from, to, granularity), 1)
+                    .concatMap(current -> {
+                        StatsResponse last = previous.getAndSet(current);
+                        if (last == null) {
+                            return Mono.just(new StatsUpdate(true, current));
+                        }
+                        return Mono.justOrEmpty(diff(last, current))
+                                .map(delta -> new StatsUpdate(false, delta));
+                    });
+        });
+    }
+
+    /**
+     * Compute the entries that changed between two snapshots.
+     * Entries that disappeared are reported with zero counts; totals are always included.
+     *
+     * @return Delta response, or null if nothing changed
+     */
+    static StatsResponse diff(StatsResponse previous, StatsResponse current) {
+        List<BandStats> bands = changedEntries(previous.countsByBand(), current.countsByBand(),
+                BandStats::band, band -> new BandStats(band.band(), 0L, 0L));
+        List<ModeStats> modes = changedEntries(previous.countsByMode(), current.countsByMode(),
+                ModeStats::mode, mode -> new ModeStats(mode.mode(), 0L, 0L));
+        List<DayStats> days = changedEntries(previous.countsByDay(), current.countsByDay(),
+                DayStats::date, day -> new DayStats(day.date(), 0L, 0L));
+
+        if (bands.isEmpty() && modes.isEmpty() && days.isEmpty()
+                && Objects.equals(previous.totals(), current.totals())) {
+            return null;
+        }
+        return new StatsResponse(bands, modes, days, current.totals());
+    }
+
+    private static <T, K> List<T> changedEntries(List<T> previous, List<T> current,
+                                                 Function<T, K> key, Function<T, T> removed) {
+        Map<K, T> previousByKey = new LinkedHashMap<>();
+        previous.forEach(entry -> previousByKey.put(key.apply(entry), entry));
+
+        List<T> changed = new ArrayList<>();
+        for (T entry : current) {
+            T old = previousByKey.remove(key.apply(entry));
+            if (!entry.equals(old)) {
+                changed.add(entry);
+            }
+        }
+        previousByKey.values().forEach(entry -> changed.add(removed.apply(entry)));
+        return changed;
+    }
+
+    /**
+     * Single statistics stream update: either a full snapshot or a delta.
+     */
+    public record StatsUpdate(boolean snapshot, StatsResponse stats) {
+    }
+
+    static BandStats mapToBandStats(Map<String, Object> row) {
         return new BandStats(
                 (String) row.get("band"),
                 getLongValue(row, "count_all"),
@@ -66,7 +248,7 @@ public class StatsService {
         );
     }
 
-    private ModeStats mapToModeStats(Map<String, Object> row) {
+    static ModeStats mapToModeStats(Map<String, Object> row) {
         return new ModeStats(
                 (String) row.get("mode"),
                 getLongValue(row, "count_all"),
@@ -74,7 +256,7 @@ public class StatsService {
         );
     }
 
-    private DayStats mapToDayStats(Map<String, Object> row) {
+    static DayStats mapToDayStats(Map<String, Object> row) {
         return new DayStats(
                 (LocalDate) row.get("qso_date"),
                 getLongValue(row, "count_all"),
@@ -82,14 +264,22 @@ public class StatsService {
         );
     }
 
-    private Totals mapToTotals(Map<String, Object> row) {
+    static DayStats mapToBucketStats(Map<String, Object> row) {
+        return new DayStats(
+                (LocalDate) row.get("bucket"),
+                getLongValue(row, "count_all"),
+                getLongValue(row, "count_confirmed")
+        );
+    }
+
+    static Totals mapToTotals(Map<String, Object> row) {
         return new Totals(
                 getLongValue(row, "count_all"),
                 getLongValue(row, "count_confirmed")
         );
     }
 
-    private Long getLongValue(Map<String, Object> row, String key) {
+    static Long getLongValue(Map<String, Object> row, String key) {
         Object value = row.get(key);
         if (value == null) {
             return 0L;
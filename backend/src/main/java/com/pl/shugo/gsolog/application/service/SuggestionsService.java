@@ -1,9 +1,11 @@
 package com.pl.shugo.gsolog.application.service;
 
+import com.pl.shugo.gsolog.api.dto.CallsignMatchResponse;
 import com.pl.shugo.gsolog.api.dto.CallsignSuggestionResponse;
-import com.pl.shugo.gsolog.domain.entity.Qso;
-import com.pl.shugo.gsolog.domain.repository.QsoRepository;
+import com.pl.shugo.gsolog.application.suggestions.CallsignHistoryCache;
+import com.pl.shugo.gsolog.domain.enums.CallsignRanking;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -14,86 +16,58 @@ import java.util.UUID;
 @Service
 public class SuggestionsService {
 
-    private final QsoRepository qsoRepository;
+    private static final int MAX_PREFIX_MATCHES = 50;
 
-    public SuggestionsService(QsoRepository qsoRepository) {
-        this.qsoRepository = qsoRepository;
+    private final CallsignHistoryCache historyCache;
+
+    public SuggestionsService(CallsignHistoryCache historyCache) {
+        this.historyCache = historyCache;
     }
 
     /**
      * Get suggestions for a callsign based on user's QSO history.
-     * Returns information from the most recent QSO and most common band/mode.
+     * Returns information from the most recent QSO, the last name found in notes,
+     * and most common band/mode, answered from the in-memory callsign history.
      *
      * @param userId   User ID
      * @param callsign Callsign to get suggestions for
      * @return Suggestion response or empty if no history found
      */
     public Mono<CallsignSuggestionResponse> getSuggestions(UUID userId, String callsign) {
-        Mono<Qso> mostRecentQso = qsoRepository.findMostRecentByCallsign(userId, callsign);
-        Mono<String> mostCommonBand = qsoRepository.getMostCommonBandForCallsign(userId, callsign)
-                .map(row -> (String) row.get("band"));
-        Mono<String> mostCommonMode = qsoRepository.getMostCommonModeForCallsign(userId, callsign)
-                .map(row -> (String) row.get("mode"));
-
-        return Mono.zip(
-                mostRecentQso.defaultIfEmpty(new Qso()),
-                mostCommonBand.defaultIfEmpty(""),
-                mostCommonMode.defaultIfEmpty("")
-        ).flatMap(tuple -> {
-            Qso recentQso = tuple.getT1();
-            String band = tuple.getT2();
-            String mode = tuple.getT3();
-
-            // If no QSO found, return empty
-            if (recentQso.getId() == null) {
-                return Mono.empty();
-            }
-
-            // Extract name from QTH or notes (simple heuristic)
-            String name = extractNameFromQso(recentQso);
-            String qth = recentQso.getQth();
-            String notesSnippet = truncateNotes(recentQso.getNotes());
-
-            CallsignSuggestionResponse response = new CallsignSuggestionResponse(
-                    callsign.toUpperCase(),
-                    name,
-                    qth,
-                    notesSnippet,
-                    band.isEmpty() ? null : band,
-                    mode.isEmpty() ? null : mode
-            );
-
-            return Mono.just(response);
-        });
-    }
+        String normalized = CallsignHistoryCache.normalizeCallsign(callsign);
 
-    /**
-     * Try to extract operator name from QSO data.
-     * This is a simple heuristic - in real implementation, name might be a dedicated field.
-     */
-    private String extractNameFromQso(Qso qso) {
-        // For now, we don't have a dedicated name field in QSO
-        // Could parse from notes if it follows a pattern like "Name: John"
-        String notes = qso.getNotes();
-        if (notes != null && notes.toLowerCase().contains("name:")) {
-            int startIdx = notes.toLowerCase().indexOf("name:") + 5;
-            int endIdx = notes.indexOf('\n', startIdx);
-            if (endIdx < 0) endIdx = notes.length();
-            return notes.substring(startIdx, endIdx).trim();
-        }
-        return null;
+        return historyCache.find(userId, normalized)
+                .map(suggestion -> new CallsignSuggestionResponse(
+                        normalized,
+                        suggestion.lastKnownName(),
+                        suggestion.lastKnownQth(),
+                        suggestion.lastNotes(),
+                        suggestion.mostCommonBand(),
+                        suggestion.mostCommonMode()
+                ));
     }
 
     /**
-     * Truncate notes to a reasonable snippet length.
+     * Autocomplete: previously worked callsigns starting with the prefix,
+     * answered from the in-memory callsign history.
+     *
+     * @param userId  User ID
+     * @param prefix  Callsign prefix (case-insensitive)
+     * @param ranking Order of the matches
+     * @param limit   Maximum number of matches (1-50)
+     * @return Matches, best ranked first
      */
-    private String truncateNotes(String notes) {
-        if (notes == null || notes.isEmpty()) {
-            return null;
+    public Flux<CallsignMatchResponse> getPrefixMatches(UUID userId, String prefix, CallsignRanking ranking, int limit) {
+        String normalized = CallsignHistoryCache.normalizeCallsign(prefix);
+        if (normalized.isEmpty()) {
+            return Flux.error(new IllegalArgumentException("Prefix must not be blank"));
         }
-        if (notes.length() <= 100) {
-            return notes;
+        if (limit < 1 || limit > MAX_PREFIX_MATCHES) {
+            return Flux.error(new IllegalArgumentException("Limit must be between 1 and " + MAX_PREFIX_MATCHES));
         }
-        return notes.substring(0, 97) + "...";
+
+        return historyCache.findByPrefix(userId, normalized, ranking, limit)
+                .flatMapIterable(matches -> matches)
+                .map(match -> new CallsignMatchResponse(match.callsign(), match.qsoCount(), match.lastQsoDate()));
     }
 }
@@ -0,0 +1,128 @@
+package com.pl.shugo.gsolog.application.suggestions;
+
+import com.pl.shugo.gsolog.domain.enums.CallsignRanking;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * One user's worked callsigns, each with its running summary, in a radix tree for prefix search.
+ * New QSOs are added in place. An edited or deleted QSO marks its callsign stale instead:
+ * the next lookup reloads just that callsign, and the reload is kept only if no write for
+ * the callsign raced with it.
+ */
+final class CallsignHistory {
+
+    private static final Comparator<Map.Entry<String, CallsignSummary>> BY_RECENCY =
+            Comparator.<Map.Entry<String, CallsignSummary>, LocalDate>comparing(entry -> entry.getValue().lastDate())
+                    .thenComparing(entry -> entry.getValue().lastTime())
+                    .reversed()
+                    .thenComparing(Map.Entry::getKey);
+    private static final Comparator<Map.Entry<String, CallsignSummary>> BY_FREQUENCY =
+            Comparator.<Map.Entry<String, CallsignSummary>>comparingInt(entry -> entry.getValue().qsoCount())
+                    .reversed()
+                    .thenComparing(BY_RECENCY);
+
+    private final RadixTree<CallsignSummary> summaries = new RadixTree<>();
+    /**
+     * Stale callsigns with the number of writes seen since they went stale.
+     */
+    private final Map<String, Integer> stale = new HashMap<>();
+
+    /**
+     * Result of a lookup: the suggestion (null if never worked), or a stale marker
+     * with the write stamp to pass back to {@link #replace}.
+     */
+    record Lookup(CallsignSuggestion suggestion, boolean stale, int stamp) {
+    }
+
+    /**
+     * Add a QSO to its callsign's summary in place, unless that summary is stale.
+     */
+    synchronized void add(String callsign, LocalDate date, LocalTime time,
+                          String band, String mode, String qth, String notes) {
+        if (stale.containsKey(callsign)) {
+            // The pending reload may or may not see this QSO
+            invalidate(callsign);
+            return;
+        }
+        summaries.computeIfAbsent(callsign, CallsignSummary::new)
+                .add(date, time, band, mode, qth, notes);
+    }
+
+    /**
+     * A QSO with the callsign was edited or deleted: the summary has to be rebuilt.
+     */
+    synchronized void invalidate(String callsign) {
+        summaries.remove(callsign);
+        stale.merge(callsign, 1, Integer::sum);
+    }
+
+    synchronized Lookup find(String callsign) {
+        Integer stamp = stale.get(callsign);
+        if (stamp != null) {
+            return new Lookup(null, true, stamp);
+        }
+        CallsignSummary summary = summaries.get(callsign);
+        return new Lookup(summary != null ? summary.toSuggestion() : null, false, 0);
+    }
+
+    /**
+     * Best ranked callsigns starting with the prefix.
+     * Stale callsigns are left out, so callers reload them first (see {@link #staleWithPrefix}).
+     */
+    synchronized List<CallsignMatch> findByPrefix(String prefix, CallsignRanking ranking, int limit) {
+        Comparator<Map.Entry<String, CallsignSummary>> order =
+                ranking == CallsignRanking.FREQUENT ? BY_FREQUENCY : BY_RECENCY;
+        // Keep the best `limit` matches, with the worst of them at the head
+        PriorityQueue<Map.Entry<String, CallsignSummary>> best = new PriorityQueue<>(limit + 1, order.reversed());
+        summaries.forEachWithPrefix(prefix, (callsign, summary) -> {
+            best.add(Map.entry(callsign, summary));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        });
+
+        List<CallsignMatch> matches = new ArrayList<>(best.size());
+        best.stream()
+                .sorted(order)
+                .forEach(entry -> matches.add(new CallsignMatch(
+                        entry.getKey(), entry.getValue().qsoCount(), entry.getValue().lastDate())));
+        return matches;
+    }
+
+    synchronized List<String> staleWithPrefix(String prefix) {
+        return stale.keySet().stream()
+                .filter(callsign -> callsign.startsWith(prefix))
+                .toList();
+    }
+
+    /**
+     * Install a reloaded summary (null if the callsign is no longer in the log),
+     * unless the callsign was written to since the lookup that returned the stamp.
+     *
+     * @return true if installed
+     */
+    synchronized boolean replace(String callsign, CallsignSummary summary, int stamp) {
+        if (!stale.remove(callsign, stamp)) {
+            return false;
+        }
+        if (summary != null) {
+            summaries.put(callsign, summary);
+        }
+        return true;
+    }
+
+    /**
+     * Callsigns held, used as the cache weight.
+     */
+    synchronized int size() {
+        return summaries.size() + stale.size();
+    }
+}
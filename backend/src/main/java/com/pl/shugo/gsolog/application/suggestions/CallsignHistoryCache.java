@@ -0,0 +1,351 @@
+package com.pl.shugo.gsolog.application.suggestions;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import com.pl.shugo.gsolog.domain.enums.CallsignRanking;
+import com.pl.shugo.gsolog.domain.repository.QsoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory callsign histories that answer suggestions without a database round trip.
+ * A user's history is built from their log on first use and kept current by QSO writes
+ * (see {@link CallsignHistory}). Histories are evicted least recently used first once all
+ * of them together hold more than suggestions.history.max-callsigns callsigns, and when their
+ * user has been idle for suggestions.history.idle-timeout; a log with more distinct callsigns
+ * than that is not cached and is answered by a single query instead. Such a log is remembered
+ * as too large, so it is not streamed again on every lookup, and only re-checked after
+ * suggestions.history.too-large-recheck (or once its user has been idle).
+ */
+@Component
+public class CallsignHistoryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CallsignHistoryCache.class);
+
+    private final QsoRepository qsoRepository;
+    private final int maxCallsigns;
+    private final long idleTimeoutNanos;
+    private final long tooLargeRecheckNanos;
+    /**
+     * Access-ordered, so iteration starts at the least recently used user. Guarded by itself.
+     */
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public CallsignHistoryCache(QsoRepository qsoRepository,
+                                @Value("${suggestions.history.max-callsigns:50000}") int maxCallsigns,
+                                @Value("${suggestions.history.idle-timeout:30m}") Duration idleTimeout,
+                                @Value("${suggestions.history.too-large-recheck:1h}") Duration tooLargeRecheck) {
+        if (maxCallsigns < 1) {
+            throw new IllegalArgumentException("suggestions.history.max-callsigns must be positive");
+        }
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("suggestions.history.idle-timeout must be positive");
+        }
+        if (tooLargeRecheck.isNegative() || tooLargeRecheck.isZero()) {
+            throw new IllegalArgumentException("suggestions.history.too-large-recheck must be positive");
+        }
+        this.qsoRepository = qsoRepository;
+        this.maxCallsigns = maxCallsigns;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.tooLargeRecheckNanos = tooLargeRecheck.toNanos();
+    }
+
+    /**
+     * Normalize a callsign the way the stored their_callsign_norm column is.
+     */
+    public static String normalizeCallsign(String callsign) {
+        return callsign.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Suggestion for a callsign from the user's log.
+     *
+     * @param userId   User ID
+     * @param callsign Normalized callsign
+     * @return Suggestion, or empty if the user never worked the callsign
+     */
+    public Mono<CallsignSuggestion> find(UUID userId, String callsign) {
+        return history(userId)
+                .map(history -> lookup(userId, history, callsign))
+                .defaultIfEmpty(Mono.defer(() -> querySuggestion(userId, callsign)))
+                .flatMap(suggestion -> suggestion);
+    }
+
+    /**
+     * Previously worked callsigns starting with the prefix, best ranked first.
+     *
+     * @param userId   User ID
+     * @param prefix   Normalized, non-empty callsign prefix
+     * @param ranking  Order of the matches
+     * @param limit    Maximum number of matches
+     * @return Matches, empty if none
+     */
+    public Mono<List<CallsignMatch>> findByPrefix(UUID userId, String prefix, CallsignRanking ranking, int limit) {
+        return history(userId)
+                .flatMap(history -> Flux.fromIterable(history.staleWithPrefix(prefix))
+                        // Rebuild stale summaries first, so they are ranked with up-to-date counts
+                        .concatMap(callsign -> lookup(userId, history, callsign))
+                        .then(Mono.fromCallable(() -> history.findByPrefix(prefix, ranking, limit))))
+                .switchIfEmpty(Mono.defer(() -> queryMatches(userId, prefix, ranking, limit)));
+    }
+
+    /**
+     * Drop histories of users who neither looked anything up nor logged a QSO
+     * within the idle timeout.
+     *
+     * @return Number of histories dropped
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        synchronized (entries) {
+            Iterator<Map.Entry<UUID, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<UUID, Entry> entry = iterator.next();
+                if (now - entry.getValue().lastAccess > idleTimeoutNanos) {
+                    iterator.remove();
+                    evicted++;
+                    log.debug("Evicted idle callsign history of user {}", entry.getKey());
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * A QSO was created: add it to the user's history, if cached.
+     */
+    public void recordCreated(Qso qso) {
+        Entry entry = get(qso.getUserId());
+        if (entry == null) {
+            return;
+        }
+        String callsign = normalizeCallsign(qso.getTheirCallsign());
+        synchronized (entry) {
+            if (entry.isTooLarge()) {
+                return;
+            }
+            if (entry.history == null) {
+                entry.changedWhileLoading.add(callsign);
+            } else {
+                entry.history.add(callsign, qso.getQsoDate(), qso.getTimeOn(), qso.getBand(),
+                        qso.getMode().name(), qso.getQth(), qso.getNotes());
+            }
+        }
+        evict();
+    }
+
+    /**
+     * A QSO with the callsign was edited or deleted: its summary is rebuilt on next use.
+     */
+    public void recordChanged(UUID userId, String theirCallsign) {
+        Entry entry = get(userId);
+        if (entry == null) {
+            return;
+        }
+        String callsign = normalizeCallsign(theirCallsign);
+        synchronized (entry) {
+            if (entry.isTooLarge()) {
+                return;
+            }
+            if (entry.history == null) {
+                entry.changedWhileLoading.add(callsign);
+            } else {
+                entry.history.invalidate(callsign);
+            }
+        }
+    }
+
+    private Entry get(UUID userId) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                entry.lastAccess = System.nanoTime();
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * The user's history, loaded once and shared by concurrent callers.
+     * Empty if the log has too many callsigns to cache.
+     */
+    private Mono<CallsignHistory> history(UUID userId) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.isTooLarge()) {
+                if (entry.isTooLargeSince(now - tooLargeRecheckNanos)) {
+                    entry.lastAccess = now;
+                    return Mono.empty();
+                }
+                // Re-check whether the log has shrunk enough to cache
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry();
+                entry.ready = load(userId, entry).cache();
+                entries.put(userId, entry);
+            }
+            entry.lastAccess = now;
+            return entry.ready;
+        }
+    }
+
+    private Mono<CallsignHistory> load(UUID userId, Entry entry) {
+        return Mono.defer(() -> {
+            CallsignHistory history = new CallsignHistory();
+            return qsoRepository.findCallsignHistoryRows(userId)
+                    .doOnNext(row -> history.add((String) row.get("callsign"), (LocalDate) row.get("qso_date"),
+                            (LocalTime) row.get("time_on"), (String) row.get("band"), (String) row.get("mode"),
+                            (String) row.get("qth"), (String) row.get("notes")))
+                    .takeUntil(row -> history.size() > maxCallsigns)
+                    .then(Mono.fromCallable(() -> install(userId, entry, history)));
+        }).doOnError(e -> remove(userId, entry));
+    }
+
+    private CallsignHistory install(UUID userId, Entry entry, CallsignHistory history) {
+        if (history.size() > maxCallsigns) {
+            log.debug("Callsign history of user {} exceeds {} callsigns, not cached", userId, maxCallsigns);
+            // Kept as a marker, so lookups go straight to the database until the recheck
+            synchronized (entry) {
+                entry.changedWhileLoading.clear();
+                entry.tooLargeSince = System.nanoTime();
+            }
+            return null;
+        }
+        synchronized (entry) {
+            // The load may or may not have seen QSOs written meanwhile
+            entry.changedWhileLoading.forEach(history::invalidate);
+            entry.changedWhileLoading.clear();
+            entry.history = history;
+        }
+        evict();
+        return history;
+    }
+
+    /**
+     * Look a callsign up in a loaded history, rebuilding its summary if stale.
+     */
+    private Mono<CallsignSuggestion> lookup(UUID userId, CallsignHistory history, String callsign) {
+        CallsignHistory.Lookup lookup = history.find(callsign);
+        if (!lookup.stale()) {
+            return Mono.justOrEmpty(lookup.suggestion());
+        }
+        return qsoRepository.findCallsignHistoryRowsByCallsign(userId, callsign)
+                .reduceWith(CallsignSummary::new, (summary, row) -> {
+                    summary.add((LocalDate) row.get("qso_date"), (LocalTime) row.get("time_on"),
+                            (String) row.get("band"), (String) row.get("mode"),
+                            (String) row.get("qth"), (String) row.get("notes"));
+                    return summary;
+                })
+                .flatMap(summary -> {
+                    if (summary.isEmpty()) {
+                        history.replace(callsign, null, lookup.stamp());
+                        return Mono.empty();
+                    }
+                    CallsignSuggestion suggestion = summary.toSuggestion();
+                    history.replace(callsign, summary, lookup.stamp());
+                    return Mono.just(suggestion);
+                });
+    }
+
+    /**
+     * Answer from the database, for logs too large to cache.
+     */
+    private Mono<CallsignSuggestion> querySuggestion(UUID userId, String callsign) {
+        return qsoRepository.getCallsignSuggestion(userId, callsign)
+                .map(row -> new CallsignSuggestion(
+                        ((Number) row.get("qso_count")).intValue(),
+                        CallsignSummary.extractName((String) row.get("name_notes")),
+                        (String) row.get("qth"),
+                        CallsignSummary.truncateNotes((String) row.get("notes")),
+                        (String) row.get("band"),
+                        (String) row.get("mode")));
+    }
+
+    /**
+     * Prefix matches from the database, for logs too large to cache.
+     */
+    private Mono<List<CallsignMatch>> queryMatches(UUID userId, String prefix, CallsignRanking ranking, int limit) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return qsoRepository.findCallsignMatchesByPrefix(userId, pattern, ranking == CallsignRanking.FREQUENT, limit)
+                .map(row -> new CallsignMatch(
+                        (String) row.get("callsign"),
+                        ((Number) row.get("qso_count")).intValue(),
+                        (LocalDate) row.get("last_qso_date")))
+                .collectList();
+    }
+
+    private void remove(UUID userId, Entry entry) {
+        synchronized (entries) {
+            entries.remove(userId, entry);
+        }
+    }
+
+    /**
+     * Drop least recently used histories until the callsigns held fit the bound.
+     */
+    private void evict() {
+        synchronized (entries) {
+            long weight = 0;
+            for (Entry entry : entries.values()) {
+                weight += entry.weight();
+            }
+            Iterator<Map.Entry<UUID, Entry>> iterator = entries.entrySet().iterator();
+            while (weight > maxCallsigns && iterator.hasNext()) {
+                Map.Entry<UUID, Entry> eldest = iterator.next();
+                weight -= eldest.getValue().weight();
+                iterator.remove();
+                log.debug("Evicted callsign history of user {}", eldest.getKey());
+            }
+        }
+    }
+
+    private static final class Entry {
+        private Mono<CallsignHistory> ready;
+        /**
+         * System.nanoTime() of the last read or write. Guarded by the entries map.
+         */
+        private long lastAccess;
+        /**
+         * Null while loading. Guarded by the entry.
+         */
+        private CallsignHistory history;
+        private final Set<String> changedWhileLoading = new HashSet<>();
+        /**
+         * System.nanoTime() at which the log was found too large to cache, or null. Guarded by the entry.
+         */
+        private Long tooLargeSince;
+
+        synchronized boolean isTooLarge() {
+            return tooLargeSince != null;
+        }
+
+        /**
+         * Whether the log was found too large to cache after the given System.nanoTime().
+         */
+        synchronized boolean isTooLargeSince(long since) {
+            return tooLargeSince != null && tooLargeSince - since > 0;
+        }
+
+        synchronized int weight() {
+            return history != null ? history.size() : 0;
+        }
+    }
+}
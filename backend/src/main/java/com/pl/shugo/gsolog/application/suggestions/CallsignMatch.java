@@ -0,0 +1,13 @@
+package com.pl.shugo.gsolog.application.suggestions;
+
+import java.time.LocalDate;
+
+/**
+ * A worked callsign matching an autocomplete prefix.
+ *
+ * @param callsign    Normalized callsign
+ * @param qsoCount    QSOs with the callsign
+ * @param lastQsoDate Date of the most recent QSO
+ */
+public record CallsignMatch(String callsign, int qsoCount, LocalDate lastQsoDate) {
+}
@@ -0,0 +1,21 @@
+package com.pl.shugo.gsolog.application.suggestions;
+
+/**
+ * What a user's log says about a worked callsign.
+ *
+ * @param qsoCount       QSOs with the callsign
+ * @param lastKnownName  Name from the latest notes mentioning one
+ * @param lastKnownQth   QTH of the most recent QSO
+ * @param lastNotes      Notes snippet of the most recent QSO
+ * @param mostCommonBand Most used band (ties go to the most recently used)
+ * @param mostCommonMode Most used mode (ties go to the most recently used)
+ */
+public record CallsignSuggestion(
+        int qsoCount,
+        String lastKnownName,
+        String lastKnownQth,
+        String lastNotes,
+        String mostCommonBand,
+        String mostCommonMode
+) {
+}
@@ -0,0 +1,136 @@
+package com.pl.shugo.gsolog.application.suggestions;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Running summary of a user's QSOs with one callsign.
+ * QSOs can only be added; a removed or edited QSO invalidates the summary instead.
+ * Notes are kept as a snippet, so the size of a summary does not grow with the log.
+ * Not thread-safe: guarded by the owning {@link CallsignHistory}.
+ */
+final class CallsignSummary {
+
+    private static final int NOTES_SNIPPET_LENGTH = 100;
+
+    private int qsoCount;
+    private LocalDate lastDate;
+    private LocalTime lastTime;
+    private String lastQth;
+    private String lastNotes;
+    private LocalDate namedDate;
+    private LocalTime namedTime;
+    private String name;
+    private final Map<String, Usage> bands = new HashMap<>(4);
+    private final Map<String, Usage> modes = new HashMap<>(4);
+
+    /**
+     * Add a QSO to the summary.
+     */
+    void add(LocalDate date, LocalTime time, String band, String mode, String qth, String notes) {
+        qsoCount++;
+        if (lastDate == null || !isBefore(date, time, lastDate, lastTime)) {
+            lastDate = date;
+            lastTime = time;
+            lastQth = qth;
+            lastNotes = truncateNotes(notes);
+        }
+        String qsoName = extractName(notes);
+        if (qsoName != null && (namedDate == null || !isBefore(date, time, namedDate, namedTime))) {
+            namedDate = date;
+            namedTime = time;
+            name = qsoName;
+        }
+        bands.computeIfAbsent(band, key -> new Usage()).add(date);
+        modes.computeIfAbsent(mode, key -> new Usage()).add(date);
+    }
+
+    int qsoCount() {
+        return qsoCount;
+    }
+
+    LocalDate lastDate() {
+        return lastDate;
+    }
+
+    LocalTime lastTime() {
+        return lastTime;
+    }
+
+    boolean isEmpty() {
+        return qsoCount == 0;
+    }
+
+    /**
+     * Immutable view of the summary as a suggestion.
+     */
+    CallsignSuggestion toSuggestion() {
+        return new CallsignSuggestion(qsoCount, name, lastQth, lastNotes, mostUsed(bands), mostUsed(modes));
+    }
+
+    /**
+     * Try to extract operator name from QSO notes.
+     * This is a simple heuristic - in real implementation, name might be a dedicated field.
+     */
+    static String extractName(String notes) {
+        // For now, we don't have a dedicated name field in QSO
+        // Could parse from notes if it follows a pattern like "Name: John"
+        if (notes != null && notes.toLowerCase(Locale.ROOT).contains("name:")) {
+            int startIdx = notes.toLowerCase(Locale.ROOT).indexOf("name:") + 5;
+            int endIdx = notes.indexOf('\n', startIdx);
+            if (endIdx < 0) endIdx = notes.length();
+            return notes.substring(startIdx, endIdx).trim();
+        }
+        return null;
+    }
+
+    /**
+     * Truncate notes to a reasonable snippet length.
+     */
+    static String truncateNotes(String notes) {
+        if (notes == null || notes.isEmpty()) {
+            return null;
+        }
+        if (notes.length() <= NOTES_SNIPPET_LENGTH) {
+            return notes;
+        }
+        return notes.substring(0, NOTES_SNIPPET_LENGTH - 3) + "...";
+    }
+
+    /**
+     * Most used value; ties go to the most recently used, as in the suggestion query.
+     */
+    private static String mostUsed(Map<String, Usage> usages) {
+        String best = null;
+        Usage bestUsage = null;
+        for (Map.Entry<String, Usage> entry : usages.entrySet()) {
+            Usage usage = entry.getValue();
+            if (bestUsage == null || usage.count > bestUsage.count
+                    || (usage.count == bestUsage.count && usage.lastDate.isAfter(bestUsage.lastDate))) {
+                best = entry.getKey();
+                bestUsage = usage;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isBefore(LocalDate date, LocalTime time, LocalDate otherDate, LocalTime otherTime) {
+        int byDate = date.compareTo(otherDate);
+        return byDate < 0 || (byDate == 0 && time.isBefore(otherTime));
+    }
+
+    private static final class Usage {
+        private int count;
+        private LocalDate lastDate;
+
+        void add(LocalDate date) {
+            count++;
+            if (lastDate == null || date.isAfter(lastDate)) {
+                lastDate = date;
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.pl.shugo.gsolog.application.suggestions;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Path-compressed trie from strings to values.
+ * Edges carry whole key fragments, so a log of callsigns sharing prefixes (SP1, SP9, ...)
+ * needs about one node per callsign. Children are kept in a small array sorted by first
+ * character. Not thread-safe.
+ *
+ * @param <V> Value type
+ */
+final class RadixTree<V> {
+
+    private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+
+    private final Node<V> root = new Node<>("");
+    private int size;
+
+    V get(String key) {
+        Node<V> node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            Node<V> child = node.child(key.charAt(offset));
+            if (child == null || !key.startsWith(child.label, offset)) {
+                return null;
+            }
+            offset += child.label.length();
+            node = child;
+        }
+        return node.value;
+    }
+
+    /**
+     * Set the value for the key.
+     *
+     * @return The previous value, or null
+     */
+    V put(String key, V value) {
+        Node<V> node = insert(key);
+        V previous = node.value;
+        node.value = value;
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    /**
+     * Value for the key, adding the supplied one if absent.
+     */
+    V computeIfAbsent(String key, Supplier<V> supplier) {
+        Node<V> node = insert(key);
+        if (node.value == null) {
+            node.value = supplier.get();
+            size++;
+        }
+        return node.value;
+    }
+
+    V remove(String key) {
+        Deque<Node<V>> path = new ArrayDeque<>();
+        Node<V> node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            Node<V> child = node.child(key.charAt(offset));
+            if (child == null || !key.startsWith(child.label, offset)) {
+                return null;
+            }
+            path.push(node);
+            offset += child.label.length();
+            node = child;
+        }
+        V removed = node.value;
+        if (removed == null) {
+            return null;
+        }
+        node.value = null;
+        size--;
+
+        // Drop the emptied node, then merge whichever node is left with a single child
+        Node<V> parent = path.isEmpty() ? null : path.pop();
+        if (parent != null && node.children.length == 0) {
+            parent.removeChild(node);
+            node = parent;
+            parent = path.isEmpty() ? null : path.pop();
+        }
+        if (parent != null && node.value == null && node.children.length == 1) {
+            Node<V> only = node.children[0];
+            only.label = node.label + only.label;
+            parent.children[parent.childIndex(node.label.charAt(0))] = only;
+        }
+        return removed;
+    }
+
+    /**
+     * Visit every key starting with the prefix, with its value.
+     */
+    void forEachWithPrefix(String prefix, BiConsumer<String, V> action) {
+        Node<V> node = root;
+        StringBuilder key = new StringBuilder(16);
+        int offset = 0;
+        while (offset < prefix.length()) {
+            Node<V> child = node.child(prefix.charAt(offset));
+            if (child == null) {
+                return;
+            }
+            int common = commonPrefixLength(child.label, prefix, offset);
+            if (common < child.label.length() && offset + common < prefix.length()) {
+                return;
+            }
+            key.append(child.label);
+            offset += child.label.length();
+            node = child;
+        }
+        visit(node, key, action);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Node for the key, adding it (without a value) if absent.
+     */
+    private Node<V> insert(String key) {
+        Node<V> node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            int index = node.childIndex(key.charAt(offset));
+            if (index < 0) {
+                Node<V> leaf = new Node<>(key.substring(offset));
+                node.insertChild(-index - 1, leaf);
+                return leaf;
+            }
+            Node<V> child = node.children[index];
+            int common = commonPrefixLength(child.label, key, offset);
+            if (common < child.label.length()) {
+                // Split the edge where the key leaves it
+                Node<V> split = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = newChildren(child);
+                node.children[index] = split;
+                child = split;
+            }
+            offset += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private void visit(Node<V> node, StringBuilder key, BiConsumer<String, V> action) {
+        if (node.value != null) {
+            action.accept(key.toString(), node.value);
+        }
+        for (Node<V> child : node.children) {
+            int length = key.length();
+            key.append(child.label);
+            visit(child, key, action);
+            key.setLength(length);
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] newChildren(Node<V> child) {
+        Node<V>[] children = (Node<V>[]) new Node<?>[1];
+        children[0] = child;
+        return children;
+    }
+
+    private static final class Node<V> {
+        private String label;
+        private V value;
+        @SuppressWarnings("unchecked")
+        private Node<V>[] children = (Node<V>[]) NO_CHILDREN;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node<V> child(char first) {
+            int index = childIndex(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        /**
+         * Index of the child whose label starts with the character, or -(insertion point) - 1.
+         */
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midFirst = children[mid].label.charAt(0);
+                if (midFirst < first) {
+                    low = mid + 1;
+                } else if (midFirst > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insertChild(int index, Node<V> child) {
+            Node<V>[] grown = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            grown[index] = child;
+            children = grown;
+        }
+
+        void removeChild(Node<V> child) {
+            int index = childIndex(child.label.charAt(0));
+            Node<V>[] shrunk = Arrays.copyOf(children, children.length - 1);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+    }
+}
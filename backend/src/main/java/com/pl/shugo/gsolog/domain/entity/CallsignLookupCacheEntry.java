@@ -0,0 +1,47 @@
+package com.pl.shugo.gsolog.domain.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * Persisted callsign lookup result, the second tier behind the in-memory lookup cache.
+ */
+@Table("callsign_lookup_cache")
+public class CallsignLookupCacheEntry {
+
+    @Id
+    private String callsign;  // normalized (upper-case)
+    private String payload;   // lookup result as JSON, null if the callsign is unknown
+    private Instant fetchedAt;
+
+    public CallsignLookupCacheEntry() {
+    }
+
+    // Getters and setters
+
+    public String getCallsign() {
+        return callsign;
+    }
+
+    public void setCallsign(String callsign) {
+        this.callsign = callsign;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(Instant fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+}
@@ -0,0 +1,194 @@
+package com.pl.shugo.gsolog.domain.entity;
+
+import com.pl.shugo.gsolog.domain.enums.ExportJobStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Asynchronous export job entity.
+ * Tracks an export rendered in the background to the local file store.
+ */
+@Table("export_job")
+public class ExportJob {
+
+    @Id
+    private UUID id;
+    private UUID userId;
+    private String format;       // export format id, e.g. "adif"
+    private String compression;  // "none" or "gzip"
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private ExportJobStatus status;
+    private String sourceFingerprint;
+    private String fileName;
+    private Long sizeBytes;
+    private String contentHash;  // SHA-256 of the stored file, hex
+    private String errorMessage;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant heartbeatAt;  // refreshed while an instance renders the job
+    private Instant completedAt;
+    private Instant expiresAt;
+
+    public ExportJob() {
+    }
+
+    /**
+     * Factory method to create a new pending export job.
+     */
+    public static ExportJob create(UUID userId, String format, String compression,
+                                   LocalDate fromDate, LocalDate toDate, String sourceFingerprint) {
+        ExportJob job = new ExportJob();
+        job.userId = userId;
+        job.format = format;
+        job.compression = compression;
+        job.fromDate = fromDate;
+        job.toDate = toDate;
+        job.status = ExportJobStatus.PENDING;
+        job.sourceFingerprint = sourceFingerprint;
+        job.createdAt = Instant.now();
+        return job;
+    }
+
+    // Getters and setters
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    public ExportJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ExportJobStatus status) {
+        this.status = status;
+    }
+
+    public String getSourceFingerprint() {
+        return sourceFingerprint;
+    }
+
+    public void setSourceFingerprint(String sourceFingerprint) {
+        this.sourceFingerprint = sourceFingerprint;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(Instant heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
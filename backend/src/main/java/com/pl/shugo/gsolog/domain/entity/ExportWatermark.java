@@ -0,0 +1,67 @@
+package com.pl.shugo.gsolog.domain.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Incremental export watermark entity.
+ * QSOs updated after the watermark have not yet been exported to the target.
+ */
+@Table("export_watermark")
+public class ExportWatermark {
+
+    @Id
+    private UUID id;
+    private UUID userId;
+    private String target;  // user-chosen upload destination, e.g. "lotw"
+    private Instant watermark;
+    private Instant updatedAt;
+
+    public ExportWatermark() {
+    }
+
+    // Getters and setters
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public Instant getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(Instant watermark) {
+        this.watermark = watermark;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
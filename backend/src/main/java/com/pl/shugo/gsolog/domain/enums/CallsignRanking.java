@@ -0,0 +1,28 @@
+package com.pl.shugo.gsolog.domain.enums;
+
+/**
+ * Order of callsign autocomplete matches.
+ */
+public enum CallsignRanking {
+    RECENT("recent"),
+    FREQUENT("frequent");
+
+    private final String value;
+
+    CallsignRanking(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public static CallsignRanking fromValue(String value) {
+        for (CallsignRanking ranking : values()) {
+            if (ranking.value.equalsIgnoreCase(value)) {
+                return ranking;
+            }
+        }
+        throw new IllegalArgumentException("Unknown ranking: " + value + ". Must be one of: recent, frequent");
+    }
+}
@@ -0,0 +1,11 @@
+package com.pl.shugo.gsolog.domain.enums;
+
+/**
+ * Lifecycle of an asynchronous export job.
+ */
+public enum ExportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
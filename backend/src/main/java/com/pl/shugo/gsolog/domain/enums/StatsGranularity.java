@@ -0,0 +1,38 @@
+package com.pl.shugo.gsolog.domain.enums;
+
+/**
+ * Time bucket size for statistics over time.
+ * Values match PostgreSQL date_trunc field names.
+ */
+public enum StatsGranularity {
+    DAY("day"),
+    WEEK("week"),
+    MONTH("month"),
+    YEAR("year");
+
+    private final String value;
+
+    StatsGranularity(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Whether buckets are whole months, so they can be served from monthly rollups.
+     */
+    public boolean isMonthAligned() {
+        return this == MONTH || this == YEAR;
+    }
+
+    public static StatsGranularity fromValue(String value) {
+        for (StatsGranularity granularity : values()) {
+            if (granularity.value.equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("Unknown granularity: " + value + ". Must be one of: day, week, month, year");
+    }
+}
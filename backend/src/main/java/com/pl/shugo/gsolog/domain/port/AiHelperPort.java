@@ -2,6 +2,7 @@ package com.pl.shugo.gsolog.domain.port;
 
 import com.pl.shugo.gsolog.api.dto.QsoDescriptionRequest;
 import com.pl.shugo.gsolog.api.dto.StatsResponse;
+import com.pl.shugo.gsolog.api.dto.UniqueStationsResponse;
 import reactor.core.publisher.Mono;
 
 /**
@@ -21,9 +22,10 @@ public interface AiHelperPort {
     /**
      * Generate a narrative report from statistics.
      *
-     * @param stats    Statistics data
-     * @param language Language code ("PL" or "EN")
+     * @param stats          Statistics data
+     * @param uniqueStations Approximate unique stations worked, or null if not estimated for the period
+     * @param language       Language code ("PL" or "EN")
      * @return Generated report text
      */
-    Mono<String> generatePeriodReport(StatsResponse stats, String language);
+    Mono<String> generatePeriodReport(StatsResponse stats, UniqueStationsResponse uniqueStations, String language);
 }
@@ -3,6 +3,8 @@ package com.pl.shugo.gsolog.domain.port;
 import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+
 /**
  * Port for callsign lookup from external services.
  * Implementations can be HamQTH, QRZ, or mock adapters.
@@ -16,4 +18,15 @@ public interface CallsignLookupPort {
      * @return Mono of lookup response, or empty if not found
      */
     Mono<CallsignLookupResponse> lookup(String callsign);
+
+    /**
+     * Look up callsign information from cache only, without calling the external service.
+     *
+     * @param callsign Callsign to look up
+     * @return Mono of the cached result (an empty Optional if the callsign is cached as unknown),
+     *         or empty if the callsign is not cached
+     */
+    default Mono<Optional<CallsignLookupResponse>> lookupCached(String callsign) {
+        return Mono.empty();
+    }
 }
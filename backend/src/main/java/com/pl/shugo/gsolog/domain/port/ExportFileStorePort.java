@@ -0,0 +1,44 @@
+package com.pl.shugo.gsolog.domain.port;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Port for storing rendered export files.
+ * Implementations can be a local directory or object storage.
+ */
+public interface ExportFileStorePort {
+
+    /**
+     * Store an export file, replacing any previous file for the job.
+     * The file only becomes visible once fully written.
+     *
+     * @param jobId   Export job ID
+     * @param content File content (buffers are released)
+     * @return Size and SHA-256 of the stored file
+     */
+    Mono<StoredFile> store(UUID jobId, Flux<DataBuffer> content);
+
+    /**
+     * Open a stored export file.
+     *
+     * @param jobId Export job ID
+     * @return Mono of the file, or empty if it does not exist
+     */
+    Mono<Resource> open(UUID jobId);
+
+    /**
+     * Delete a stored export file, if present.
+     */
+    Mono<Void> delete(UUID jobId);
+
+    /**
+     * A stored file's size in bytes and hex SHA-256 content hash.
+     */
+    record StoredFile(long sizeBytes, String contentHash) {
+    }
+}
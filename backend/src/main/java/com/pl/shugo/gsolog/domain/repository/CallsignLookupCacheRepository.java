@@ -0,0 +1,59 @@
+package com.pl.shugo.gsolog.domain.repository;
+
+import com.pl.shugo.gsolog.domain.entity.CallsignLookupCacheEntry;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Persisted callsign lookup cache repository interface.
+ */
+@Repository
+public interface CallsignLookupCacheRepository extends R2dbcRepository<CallsignLookupCacheEntry, String> {
+
+    /**
+     * Find entries for several callsigns at once, skipping those fetched before the cutoff.
+     */
+    @Query("""
+        SELECT callsign, payload::text AS payload, fetched_at
+        FROM callsign_lookup_cache
+        WHERE callsign IN (:callsigns)
+        AND fetched_at > :cutoff
+        """)
+    Flux<CallsignLookupCacheEntry> findFetchedAfter(
+            @Param("callsigns") Collection<String> callsigns,
+            @Param("cutoff") Instant cutoff
+    );
+
+    /**
+     * Store a lookup result, never replacing a more recently fetched one.
+     */
+    @Modifying
+    @Query("""
+        INSERT INTO callsign_lookup_cache (callsign, payload, fetched_at)
+        VALUES (:callsign, CAST(:payload AS JSONB), :fetchedAt)
+        ON CONFLICT (callsign) DO UPDATE
+        SET payload = EXCLUDED.payload,
+            fetched_at = EXCLUDED.fetched_at
+        WHERE callsign_lookup_cache.fetched_at < EXCLUDED.fetched_at
+        """)
+    Mono<Integer> upsert(
+            @Param("callsign") String callsign,
+            @Param("payload") String payload,
+            @Param("fetchedAt") Instant fetchedAt
+    );
+
+    /**
+     * Delete entries fetched before the cutoff.
+     */
+    @Modifying
+    @Query("DELETE FROM callsign_lookup_cache WHERE fetched_at < :cutoff")
+    Mono<Integer> deleteFetchedBefore(@Param("cutoff") Instant cutoff);
+}
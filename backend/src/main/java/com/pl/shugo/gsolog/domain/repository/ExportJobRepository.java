@@ -0,0 +1,106 @@
+package com.pl.shugo.gsolog.domain.repository;
+
+import com.pl.shugo.gsolog.domain.entity.ExportJob;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Export job repository interface.
+ */
+@Repository
+public interface ExportJobRepository extends R2dbcRepository<ExportJob, UUID> {
+
+    /**
+     * Find all export jobs for a user, newest first.
+     */
+    Flux<ExportJob> findByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    /**
+     * Find job by ID and user ID (for ownership enforcement).
+     */
+    Mono<ExportJob> findByIdAndUserId(UUID id, UUID userId);
+
+    /**
+     * Find the newest live job with the same parameters over the same source QSOs,
+     * whose artifact (finished or in progress) can be reused instead of rendering again.
+     */
+    @Query("""
+        SELECT * FROM export_job
+        WHERE user_id = :userId
+        AND format = :format
+        AND compression = :compression
+        AND from_date IS NOT DISTINCT FROM :from
+        AND to_date IS NOT DISTINCT FROM :to
+        AND source_fingerprint = :fingerprint
+        AND status IN ('PENDING', 'RUNNING', 'COMPLETED')
+        ORDER BY created_at DESC
+        LIMIT 1
+        """)
+    Mono<ExportJob> findReusable(
+            @Param("userId") UUID userId,
+            @Param("format") String format,
+            @Param("compression") String compression,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("fingerprint") String fingerprint
+    );
+
+    /**
+     * Claim up to limit pending jobs, oldest first, marking them running with a fresh heartbeat.
+     * SKIP LOCKED lets several instances poll the same table without taking the same job.
+     */
+    @Query("""
+        UPDATE export_job SET status = 'RUNNING', started_at = NOW(), heartbeat_at = NOW()
+        WHERE id IN (
+            SELECT id FROM export_job
+            WHERE status = 'PENDING'
+            ORDER BY created_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING *
+        """)
+    Flux<ExportJob> claimPending(@Param("limit") int limit);
+
+    /**
+     * Refresh the heartbeat of running jobs this instance is rendering.
+     */
+    @Modifying
+    @Query("UPDATE export_job SET heartbeat_at = NOW() WHERE id IN (:ids) AND status = 'RUNNING'")
+    Mono<Integer> touchRunning(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Put running jobs whose heartbeat is older than the lease back in the queue:
+     * the instance rendering them has stopped. Uses the database clock, as the heartbeat does.
+     */
+    @Modifying
+    @Query("""
+        UPDATE export_job SET status = 'PENDING', started_at = NULL, heartbeat_at = NULL
+        WHERE status = 'RUNNING'
+        AND (heartbeat_at IS NULL OR heartbeat_at < NOW() - :leaseSeconds * INTERVAL '1 second')
+        """)
+    Mono<Integer> requeueOrphaned(@Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * Push back the expiry of a reused job.
+     */
+    @Modifying
+    @Query("UPDATE export_job SET expires_at = :expiresAt WHERE id = :id AND expires_at < :expiresAt")
+    Mono<Integer> extendExpiry(@Param("id") UUID id, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Find finished or failed jobs past their retention.
+     */
+    @Query("SELECT * FROM export_job WHERE expires_at < :now")
+    Flux<ExportJob> findExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,60 @@
+package com.pl.shugo.gsolog.domain.repository;
+
+import com.pl.shugo.gsolog.domain.entity.ExportWatermark;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Incremental export watermark repository interface.
+ */
+@Repository
+public interface ExportWatermarkRepository extends R2dbcRepository<ExportWatermark, UUID> {
+
+    /**
+     * Find all watermarks for a user.
+     */
+    Flux<ExportWatermark> findByUserIdOrderByTarget(UUID userId);
+
+    /**
+     * Find the watermark for a user's export target.
+     */
+    Mono<ExportWatermark> findByUserIdAndTarget(UUID userId, String target);
+
+    /**
+     * Current database time, the clock QSO created_at and updated_at are stamped with.
+     */
+    @Query("SELECT NOW()")
+    Mono<Instant> currentTime();
+
+    /**
+     * Record a watermark, never moving an existing one backwards.
+     */
+    @Modifying
+    @Query("""
+        INSERT INTO export_watermark (user_id, target, watermark)
+        VALUES (:userId, :target, :watermark)
+        ON CONFLICT (user_id, target) DO UPDATE
+        SET watermark = GREATEST(export_watermark.watermark, EXCLUDED.watermark),
+            updated_at = NOW()
+        """)
+    Mono<Integer> advance(
+            @Param("userId") UUID userId,
+            @Param("target") String target,
+            @Param("watermark") Instant watermark
+    );
+
+    /**
+     * Delete a watermark, so the next incremental export includes every QSO.
+     */
+    @Modifying
+    @Query("DELETE FROM export_watermark WHERE user_id = :userId AND target = :target")
+    Mono<Integer> deleteByUserIdAndTarget(@Param("userId") UUID userId, @Param("target") String target);
+}
@@ -2,6 +2,7 @@ package com.pl.shugo.gsolog.domain.repository;
 
 import com.pl.shugo.gsolog.domain.entity.Qso;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.data.repository.query.Param;
@@ -9,7 +10,9 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.UUID;
 
 /**
@@ -135,6 +138,58 @@ public interface QsoRepository extends R2dbcRepository<Qso, UUID> {
             @Param("offset") long offset
     );
 
+    /**
+     * Fingerprint of the QSOs an export over this range would contain: the row count,
+     * the latest updated_at, and the sum of a 64-bit hash of every (id, updated_at) pair,
+     * so any insert, update, or delete in the range changes it.
+     * Plain aggregates in one pass, with no sort and no string built over the whole range.
+     */
+    @Query("""
+        SELECT COUNT(*)
+            || ':' || COALESCE(floor(extract(epoch FROM MAX(updated_at)) * 1000000)::bigint, 0)
+            || ':' || COALESCE(SUM(hashtextextended(id::text || '@' || updated_at::text, 0)), 0)
+        FROM qso
+        WHERE user_id = :userId
+        AND (:from IS NULL OR qso_date >= :from)
+        AND (:to IS NULL OR qso_date <= :to)
+        """)
+    Mono<String> getExportFingerprint(
+            @Param("userId") UUID userId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /**
+     * Find the next chunk of QSOs for export using a keyset cursor.
+     * Ordered by (qso_date, time_on, id) ascending; pass a null cursor for the first chunk.
+     * Only QSOs created up to asOf are included, so rows added mid-export don't shift the output.
+     * Updates and deletes are not fenced: a row whose (qso_date, time_on) is edited across the
+     * cursor between chunks is returned twice or not at all, and a deleted row is simply gone.
+     * With a since watermark, only QSOs updated in (since, asOf] are included (incremental export).
+     */
+    @Query("""
+        SELECT * FROM qso
+        WHERE user_id = :userId
+        AND (:from IS NULL OR qso_date >= :from)
+        AND (:to IS NULL OR qso_date <= :to)
+        AND created_at <= :asOf
+        AND (:since IS NULL OR (updated_at > :since AND updated_at <= :asOf))
+        AND (:afterDate IS NULL OR (qso_date, time_on, id) > (:afterDate, :afterTime, :afterId))
+        ORDER BY qso_date, time_on, id
+        LIMIT :limit
+        """)
+    Flux<Qso> findExportChunk(
+            @Param("userId") UUID userId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("asOf") Instant asOf,
+            @Param("since") Instant since,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterTime") LocalTime afterTime,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
     // Statistics queries
 
     /**
@@ -206,6 +261,81 @@ public interface QsoRepository extends R2dbcRepository<Qso, UUID> {
             @Param("to") LocalDate to
     );
 
+    /**
+     * Get QSO counts by time bucket (week, month, year) from the QSO table.
+     * Returns bucket (bucket start date), count_all, count_confirmed.
+     */
+    @Query("""
+        SELECT
+            date_trunc(:unit, qso_date::timestamp)::date as bucket,
+            COUNT(*) as count_all,
+            COUNT(CASE WHEN qsl_status = 'CONFIRMED' OR lotw_status = 'CONFIRMED' OR eqsl_status = 'CONFIRMED'
+                       THEN 1 END) as count_confirmed
+        FROM qso
+        WHERE user_id = :userId
+        AND (:from IS NULL OR qso_date >= :from)
+        AND (:to IS NULL OR qso_date <= :to)
+        GROUP BY 1
+        ORDER BY 1
+        """)
+    Flux<java.util.Map<String, Object>> getStatsByBucket(
+            @Param("userId") UUID userId,
+            @Param("unit") String unit,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /**
+     * Get QSO counts by month or year from the pre-aggregated monthly rollups.
+     * Only exact for date ranges aligned to whole months.
+     * Returns bucket (bucket start date), count_all, count_confirmed.
+     */
+    @Query("""
+        SELECT
+            date_trunc(:unit, month::timestamp)::date as bucket,
+            SUM(count_all) as count_all,
+            SUM(count_confirmed) as count_confirmed
+        FROM qso_stats_monthly
+        WHERE user_id = :userId
+        AND (:from IS NULL OR month >= :from)
+        AND (:to IS NULL OR month <= :to)
+        GROUP BY 1
+        ORDER BY 1
+        """)
+    Flux<java.util.Map<String, Object>> getStatsByMonthlyRollup(
+            @Param("userId") UUID userId,
+            @Param("unit") String unit,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /**
+     * Get merged callsign sketches (HyperLogLog registers) for a user, in total and by band,
+     * mode, and month. Registers are merged (maximum rank per register) and summarized in the
+     * database, so each row only carries what the estimate needs.
+     * Filters by whole months: a month is included if its first day lies in the range.
+     * Returns month, band, mode (all null for the total row, one set for the others),
+     * filled (non-empty registers), harmonic (sum of 2^-rank over them).
+     */
+    @Query("""
+        SELECT month, band, mode, COUNT(*) AS filled, SUM(power(2::float8, -rank)) AS harmonic
+        FROM (
+            SELECT month, band, mode, register_index, MAX(rank) AS rank
+            FROM qso_callsign_sketch_register
+            WHERE user_id = :userId
+            AND (:from IS NULL OR month >= :from)
+            AND (:to IS NULL OR month <= :to)
+            GROUP BY GROUPING SETS (
+                (register_index), (band, register_index), (mode, register_index), (month, register_index))
+        ) merged
+        GROUP BY month, band, mode
+        """)
+    Flux<java.util.Map<String, Object>> getCallsignSketchSummaries(
+            @Param("userId") UUID userId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
     /**
      * Get total QSO counts.
      * Returns count_all, count_confirmed.
@@ -227,51 +357,158 @@ public interface QsoRepository extends R2dbcRepository<Qso, UUID> {
     );
 
     /**
-     * Find most recent QSO for a callsign (for suggestions).
+     * Get callsign suggestions in one pass over the user's QSOs with the callsign:
+     * QTH and notes of the most recent QSO, the latest notes mentioning a name,
+     * and the most common band and mode (ties go to the most recently used).
+     * Returns no row if the callsign was never worked.
+     *
+     * @param callsign Normalized callsign (trimmed, upper-case), matched on their_callsign_norm
      */
     @Query("""
-        SELECT * FROM qso
-        WHERE user_id = :userId
-        AND UPPER(their_callsign) = UPPER(:callsign)
-        ORDER BY qso_date DESC, time_on DESC
-        LIMIT 1
+        WITH matches AS (
+            SELECT qso_date, time_on, band, mode, qth, notes
+            FROM qso
+            WHERE user_id = :userId
+            AND their_callsign_norm = :callsign
+        ),
+        recent AS (
+            SELECT qth, notes
+            FROM matches
+            ORDER BY qso_date DESC, time_on DESC
+            LIMIT 1
+        ),
+        named AS (
+            SELECT notes
+            FROM matches
+            WHERE notes ILIKE '%name:%'
+            ORDER BY qso_date DESC, time_on DESC
+            LIMIT 1
+        ),
+        top_band AS (
+            SELECT band
+            FROM matches
+            GROUP BY band
+            ORDER BY COUNT(*) DESC, MAX(qso_date) DESC
+            LIMIT 1
+        ),
+        top_mode AS (
+            SELECT mode
+            FROM matches
+            GROUP BY mode
+            ORDER BY COUNT(*) DESC, MAX(qso_date) DESC
+            LIMIT 1
+        )
+        SELECT (SELECT COUNT(*) FROM matches) AS qso_count,
+            recent.qth, recent.notes, named.notes AS name_notes, top_band.band, top_mode.mode
+        FROM recent
+        CROSS JOIN top_band
+        CROSS JOIN top_mode
+        LEFT JOIN named ON TRUE
         """)
-    Mono<Qso> findMostRecentByCallsign(
+    Mono<java.util.Map<String, Object>> getCallsignSuggestion(
             @Param("userId") UUID userId,
             @Param("callsign") String callsign
     );
 
     /**
-     * Get most common band for a callsign (for suggestions).
+     * Stream the fields of a user's QSOs that callsign history summaries are built from.
      */
     @Query("""
-        SELECT band, COUNT(*) as count
+        SELECT their_callsign_norm AS callsign, qso_date, time_on, band, mode, qth, notes
         FROM qso
         WHERE user_id = :userId
-        AND UPPER(their_callsign) = UPPER(:callsign)
-        GROUP BY band
-        ORDER BY count DESC
-        LIMIT 1
         """)
-    Mono<java.util.Map<String, Object>> getMostCommonBandForCallsign(
+    Flux<java.util.Map<String, Object>> findCallsignHistoryRows(@Param("userId") UUID userId);
+
+    /**
+     * Stream the callsign history fields of a user's QSOs with one callsign.
+     *
+     * @param callsign Normalized callsign (trimmed, upper-case), matched on their_callsign_norm
+     */
+    @Query("""
+        SELECT their_callsign_norm AS callsign, qso_date, time_on, band, mode, qth, notes
+        FROM qso
+        WHERE user_id = :userId
+        AND their_callsign_norm = :callsign
+        """)
+    Flux<java.util.Map<String, Object>> findCallsignHistoryRowsByCallsign(
             @Param("userId") UUID userId,
             @Param("callsign") String callsign
     );
 
     /**
-     * Get most common mode for a callsign (for suggestions).
+     * Worked callsigns starting with a prefix, with QSO count and last QSO date.
+     * Ordered by QSO count first if frequent, then by most recent QSO.
+     *
+     * @param pattern  LIKE pattern on their_callsign_norm: escaped normalized prefix followed by %
+     * @param frequent Rank by QSO count instead of recency
      */
     @Query("""
-        SELECT mode, COUNT(*) as count
+        SELECT their_callsign_norm AS callsign,
+               COUNT(*) AS qso_count,
+               MAX(qso_date) AS last_qso_date
         FROM qso
         WHERE user_id = :userId
-        AND UPPER(their_callsign) = UPPER(:callsign)
-        GROUP BY mode
-        ORDER BY count DESC
-        LIMIT 1
+        AND their_callsign_norm LIKE :pattern
+        GROUP BY their_callsign_norm
+        ORDER BY CASE WHEN :frequent THEN COUNT(*) END DESC NULLS LAST,
+                 MAX(qso_date + time_on) DESC,
+                 their_callsign_norm
+        LIMIT :limit
         """)
-    Mono<java.util.Map<String, Object>> getMostCommonModeForCallsign(
+    Flux<java.util.Map<String, Object>> findCallsignMatchesByPrefix(
             @Param("userId") UUID userId,
-            @Param("callsign") String callsign
+            @Param("pattern") String pattern,
+            @Param("frequent") boolean frequent,
+            @Param("limit") int limit
     );
+
+    // Admin statistics queries (system-wide, served from materialized views)
+
+    /**
+     * Get system-wide QSO counts by band.
+     * Returns band, count_all, count_confirmed.
+     */
+    @Query("SELECT band, count_all, count_confirmed FROM mv_admin_stats_by_band ORDER BY band")
+    Flux<java.util.Map<String, Object>> getAdminStatsByBand();
+
+    /**
+     * Get system-wide QSO counts by mode.
+     * Returns mode, count_all, count_confirmed.
+     */
+    @Query("SELECT mode, count_all, count_confirmed FROM mv_admin_stats_by_mode ORDER BY mode")
+    Flux<java.util.Map<String, Object>> getAdminStatsByMode();
+
+    /**
+     * Get system-wide QSO counts by day.
+     * Returns qso_date, count_all, count_confirmed.
+     */
+    @Query("SELECT qso_date, count_all, count_confirmed FROM mv_admin_stats_by_day ORDER BY qso_date")
+    Flux<java.util.Map<String, Object>> getAdminStatsByDay();
+
+    /**
+     * Get system-wide totals.
+     * Returns total_users, active_users, count_all, count_confirmed, refreshed_at.
+     */
+    @Query("SELECT total_users, active_users, count_all, count_confirmed, refreshed_at FROM mv_admin_totals")
+    Mono<java.util.Map<String, Object>> getAdminTotals();
+
+    /**
+     * Refresh admin statistics views without blocking concurrent readers.
+     */
+    @Modifying
+    @Query("REFRESH MATERIALIZED VIEW CONCURRENTLY mv_admin_stats_by_band")
+    Mono<Void> refreshAdminStatsByBand();
+
+    @Modifying
+    @Query("REFRESH MATERIALIZED VIEW CONCURRENTLY mv_admin_stats_by_mode")
+    Mono<Void> refreshAdminStatsByMode();
+
+    @Modifying
+    @Query("REFRESH MATERIALIZED VIEW CONCURRENTLY mv_admin_stats_by_day")
+    Mono<Void> refreshAdminStatsByDay();
+
+    @Modifying
+    @Query("REFRESH MATERIALIZED VIEW CONCURRENTLY mv_admin_totals")
+    Mono<Void> refreshAdminTotals();
 }
@@ -1,8 +1,10 @@
 package com.pl.shugo.gsolog.domain.repository;
 
 import com.pl.shugo.gsolog.domain.entity.User;
+import com.pl.shugo.gsolog.domain.enums.Role;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -33,4 +35,9 @@ public interface UserRepository extends R2dbcRepository<User, UUID> {
      * Check if username already exists.
      */
     Mono<Boolean> existsByUsername(String username);
+
+    /**
+     * Find users with the given role, oldest account first.
+     */
+    Flux<User> findByRoleOrderByCreatedAt(Role role);
 }
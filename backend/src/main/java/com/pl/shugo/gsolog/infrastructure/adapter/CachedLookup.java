@@ -0,0 +1,16 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+
+import java.time.Instant;
+
+/**
+ * Cached callsign lookup result with the time it was fetched from HamQTH.
+ * Both cache tiers expire entries by fetch time, so an entry promoted from the
+ * persistent tier does not outlive the copy it came from.
+ *
+ * @param response  Lookup result, or null if HamQTH does not know the callsign
+ * @param fetchedAt When the result was fetched
+ */
+record CachedLookup(CallsignLookupResponse response, Instant fetchedAt) {
+}
@@ -0,0 +1,293 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Read-only, memory-mapped callbook in the binary format written by {@link #compile}.
+ * <p>
+ * Layout (big-endian): a 16-byte header (magic, version, entry count, reserved), an index of
+ * fixed-width entries sorted by callsign (16 ASCII bytes padded with NULs, then the 8-byte
+ * offset of the entry's record), then the records: name, QTH, grid and country, each a 2-byte
+ * length (0xFFFF for none) followed by UTF-8 bytes.
+ * Lookups binary search the index in place, so nothing is allocated unless the callsign is found.
+ */
+final class CallbookFile {
+
+    static final int MAX_CALLSIGN_LENGTH = 16;
+
+    private static final int MAGIC = 0x47534342; // "GSCB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int INDEX_ENTRY_SIZE = MAX_CALLSIGN_LENGTH + Long.BYTES;
+    private static final int NO_VALUE = 0xFFFF;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final List<String> CSV_COLUMNS = List.of("callsign", "name", "qth", "grid", "country");
+
+    private final MemorySegment segment;
+    private final int count;
+
+    private CallbookFile(MemorySegment segment) {
+        if (segment.byteSize() < HEADER_SIZE
+                || segment.get(INT, 0) != MAGIC
+                || segment.get(INT, 4) != VERSION) {
+            throw new IllegalStateException("Not a callbook file");
+        }
+        int count = segment.get(INT, 8);
+        if (count < 0 || HEADER_SIZE + (long) count * INDEX_ENTRY_SIZE > segment.byteSize()) {
+            throw new IllegalStateException("Truncated callbook file");
+        }
+        this.segment = segment;
+        this.count = count;
+    }
+
+    /**
+     * Map a callbook file. The mapping stays valid after the file is replaced by a rename, and
+     * is released once the returned instance is no longer reachable.
+     */
+    static CallbookFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IllegalStateException("Not a callbook file");
+            }
+            return new CallbookFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto()));
+        }
+    }
+
+    /**
+     * Number of callsigns in the callbook.
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Find a callsign, ignoring case.
+     *
+     * @return the callbook entry, or null if the callsign is not in the callbook
+     */
+    CallsignLookupResponse find(String callsign) {
+        int length = callsign.length();
+        if (length == 0 || length > MAX_CALLSIGN_LENGTH) {
+            return null;
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, callsign);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return readEntry(mid, callsign);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compare the callsign of an index entry with a callsign, byte by byte, as unsigned ASCII.
+     */
+    private int compareKey(int index, String callsign) {
+        long keyOffset = HEADER_SIZE + (long) index * INDEX_ENTRY_SIZE;
+        for (int i = 0; i < MAX_CALLSIGN_LENGTH; i++) {
+            int stored = segment.get(ValueLayout.JAVA_BYTE, keyOffset + i) & 0xFF;
+            int wanted = i < callsign.length() ? toUpperAscii(callsign.charAt(i)) : 0;
+            if (stored != wanted) {
+                return stored - wanted;
+            }
+            if (stored == 0) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    private CallsignLookupResponse readEntry(int index, String callsign) {
+        long recordOffset = segment.get(LONG, HEADER_SIZE + (long) index * INDEX_ENTRY_SIZE + MAX_CALLSIGN_LENGTH);
+        String[] fields = new String[4];
+        for (int i = 0; i < fields.length; i++) {
+            int length = Short.toUnsignedInt(segment.get(SHORT, recordOffset));
+            recordOffset += Short.BYTES;
+            if (length != NO_VALUE) {
+                byte[] bytes = segment.asSlice(recordOffset, length).toArray(ValueLayout.JAVA_BYTE);
+                fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                recordOffset += length;
+            }
+        }
+        return new CallsignLookupResponse(callsign.toUpperCase(Locale.ROOT), fields[0], fields[1], fields[2], fields[3]);
+    }
+
+    private static int toUpperAscii(char c) {
+        return c >= 'a' && c <= 'z' ? c - ('a' - 'A') : c;
+    }
+
+    /**
+     * Compile a CSV callbook dump into a callbook file.
+     * The dump starts with a header row naming the callsign, name, qth, grid and country columns
+     * (in any order, other columns are ignored); values may be quoted as in RFC 4180, but not span
+     * lines. Callsigns longer than {@value #MAX_CALLSIGN_LENGTH} characters or not in ASCII are
+     * skipped, as are repeats of a callsign.
+     *
+     * @return number of callsigns written
+     */
+    static int compile(Path csvSource, Path target) throws IOException {
+        Map<String, CallsignLookupResponse> entries = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(csvSource, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("Callbook dump is empty");
+            }
+            int[] columns = columnIndexes(parseCsvLine(header.replace("\uFEFF", "")));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> values = parseCsvLine(line);
+                String callsign = value(values, columns[0]);
+                if (callsign == null || !isValidCallsign(callsign)) {
+                    continue;
+                }
+                callsign = callsign.toUpperCase(Locale.ROOT);
+                entries.putIfAbsent(callsign, new CallsignLookupResponse(callsign,
+                        value(values, columns[1]), value(values, columns[2]),
+                        value(values, columns[3]), value(values, columns[4])));
+            }
+        }
+        write(entries.values(), target);
+        return entries.size();
+    }
+
+    private static int[] columnIndexes(List<String> header) {
+        int[] columns = new int[CSV_COLUMNS.size()];
+        List<String> names = header.stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+        }
+        if (columns[0] < 0) {
+            throw new IllegalArgumentException("Callbook dump has no callsign column");
+        }
+        return columns;
+    }
+
+    private static boolean isValidCallsign(String callsign) {
+        if (callsign.length() > MAX_CALLSIGN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < callsign.length(); i++) {
+            char c = callsign.charAt(i);
+            if (c <= ' ' || c > '~') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String value(List<String> values, int column) {
+        if (column < 0 || column >= values.size()) {
+            return null;
+        }
+        String value = values.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Write entries, sorted by callsign, into a callbook file.
+     */
+    private static void write(Iterable<CallsignLookupResponse> sortedEntries, Path target) throws IOException {
+        List<byte[]> keys = new ArrayList<>();
+        List<Long> recordOffsets = new ArrayList<>();
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream recordOut = new DataOutputStream(records);
+        for (CallsignLookupResponse entry : sortedEntries) {
+            keys.add(entry.callsign().getBytes(StandardCharsets.US_ASCII));
+            recordOffsets.add((long) records.size());
+            writeField(recordOut, entry.name());
+            writeField(recordOut, entry.qth());
+            writeField(recordOut, entry.grid());
+            writeField(recordOut, entry.country());
+        }
+
+        long recordsStart = HEADER_SIZE + (long) keys.size() * INDEX_ENTRY_SIZE;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(keys.size());
+            out.writeInt(0);
+            for (int i = 0; i < keys.size(); i++) {
+                byte[] key = keys.get(i);
+                out.write(key);
+                out.write(new byte[MAX_CALLSIGN_LENGTH - key.length]);
+                out.writeLong(recordsStart + recordOffsets.get(i));
+            }
+            records.writeTo(out);
+        }
+    }
+
+    private static void writeField(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NO_VALUE);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NO_VALUE) {
+            throw new IllegalArgumentException("Callbook value too long: " + value.substring(0, 32) + "...");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
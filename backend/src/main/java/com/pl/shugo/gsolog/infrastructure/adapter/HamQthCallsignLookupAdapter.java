@@ -1,43 +1,151 @@
 package com.pl.shugo.gsolog.infrastructure.adapter;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
 import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
 import com.pl.shugo.gsolog.domain.port.CallsignLookupPort;
+import com.pl.shugo.gsolog.infrastructure.adapter.HamQthXmlParser.HamQthResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * HamQTH API implementation of CallsignLookupPort.
- * Includes in-memory caching with TTL and rate limiting backoff.
+ * Includes rate limiting backoff and an in-memory cache bounded by entry count, with
+ * frequency-based admission (W-TinyLFU), so one-off lookups cannot push out popular callsigns.
+ * Expired entries are removed in the background; hit, miss and eviction counts are published
+ * as cache metrics named "hamqth.lookup".
+ * Concurrent lookups of the same callsign share one HamQTH request, and concurrent callers
+ * needing a new session share one login.
+ * An optional persistent second tier (see {@link PersistentCallsignLookupCache}) is consulted
+ * on in-memory misses and written with every fetched result, so restarts and other nodes
+ * start warm.
+ * Callsigns HamQTH does not know are cached as negative results for a shorter TTL, and a
+ * callsign whose lookups keep failing is not sent to HamQTH again until an exponentially
+ * growing backoff has passed.
+ * Entries older than the refresh interval are still served by {@link #lookup}, while one
+ * background lookup per callsign replaces them; callers only wait for HamQTH once an entry has
+ * fully expired.
  */
 public class HamQthCallsignLookupAdapter implements CallsignLookupPort {
 
     private static final Logger logger = LoggerFactory.getLogger(HamQthCallsignLookupAdapter.class);
-    private static final Duration CACHE_TTL = Duration.ofHours(24);
+    private static final long DEFAULT_CACHE_MAXIMUM_SIZE = 10_000;
+    private static final Duration DEFAULT_CACHE_TTL = Duration.ofHours(24);
+    private static final Duration DEFAULT_CACHE_REFRESH_AFTER = Duration.ofHours(20);
+    private static final Duration DEFAULT_NEGATIVE_CACHE_TTL = Duration.ofHours(1);
+    private static final Duration ERROR_MIN_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration ERROR_MAX_BACKOFF = Duration.ofMinutes(15);
+    private static final String CACHE_METRICS_NAME = "hamqth.lookup";
     private static final Duration RETRY_MIN_BACKOFF = Duration.ofSeconds(1);
     private static final Duration RETRY_MAX_BACKOFF = Duration.ofSeconds(10);
     private static final int MAX_RETRY_ATTEMPTS = 3;
+    /**
+     * Largest response body accepted; HamQTH answers are a few hundred bytes.
+     */
+    static final int MAX_RESPONSE_BYTES = 64 * 1024;
 
     private final WebClient webClient;
     private final String username;
     private final String password;
-    private final Map<String, CachedLookup> cache = new ConcurrentHashMap<>();
+    private final Duration cacheTtl;
+    private final Duration refreshAfter;
+    private final Duration negativeCacheTtl;
+    private final Cache<String, CachedLookup> cache;
+    /**
+     * Callsigns whose last lookups failed, by normalized callsign.
+     */
+    private final Cache<String, LookupFailure> failures;
+    private final PersistentCallsignLookupCache persistentCache;
+    /**
+     * Lookups and background refreshes in progress by normalized callsign, each shared by all
+     * callers of the callsign.
+     */
+    private final Map<String, Mono<CallsignLookupResponse>> inFlight = new ConcurrentHashMap<>();
 
     private volatile String sessionId;
     private volatile long sessionExpiry = 0;
+    /**
+     * Login in progress, shared by all callers needing a session. Guarded by this.
+     */
+    private Mono<String> pendingLogin;
 
     public HamQthCallsignLookupAdapter(String baseUrl, String username, String password) {
+        this(baseUrl, username, password, DEFAULT_CACHE_MAXIMUM_SIZE, DEFAULT_CACHE_TTL, DEFAULT_CACHE_REFRESH_AFTER,
+                DEFAULT_NEGATIVE_CACHE_TTL, null, null);
+    }
+
+    /**
+     * @param cacheMaximumSize Maximum number of cached callsigns
+     * @param cacheTtl         Time a lookup result is cached for, counted from when it was fetched
+     * @param refreshAfter     Age after which a cached result is refreshed in the background while
+     *                         still being served; at or above cacheTtl, results are never refreshed early
+     * @param negativeCacheTtl Time a callsign unknown to HamQTH is cached as such
+     * @param meterRegistry    Registry for cache metrics, or null for none
+     * @param persistentCache  Second cache tier, or null for memory only
+     */
+    public HamQthCallsignLookupAdapter(String baseUrl, String username, String password,
+                                       long cacheMaximumSize, Duration cacheTtl, Duration refreshAfter,
+                                       Duration negativeCacheTtl,
+                                       MeterRegistry meterRegistry, PersistentCallsignLookupCache persistentCache) {
+        this(baseUrl, username, password, cacheMaximumSize, cacheTtl, refreshAfter, negativeCacheTtl,
+                meterRegistry, persistentCache, Ticker.systemTicker());
+    }
+
+    /**
+     * @param ticker Time source the in-memory cache expires entries by
+     */
+    HamQthCallsignLookupAdapter(String baseUrl, String username, String password,
+                                long cacheMaximumSize, Duration cacheTtl, Duration refreshAfter,
+                                Duration negativeCacheTtl,
+                                MeterRegistry meterRegistry, PersistentCallsignLookupCache persistentCache,
+                                Ticker ticker) {
+        if (cacheMaximumSize < 1) {
+            throw new IllegalArgumentException("Cache maximum size must be positive");
+        }
         this.webClient = WebClient.builder()
                 .baseUrl(baseUrl)
                 .build();
         this.username = username;
         this.password = password;
+        this.cacheTtl = cacheTtl;
+        this.refreshAfter = refreshAfter;
+        this.negativeCacheTtl = negativeCacheTtl;
+        this.persistentCache = persistentCache;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new FetchTimeExpiry(cacheTtl, negativeCacheTtl))
+                .scheduler(Scheduler.systemScheduler())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(ERROR_MAX_BACKOFF)
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_METRICS_NAME);
+        }
     }
 
     @Override
@@ -45,10 +153,82 @@ public class HamQthCallsignLookupAdapter implements CallsignLookupPort {
         String normalizedCallsign = callsign.toUpperCase();
 
         // Check cache first
-        CachedLookup cached = cache.get(normalizedCallsign);
-        if (cached != null && !cached.isExpired()) {
+        CachedLookup cached = cache.getIfPresent(normalizedCallsign);
+        if (cached != null) {
             logger.debug("Cache hit for callsign: {}", normalizedCallsign);
-            return Mono.justOrEmpty(cached.response);
+            refreshIfStale(normalizedCallsign, cached);
+            return Mono.justOrEmpty(cached.response());
+        }
+
+        // Join the lookup in progress for this callsign, or start one
+        return inFlight.computeIfAbsent(normalizedCallsign, key -> fetch(key)
+                // Runs once the result is cached, and before callers see it, so a caller arriving
+                // after the entry expires starts a new lookup instead of joining this finished one
+                .doOnTerminate(() -> inFlight.remove(key))
+                .cache());
+    }
+
+    /**
+     * Cached result only. A stale result is returned without a background refresh, so a cache
+     * probe never calls HamQTH outside the caller's rate limit; the next {@link #lookup} refreshes it.
+     */
+    @Override
+    public Mono<Optional<CallsignLookupResponse>> lookupCached(String callsign) {
+        return findCached(callsign.toUpperCase())
+                .map(cached -> Optional.ofNullable(cached.response()));
+    }
+
+    /**
+     * Start a background lookup replacing a cached result older than the refresh interval,
+     * unless a lookup of the callsign is already in progress. If it fails, the cached result
+     * keeps being served until it expires.
+     */
+    private void refreshIfStale(String normalizedCallsign, CachedLookup cached) {
+        if (Instant.now().isBefore(cached.fetchedAt().plus(refreshAfter))) {
+            return;
+        }
+        Mono<CallsignLookupResponse> refresh = fetchRemote(normalizedCallsign)
+                .doOnTerminate(() -> inFlight.remove(normalizedCallsign))
+                .cache();
+        if (inFlight.putIfAbsent(normalizedCallsign, refresh) == null) {
+            logger.debug("Refreshing cached lookup of {} in the background", normalizedCallsign);
+            refresh.subscribe();
+        }
+    }
+
+    private Mono<CallsignLookupResponse> fetch(String normalizedCallsign) {
+        // Cached by a lookup that finished after the cache check in lookup()
+        return findCached(normalizedCallsign)
+                .map(cached -> Optional.ofNullable(cached.response()))
+                .switchIfEmpty(Mono.defer(() -> fetchRemote(normalizedCallsign).map(Optional::of)))
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Cached result from the in-memory tier, else from the persistent tier (promoted to memory).
+     */
+    private Mono<CachedLookup> findCached(String normalizedCallsign) {
+        return Mono.defer(() -> {
+            CachedLookup cached = cache.getIfPresent(normalizedCallsign);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            if (persistentCache == null) {
+                return Mono.empty();
+            }
+            return persistentCache.get(normalizedCallsign)
+                    .doOnNext(stored -> {
+                        cache.put(normalizedCallsign, stored);
+                        logger.debug("Persistent cache hit for callsign: {}", normalizedCallsign);
+                    });
+        });
+    }
+
+    private Mono<CallsignLookupResponse> fetchRemote(String normalizedCallsign) {
+        LookupFailure failure = failures.getIfPresent(normalizedCallsign);
+        if (failure != null && Instant.now().isBefore(failure.retryAt())) {
+            logger.debug("Skipping lookup of {} after {} failure(s)", normalizedCallsign, failure.count());
+            return Mono.empty();
         }
 
         // Perform lookup with retry and backoff
@@ -56,20 +236,61 @@ public class HamQthCallsignLookupAdapter implements CallsignLookupPort {
                 .flatMap(sid -> performLookup(normalizedCallsign, sid))
                 .retryWhen(Retry.backoff(MAX_RETRY_ATTEMPTS, RETRY_MIN_BACKOFF)
                         .maxBackoff(RETRY_MAX_BACKOFF)
-                        .filter(throwable -> !(throwable instanceof SessionExpiredException)))
-                .doOnNext(response -> cacheResponse(normalizedCallsign, response))
-                .doOnError(error -> logger.warn("Lookup failed for callsign: {}", normalizedCallsign, error))
+                        .filter(throwable -> !(throwable instanceof SessionExpiredException)
+                                // An oversized answer will not be any smaller on retry
+                                && !(throwable instanceof DataBufferLimitException)
+                                // Nor will a rate limit or service error clear up within seconds
+                                && !(throwable instanceof HamQthErrorException)))
+                .doOnNext(lookup -> {
+                    failures.invalidate(normalizedCallsign);
+                    cacheLookup(normalizedCallsign, lookup);
+                })
+                .mapNotNull(CachedLookup::response)
+                .doOnError(error -> {
+                    recordFailure(normalizedCallsign);
+                    logger.warn("Lookup failed for callsign: {}", normalizedCallsign, error);
+                })
                 .onErrorResume(error -> Mono.empty()); // Return empty on error
     }
 
+    private void recordFailure(String callsign) {
+        failures.asMap().compute(callsign, (key, previous) -> {
+            int count = previous == null ? 1 : previous.count() + 1;
+            Duration backoff = ERROR_MIN_BACKOFF.multipliedBy(1L << Math.min(count - 1, 10));
+            if (backoff.compareTo(ERROR_MAX_BACKOFF) > 0) {
+                backoff = ERROR_MAX_BACKOFF;
+            }
+            return new LookupFailure(count, Instant.now().plus(backoff));
+        });
+    }
+
     private Mono<String> ensureSession() {
-        long now = System.currentTimeMillis();
-        if (sessionId != null && now < sessionExpiry) {
-            return Mono.just(sessionId);
+        return Mono.defer(() -> {
+            long now = System.currentTimeMillis();
+            String sid = sessionId;
+            if (sid != null && now < sessionExpiry) {
+                return Mono.just(sid);
+            }
+
+            // Session expired or not present, login
+            return sharedLogin();
+        });
+    }
+
+    /**
+     * The login in progress, or a new one if none is.
+     */
+    private synchronized Mono<String> sharedLogin() {
+        if (pendingLogin == null) {
+            pendingLogin = login()
+                    .doFinally(signal -> clearPendingLogin())
+                    .cache();
         }
+        return pendingLogin;
+    }
 
-        // Session expired or not present, login
-        return login();
+    private synchronized void clearPendingLogin() {
+        pendingLogin = null;
     }
 
     private Mono<String> login() {
@@ -82,8 +303,10 @@ public class HamQthCallsignLookupAdapter implements CallsignLookupPort {
                         .queryParam("p", password)
                         .build())
                 .retrieve()
-                .bodyToMono(String.class)
-                .map(this::parseSessionId)
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> DataBufferUtils.join(body, MAX_RESPONSE_BYTES))
+                .map(HamQthCallsignLookupAdapter::parseBody)
+                .map(this::sessionIdOf)
                 .doOnNext(sid -> {
                     this.sessionId = sid;
                     this.sessionExpiry = System.currentTimeMillis() + Duration.ofHours(1).toMillis();
@@ -95,7 +318,12 @@ public class HamQthCallsignLookupAdapter implements CallsignLookupPort {
                 });
     }
 
-    private Mono<CallsignLookupResponse> performLookup(String callsign, String sid) {
+    /**
+     * Look a callsign up with a session. Completes with a negative result if HamQTH does not
+     * know the callsign, and fails on transport errors and rejected sessions (both retried)
+     * and on any other error HamQTH reports (not retried, but backed off like any failure).
+     */
+    private Mono<CachedLookup> performLookup(String callsign, String sid) {
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/xml.php")
@@ -104,38 +332,77 @@ public class HamQthCallsignLookupAdapter implements CallsignLookupPort {
                         .queryParam("prg", "QSOLOG")
                         .build())
                 .retrieve()
-                .bodyToMono(String.class)
-                .map(xml -> parseCallsignData(callsign, xml))
-                .onErrorResume(error -> {
-                    logger.warn("HamQTH lookup failed for {}", callsign, error);
-                    return Mono.empty();
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> DataBufferUtils.join(body, MAX_RESPONSE_BYTES))
+                .map(HamQthCallsignLookupAdapter::parseBody)
+                .map(parsed -> {
+                    CallsignLookupResponse response = toLookupResponse(callsign, parsed);
+                    if (response == null && isSessionError(parsed)) {
+                        // Session ended before its expected expiry: log in again on retry
+                        invalidateSession(sid);
+                        throw new SessionRejectedException("HamQTH rejected session for lookup of " + callsign);
+                    }
+                    if (response == null && parsed.error() != null && !isNotFoundError(parsed)) {
+                        // Rate limits and service errors say nothing about the callsign: don't cache them
+                        throw new HamQthErrorException("HamQTH error for lookup of " + callsign + ": " + parsed.error());
+                    }
+                    return new CachedLookup(response, Instant.now());
                 });
     }
 
-    private String parseSessionId(String xml) {
-        // Simple XML parsing for session_id
-        int start = xml.indexOf("<session_id>");
-        int end = xml.indexOf("</session_id>");
-        if (start >= 0 && end > start) {
-            return xml.substring(start + 12, end);
+    private synchronized void invalidateSession(String sid) {
+        if (sid.equals(sessionId)) {
+            sessionId = null;
+        }
+    }
+
+    private boolean isSessionError(HamQthResponse parsed) {
+        return parsed.error() != null && parsed.error().toLowerCase(Locale.ROOT).contains("session");
+    }
+
+    private boolean isNotFoundError(HamQthResponse parsed) {
+        return parsed.error().toLowerCase(Locale.ROOT).contains("not found");
+    }
+
+    /**
+     * Parse a joined response body, releasing it.
+     */
+    private static HamQthResponse parseBody(DataBuffer body) {
+        try (InputStream in = body.asInputStream(true)) {
+            return HamQthXmlParser.parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    String parseSessionId(String xml) {
+        return sessionIdOf(HamQthXmlParser.parse(xml));
+    }
+
+    CallsignLookupResponse parseCallsignData(String callsign, String xml) {
+        return toLookupResponse(callsign, HamQthXmlParser.parse(xml));
+    }
+
+    private String sessionIdOf(HamQthResponse parsed) {
+        if (parsed.sessionId() != null && !parsed.sessionId().isEmpty()) {
+            return parsed.sessionId();
         }
         throw new SessionExpiredException("Failed to parse session ID from HamQTH response");
     }
 
-    private CallsignLookupResponse parseCallsignData(String callsign, String xml) {
-        // Simple XML parsing for callsign data
-        String name = extractXmlValue(xml, "nick");
+    private CallsignLookupResponse toLookupResponse(String callsign, HamQthResponse parsed) {
+        String name = parsed.nick();
         if (name == null || name.isEmpty()) {
-            name = extractXmlValue(xml, "adr_name");
+            name = parsed.adrName();
         }
-        String qth = extractXmlValue(xml, "adr_city");
-        String grid = extractXmlValue(xml, "grid");
-        String country = extractXmlValue(xml, "country");
+        String qth = parsed.adrCity();
+        String grid = parsed.grid();
+        String country = parsed.country();
 
         // Check if we got any data
         if (name == null && qth == null && grid == null && country == null) {
             // No data found, check for error
-            String error = extractXmlValue(xml, "error");
+            String error = parsed.error();
             if (error != null) {
                 logger.warn("HamQTH error for {}: {}", callsign, error);
             }
@@ -145,36 +412,60 @@ public class HamQthCallsignLookupAdapter implements CallsignLookupPort {
         return new CallsignLookupResponse(callsign, name, qth, grid, country);
     }
 
-    private String extractXmlValue(String xml, String tag) {
-        String startTag = "<" + tag + ">";
-        String endTag = "</" + tag + ">";
-        int start = xml.indexOf(startTag);
-        int end = xml.indexOf(endTag);
-        if (start >= 0 && end > start) {
-            return xml.substring(start + startTag.length(), end).trim();
+    private void cacheLookup(String callsign, CachedLookup lookup) {
+        // Both tiers take the new result, so neither keeps serving the one it refreshes
+        cache.put(callsign, lookup);
+        if (persistentCache != null) {
+            persistentCache.put(callsign, lookup);
         }
-        return null;
+        logger.debug("Cached {} lookup result for: {}", lookup.response() != null ? "positive" : "negative", callsign);
     }
 
-    private void cacheResponse(String callsign, CallsignLookupResponse response) {
-        if (response != null) {
-            cache.put(callsign, new CachedLookup(response, System.currentTimeMillis() + CACHE_TTL.toMillis()));
-            logger.debug("Cached lookup result for: {}", callsign);
-        }
+    /**
+     * Number of callsigns in the in-memory cache, once pending evictions have been applied.
+     */
+    long cachedCount() {
+        cache.cleanUp();
+        return cache.estimatedSize();
     }
 
-    private static class CachedLookup {
-        final CallsignLookupResponse response;
-        final long expiryTime;
+    /**
+     * Expires entries cacheTtl (negative ones negativeCacheTtl) after they were fetched,
+     * however long they spent in the persistent tier.
+     */
+    static final class FetchTimeExpiry implements Expiry<String, CachedLookup> {
 
-        CachedLookup(CallsignLookupResponse response, long expiryTime) {
-            this.response = response;
-            this.expiryTime = expiryTime;
+        private final Duration cacheTtl;
+        private final Duration negativeCacheTtl;
+
+        FetchTimeExpiry(Duration cacheTtl, Duration negativeCacheTtl) {
+            this.cacheTtl = cacheTtl;
+            this.negativeCacheTtl = negativeCacheTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(String callsign, CachedLookup lookup, long currentTime) {
+            return remainingNanos(lookup);
+        }
+
+        @Override
+        public long expireAfterUpdate(String callsign, CachedLookup lookup, long currentTime, long currentDuration) {
+            return remainingNanos(lookup);
         }
 
-        boolean isExpired() {
-            return System.currentTimeMillis() > expiryTime;
+        @Override
+        public long expireAfterRead(String callsign, CachedLookup lookup, long currentTime, long currentDuration) {
+            return currentDuration;
         }
+
+        private long remainingNanos(CachedLookup lookup) {
+            Duration age = Duration.between(lookup.fetchedAt(), Instant.now());
+            Duration ttl = lookup.response() != null ? cacheTtl : negativeCacheTtl;
+            return Math.max(0, ttl.minus(age).toNanos());
+        }
+    }
+
+    private record LookupFailure(int count, Instant retryAt) {
     }
 
     private static class SessionExpiredException extends RuntimeException {
@@ -182,4 +473,16 @@ public class HamQthCallsignLookupAdapter implements CallsignLookupPort {
             super(message);
         }
     }
+
+    private static class SessionRejectedException extends RuntimeException {
+        public SessionRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    private static class HamQthErrorException extends RuntimeException {
+        public HamQthErrorException(String message) {
+            super(message);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Single-pass StAX parser for HamQTH XML API responses.
+ * Reads every field the adapter uses in one forward scan, straight from the response bytes;
+ * entities and CDATA sections are decoded by the XML parser. DTDs and external entities are
+ * disabled. Thread-safe.
+ */
+final class HamQthXmlParser {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private HamQthXmlParser() {
+    }
+
+    /**
+     * Fields of a HamQTH response; each is null if absent.
+     */
+    record HamQthResponse(String sessionId, String error, String nick, String adrName,
+                          String adrCity, String grid, String country) {
+    }
+
+    /**
+     * Parse a response body, detecting its encoding from the XML declaration.
+     */
+    static HamQthResponse parse(InputStream body) {
+        try {
+            return parse(XML_INPUT_FACTORY.createXMLStreamReader(body));
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Malformed HamQTH response", e);
+        }
+    }
+
+    static HamQthResponse parse(String xml) {
+        try {
+            return parse(XML_INPUT_FACTORY.createXMLStreamReader((Reader) new StringReader(xml)));
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Malformed HamQTH response", e);
+        }
+    }
+
+    private static HamQthResponse parse(XMLStreamReader reader) throws XMLStreamException {
+        String sessionId = null;
+        String error = null;
+        String nick = null;
+        String adrName = null;
+        String adrCity = null;
+        String grid = null;
+        String country = null;
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                // First occurrence wins, as each tag appears once per response
+                switch (reader.getLocalName()) {
+                    case "session_id" -> sessionId = first(sessionId, reader);
+                    case "error" -> error = first(error, reader);
+                    case "nick" -> nick = first(nick, reader);
+                    case "adr_name" -> adrName = first(adrName, reader);
+                    case "adr_city" -> adrCity = first(adrCity, reader);
+                    case "grid" -> grid = first(grid, reader);
+                    case "country" -> country = first(country, reader);
+                    default -> {
+                        // Not used
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return new HamQthResponse(sessionId, error, nick, adrName, adrCity, grid, country);
+    }
+
+    private static String first(String current, XMLStreamReader reader) throws XMLStreamException {
+        String text = reader.getElementText().trim();
+        return current != null ? current : text;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,126 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Local callbook served from a memory-mapped {@link CallbookFile}.
+ * {@link #reload()} maps the callbook file again when it has changed and swaps it in, so new
+ * data is picked up without a restart; lookups in progress finish on the old mapping.
+ * If a CSV dump is configured as the source, it is compiled into the callbook file whenever it
+ * is newer than the file.
+ * Files should be replaced by moving a new file over them, never rewritten in place.
+ */
+public class LocalCallbook {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalCallbook.class);
+
+    private final Path path;
+    private final Path source;
+    private volatile Loaded current;
+    /**
+     * Modification time of a source dump that failed to compile, so it is not retried until changed.
+     */
+    private FileTime rejectedSource;
+
+    /**
+     * @param path   Compiled callbook file
+     * @param source CSV dump compiled into the callbook file, or null for none
+     */
+    public LocalCallbook(Path path, Path source) {
+        this.path = path;
+        this.source = source;
+        reload();
+    }
+
+    /**
+     * Find a callsign in the callbook, ignoring case.
+     *
+     * @return the callbook entry, or null if the callsign is not in the callbook or none is loaded
+     */
+    public CallsignLookupResponse find(String callsign) {
+        Loaded loaded = current;
+        return loaded != null ? loaded.file().find(callsign) : null;
+    }
+
+    /**
+     * Number of callsigns in the loaded callbook.
+     */
+    public int size() {
+        Loaded loaded = current;
+        return loaded != null ? loaded.file().size() : 0;
+    }
+
+    /**
+     * Compile the source dump if it is newer than the callbook file, then load the callbook file
+     * if it changed since it was last loaded. A callbook that fails to load leaves the one
+     * loaded before in use.
+     *
+     * @return true if a new callbook was loaded
+     */
+    public synchronized boolean reload() {
+        try {
+            if (source != null) {
+                compileIfStale();
+            }
+            if (!Files.exists(path)) {
+                if (current == null) {
+                    logger.warn("Local callbook {} does not exist", path);
+                }
+                return false;
+            }
+
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            Loaded loaded = current;
+            if (loaded != null
+                    && loaded.modified().equals(attributes.lastModifiedTime())
+                    && loaded.size() == attributes.size()) {
+                return false;
+            }
+            CallbookFile file = CallbookFile.open(path);
+            current = new Loaded(file, attributes.lastModifiedTime(), attributes.size());
+            logger.info("Loaded local callbook {} with {} callsigns", path, file.size());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to load local callbook {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    private void compileIfStale() throws IOException {
+        if (!Files.exists(source)) {
+            return;
+        }
+        FileTime sourceModified = Files.getLastModifiedTime(source);
+        if (sourceModified.equals(rejectedSource)
+                || Files.exists(path) && Files.getLastModifiedTime(path).compareTo(sourceModified) >= 0) {
+            return;
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        // Compiled next to the callbook file, then moved over it in one step
+        Path compiled = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            int count = CallbookFile.compile(source, compiled);
+            Files.move(compiled, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Compiled {} callsigns from {} into {}", count, source, path);
+        } catch (RuntimeException e) {
+            rejectedSource = sourceModified;
+            throw e;
+        } finally {
+            Files.deleteIfExists(compiled);
+        }
+    }
+
+    private record Loaded(CallbookFile file, FileTime modified, long size) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+import com.pl.shugo.gsolog.domain.port.CallsignLookupPort;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Local callbook implementation of CallsignLookupPort, for deployments with little or no
+ * internet access. Callsigns not in the callbook are passed to an optional fallback port, so
+ * the callbook can answer alone or as a first tier before HamQTH.
+ */
+public class LocalCallbookLookupAdapter implements CallsignLookupPort {
+
+    private final LocalCallbook callbook;
+    private final CallsignLookupPort fallback;
+
+    /**
+     * @param callbook Local callbook
+     * @param fallback Port for callsigns not in the callbook, or null to answer from the callbook alone
+     */
+    public LocalCallbookLookupAdapter(LocalCallbook callbook, CallsignLookupPort fallback) {
+        this.callbook = callbook;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Mono<CallsignLookupResponse> lookup(String callsign) {
+        return Mono.defer(() -> {
+            CallsignLookupResponse local = callbook.find(callsign);
+            if (local != null) {
+                return Mono.just(local);
+            }
+            return fallback != null ? fallback.lookup(callsign) : Mono.empty();
+        });
+    }
+
+    @Override
+    public Mono<Optional<CallsignLookupResponse>> lookupCached(String callsign) {
+        return Mono.defer(() -> {
+            CallsignLookupResponse local = callbook.find(callsign);
+            if (local != null) {
+                return Mono.just(Optional.of(local));
+            }
+            // Without a fallback the callbook is the whole answer, so a miss is final
+            return fallback != null ? fallback.lookupCached(callsign) : Mono.just(Optional.empty());
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.pl.shugo.gsolog.domain.port.ExportFileStorePort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Export file store on the local filesystem.
+ * Files are written asynchronously to a ".part" file while their SHA-256 is computed,
+ * then atomically renamed, so a download never sees a partial file.
+ * Stored files are served as file resources, which WebFlux sends zero-copy.
+ * Any instance may render a job and any instance may serve its download, so with several
+ * instances the directory must be shared storage; otherwise run a single instance.
+ */
+@Component
+public class LocalExportFileStoreAdapter implements ExportFileStorePort {
+
+    private final Path directory;
+
+    public LocalExportFileStoreAdapter(
+            @Value("${export.jobs.directory:${java.io.tmpdir}/qsolog-exports}") String directory) {
+        this.directory = Path.of(directory).toAbsolutePath();
+    }
+
+    @Override
+    public Mono<StoredFile> store(UUID jobId, Flux<DataBuffer> content) {
+        Path partial = directory.resolve(jobId + ".part");
+        Path target = file(jobId);
+
+        return Mono.fromCallable(() -> Files.createDirectories(directory))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.defer(() -> {
+                    MessageDigest digest = sha256();
+                    long[] size = {0};
+                    Flux<DataBuffer> hashed = content.doOnNext(buffer -> {
+                        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                            while (iterator.hasNext()) {
+                                ByteBuffer bytes = iterator.next();
+                                size[0] += bytes.remaining();
+                                digest.update(bytes);
+                            }
+                        }
+                    });
+                    return DataBufferUtils.write(hashed, partial,
+                                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                    StandardOpenOption.WRITE)
+                            .then(Mono.fromCallable(() -> {
+                                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+                                return new StoredFile(size[0], HexFormat.of().formatHex(digest.digest()));
+                            }).subscribeOn(Schedulers.boundedElastic()));
+                }))
+                .onErrorResume(error -> deleteFile(partial).then(Mono.error(error)));
+    }
+
+    @Override
+    public Mono<Resource> open(UUID jobId) {
+        return Mono.fromCallable(() -> {
+                    Path path = file(jobId);
+                    return Files.isRegularFile(path) ? (Resource) new FileSystemResource(path) : null;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> delete(UUID jobId) {
+        return deleteFile(file(jobId))
+                .then(deleteFile(directory.resolve(jobId + ".part")));
+    }
+
+    private Path file(UUID jobId) {
+        return directory.resolve(jobId.toString());
+    }
+
+    private Mono<Void> deleteFile(Path path) {
+        return Mono.fromCallable(() -> Files.deleteIfExists(path))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
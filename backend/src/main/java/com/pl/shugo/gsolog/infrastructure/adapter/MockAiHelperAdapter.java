@@ -2,6 +2,7 @@ package com.pl.shugo.gsolog.infrastructure.adapter;
 
 import com.pl.shugo.gsolog.api.dto.QsoDescriptionRequest;
 import com.pl.shugo.gsolog.api.dto.StatsResponse;
+import com.pl.shugo.gsolog.api.dto.UniqueStationsResponse;
 import com.pl.shugo.gsolog.domain.port.AiHelperPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,13 +35,13 @@ public class MockAiHelperAdapter implements AiHelperPort {
     }
 
     @Override
-    public Mono<String> generatePeriodReport(StatsResponse stats, String language) {
+    public Mono<String> generatePeriodReport(StatsResponse stats, UniqueStationsResponse uniqueStations, String language) {
         logger.debug("Mock AI generating period report in {}", language);
 
         if ("PL".equalsIgnoreCase(language)) {
-            return Mono.just(generatePolishReport(stats));
+            return Mono.just(generatePolishReport(stats, uniqueStations));
         } else {
-            return Mono.just(generateEnglishReport(stats));
+            return Mono.just(generateEnglishReport(stats, uniqueStations));
         }
     }
 
@@ -115,7 +116,7 @@ public class MockAiHelperAdapter implements AiHelperPort {
         return sb.toString();
     }
 
-    private String generateEnglishReport(StatsResponse stats) {
+    private String generateEnglishReport(StatsResponse stats, UniqueStationsResponse uniqueStations) {
         StringBuilder sb = new StringBuilder();
 
         long totalQsos = stats.totals().all();
@@ -127,7 +128,11 @@ public class MockAiHelperAdapter implements AiHelperPort {
         if (confirmedQsos > 0) {
             sb.append(" (").append(confirmedQsos).append(" confirmed)");
         }
-        sb.append(".\n\n");
+        sb.append(".\n");
+        if (uniqueStations != null) {
+            sb.append("Unique stations worked: about ").append(uniqueStations.total()).append(".\n");
+        }
+        sb.append("\n");
 
         if (!stats.countsByBand().isEmpty()) {
             sb.append("Band activity:\n");
@@ -155,7 +160,7 @@ public class MockAiHelperAdapter implements AiHelperPort {
         return sb.toString();
     }
 
-    private String generatePolishReport(StatsResponse stats) {
+    private String generatePolishReport(StatsResponse stats, UniqueStationsResponse uniqueStations) {
         StringBuilder sb = new StringBuilder();
 
         long totalQsos = stats.totals().all();
@@ -167,7 +172,11 @@ public class MockAiHelperAdapter implements AiHelperPort {
         if (confirmedQsos > 0) {
             sb.append(" (").append(confirmedQsos).append(" potwierdzonych)");
         }
-        sb.append(".\n\n");
+        sb.append(".\n");
+        if (uniqueStations != null) {
+            sb.append("Unikalne stacje: około ").append(uniqueStations.total()).append(".\n");
+        }
+        sb.append("\n");
 
         if (!stats.countsByBand().isEmpty()) {
             sb.append("Aktywność na pasmach:\n");
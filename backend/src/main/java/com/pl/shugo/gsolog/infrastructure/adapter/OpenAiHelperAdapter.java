@@ -2,6 +2,7 @@ package com.pl.shugo.gsolog.infrastructure.adapter;
 
 import com.pl.shugo.gsolog.api.dto.QsoDescriptionRequest;
 import com.pl.shugo.gsolog.api.dto.StatsResponse;
+import com.pl.shugo.gsolog.api.dto.UniqueStationsResponse;
 import com.pl.shugo.gsolog.domain.port.AiHelperPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,10 +55,10 @@ public class OpenAiHelperAdapter implements AiHelperPort {
     }
 
     @Override
-    public Mono<String> generatePeriodReport(StatsResponse stats, String language) {
+    public Mono<String> generatePeriodReport(StatsResponse stats, UniqueStationsResponse uniqueStations, String language) {
         logger.debug("OpenAI generating period report in {}", language);
 
-        String prompt = buildReportPrompt(stats, language);
+        String prompt = buildReportPrompt(stats, uniqueStations, language);
 
         return callOpenAi(prompt)
                 .doOnError(error -> logger.error("OpenAI report generation failed", error))
@@ -65,7 +66,7 @@ public class OpenAiHelperAdapter implements AiHelperPort {
                     // Fallback to mock on error
                     logger.warn("Falling back to mock report due to OpenAI error");
                     MockAiHelperAdapter fallback = new MockAiHelperAdapter();
-                    return fallback.generatePeriodReport(stats, language);
+                    return fallback.generatePeriodReport(stats, uniqueStations, language);
                 });
     }
 
@@ -117,7 +118,7 @@ public class OpenAiHelperAdapter implements AiHelperPort {
         return prompt.toString();
     }
 
-    private String buildReportPrompt(StatsResponse stats, String language) {
+    private String buildReportPrompt(StatsResponse stats, UniqueStationsResponse uniqueStations, String language) {
         StringBuilder prompt = new StringBuilder();
 
         if ("PL".equalsIgnoreCase(language)) {
@@ -130,14 +131,23 @@ public class OpenAiHelperAdapter implements AiHelperPort {
 
         prompt.append("\n\nStatistics:\n");
         prompt.append("Total QSOs: ").append(stats.totals().all());
-        prompt.append(" (").append(stats.totals().confirmed()).append(" confirmed)\n\n");
+        prompt.append(" (").append(stats.totals().confirmed()).append(" confirmed)\n");
+        if (uniqueStations != null) {
+            prompt.append("Unique stations worked (approximate): ").append(uniqueStations.total()).append("\n");
+        }
+        prompt.append("\n");
 
         if (!stats.countsByBand().isEmpty()) {
             prompt.append("Band activity:\n");
             stats.countsByBand().forEach(band -> {
                 prompt.append("- ").append(band.band()).append(": ")
                         .append(band.countAll()).append(" QSOs (")
-                        .append(band.countConfirmed()).append(" confirmed)\n");
+                        .append(band.countConfirmed()).append(" confirmed");
+                Long unique = uniqueStations != null ? uniqueStations.byBand().get(band.band()) : null;
+                if (unique != null) {
+                    prompt.append(", ~").append(unique).append(" unique stations");
+                }
+                prompt.append(")\n");
             });
             prompt.append("\n");
         }
@@ -0,0 +1,161 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+import com.pl.shugo.gsolog.domain.entity.CallsignLookupCacheEntry;
+import com.pl.shugo.gsolog.domain.repository.CallsignLookupCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Second-tier callsign lookup cache in the callsign_lookup_cache table, shared by all
+ * nodes and surviving restarts.
+ * Reads arriving within a short window are answered by one query; writes are sent
+ * in the background and never replace a more recently fetched result.
+ * Negative results (callsigns HamQTH does not know) are stored without a payload.
+ * Batches are only formed as fast as queries finish, and a read not answered within
+ * {@link #READ_TIMEOUT} counts as a miss, so a slow or failing database delays lookups
+ * by at most that long instead of holding them.
+ */
+public class PersistentCallsignLookupCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentCallsignLookupCache.class);
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final Duration BATCH_WINDOW = Duration.ofMillis(5);
+    private static final int MAX_CONCURRENT_BATCHES = 4;
+    private static final Duration EMIT_TIMEOUT = Duration.ofMillis(100);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(1);
+
+    private final CallsignLookupCacheRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private volatile Sinks.Many<PendingRead> reads;
+
+    public PersistentCallsignLookupCache(CallsignLookupCacheRepository repository, ObjectMapper objectMapper,
+                                         Duration ttl, Duration negativeTtl) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        startReads();
+    }
+
+    /**
+     * Start batching reads into a new sink. Should the pipeline ever terminate, it is started
+     * again; reads queued in the old sink are answered as misses by their timeout.
+     */
+    private void startReads() {
+        Sinks.Many<PendingRead> sink = Sinks.many().unicast().onBackpressureBuffer();
+        reads = sink;
+        sink.asFlux()
+                // Fair backpressure: batches wait for a free query slot instead of overflowing
+                .bufferTimeout(MAX_BATCH_SIZE, BATCH_WINDOW, true)
+                .flatMap(this::readBatch, MAX_CONCURRENT_BATCHES)
+                .subscribe(
+                        null,
+                        error -> {
+                            logger.error("Persistent lookup cache reads stopped, restarting", error);
+                            startReads();
+                        },
+                        () -> {
+                            logger.error("Persistent lookup cache reads completed, restarting");
+                            startReads();
+                        });
+    }
+
+    /**
+     * Unexpired result for a normalized callsign, or empty if none is stored or the
+     * persistent tier does not answer in time.
+     */
+    Mono<CachedLookup> get(String callsign) {
+        return Mono.defer(() -> {
+            Sinks.One<CachedLookup> result = Sinks.one();
+            try {
+                reads.emitNext(new PendingRead(callsign, result), Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+            } catch (Sinks.EmissionException e) {
+                logger.warn("Persistent lookup cache read of {} not queued: {}", callsign, e.getMessage());
+                return Mono.empty();
+            }
+            return result.asMono()
+                    .timeout(READ_TIMEOUT, Mono.fromRunnable(
+                            () -> logger.debug("Persistent lookup cache read of {} timed out", callsign)));
+        });
+    }
+
+    /**
+     * Store a result for a normalized callsign in the background.
+     */
+    void put(String callsign, CachedLookup lookup) {
+        String payload = null;
+        if (lookup.response() != null) {
+            try {
+                payload = objectMapper.writeValueAsString(lookup.response());
+            } catch (JsonProcessingException e) {
+                logger.warn("Failed to encode lookup result for {}", callsign, e);
+                return;
+            }
+        }
+        repository.upsert(callsign, payload, lookup.fetchedAt())
+                .subscribe(
+                        updated -> logger.debug("Persisted lookup result for: {}", callsign),
+                        error -> logger.warn("Failed to persist lookup result for {}: {}", callsign, error.getMessage()));
+    }
+
+    private Mono<Void> readBatch(List<PendingRead> batch) {
+        Set<String> callsigns = new LinkedHashSet<>();
+        batch.forEach(read -> callsigns.add(read.callsign()));
+
+        return repository.findFetchedAfter(callsigns, Instant.now().minus(ttl))
+                .collectList()
+                .map(this::decode)
+                .onErrorResume(error -> {
+                    logger.warn("Persistent lookup cache read failed: {}", error.getMessage());
+                    return Mono.just(Map.of());
+                })
+                .doOnNext(found -> batch.forEach(read -> {
+                    CachedLookup lookup = found.get(read.callsign());
+                    if (lookup != null) {
+                        read.result().tryEmitValue(lookup);
+                    } else {
+                        read.result().tryEmitEmpty();
+                    }
+                }))
+                .then();
+    }
+
+    private Map<String, CachedLookup> decode(List<CallsignLookupCacheEntry> entries) {
+        Map<String, CachedLookup> found = new HashMap<>();
+        Instant negativeCutoff = Instant.now().minus(negativeTtl);
+        for (CallsignLookupCacheEntry entry : entries) {
+            if (entry.getPayload() == null) {
+                if (entry.getFetchedAt().isAfter(negativeCutoff)) {
+                    found.put(entry.getCallsign(), new CachedLookup(null, entry.getFetchedAt()));
+                }
+                continue;
+            }
+            try {
+                CallsignLookupResponse response = objectMapper.readValue(entry.getPayload(), CallsignLookupResponse.class);
+                found.put(entry.getCallsign(), new CachedLookup(response, entry.getFetchedAt()));
+            } catch (JsonProcessingException e) {
+                // Treated as a miss: the next lookup fetches and overwrites it
+                logger.warn("Failed to decode persisted lookup result for {}", entry.getCallsign(), e);
+            }
+        }
+        return found;
+    }
+
+    private record PendingRead(String callsign, Sinks.One<CachedLookup> result) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.pl.shugo.gsolog.infrastructure.config;
+
+import com.pl.shugo.gsolog.application.service.AdminService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically refreshes the admin statistics materialized views.
+ * Skips a tick if the previous refresh is still running.
+ */
+@Component
+@ConditionalOnProperty(name = "admin.stats.refresh-enabled", havingValue = "true", matchIfMissing = true)
+public class AdminStatsRefreshScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminStatsRefreshScheduler.class);
+
+    private final AdminService adminService;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public AdminStatsRefreshScheduler(AdminService adminService) {
+        this.adminService = adminService;
+    }
+
+    @Scheduled(
+            initialDelayString = "${admin.stats.refresh-initial-delay-ms:60000}",
+            fixedDelayString = "${admin.stats.refresh-interval-ms:300000}"
+    )
+    public void refresh() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Admin stats refresh still running, skipping");
+            return;
+        }
+
+        adminService.refreshSystemStats()
+                .doOnSuccess(ignored -> log.debug("Admin stats views refreshed"))
+                .doOnError(error -> log.warn("Admin stats refresh failed: {}", error.getMessage()))
+                .doFinally(signal -> running.set(false))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+}
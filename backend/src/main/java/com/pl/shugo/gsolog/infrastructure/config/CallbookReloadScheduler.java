@@ -0,0 +1,28 @@
+package com.pl.shugo.gsolog.infrastructure.config;
+
+import com.pl.shugo.gsolog.infrastructure.adapter.LocalCallbook;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically checks the local callbook for a new file (or newer source dump) and swaps it in.
+ */
+@Component
+@ConditionalOnExpression("!'${callbook.path:}'.isEmpty()")
+public class CallbookReloadScheduler {
+
+    private final LocalCallbook callbook;
+
+    public CallbookReloadScheduler(LocalCallbook callbook) {
+        this.callbook = callbook;
+    }
+
+    @Scheduled(
+            initialDelayString = "${callbook.reload-interval-ms:60000}",
+            fixedDelayString = "${callbook.reload-interval-ms:60000}"
+    )
+    public void reload() {
+        callbook.reload();
+    }
+}
@@ -0,0 +1,33 @@
+package com.pl.shugo.gsolog.infrastructure.config;
+
+import com.pl.shugo.gsolog.application.suggestions.CallsignHistoryCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically drops in-memory callsign histories of idle users.
+ */
+@Component
+public class CallsignHistoryEvictionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(CallsignHistoryEvictionScheduler.class);
+
+    private final CallsignHistoryCache historyCache;
+
+    public CallsignHistoryEvictionScheduler(CallsignHistoryCache historyCache) {
+        this.historyCache = historyCache;
+    }
+
+    @Scheduled(
+            initialDelayString = "${suggestions.history.idle-check-interval-ms:60000}",
+            fixedDelayString = "${suggestions.history.idle-check-interval-ms:60000}"
+    )
+    public void evictIdle() {
+        int evicted = historyCache.evictIdle();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle callsign histories", evicted);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.pl.shugo.gsolog.infrastructure.config;
+
+import com.pl.shugo.gsolog.domain.repository.CallsignLookupCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Periodically deletes persisted callsign lookups older than the lookup cache TTL.
+ * Reads already skip them; this keeps the table from growing with every callsign looked up.
+ */
+@Component
+@ConditionalOnProperty(name = "hamqth.cache.persistent", havingValue = "true", matchIfMissing = true)
+public class CallsignLookupCacheCleanupScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(CallsignLookupCacheCleanupScheduler.class);
+
+    private final CallsignLookupCacheRepository cacheRepository;
+    private final Duration ttl;
+
+    public CallsignLookupCacheCleanupScheduler(CallsignLookupCacheRepository cacheRepository,
+                                               @Value("${hamqth.cache.ttl:24h}") Duration ttl) {
+        this.cacheRepository = cacheRepository;
+        this.ttl = ttl;
+    }
+
+    @Scheduled(
+            initialDelayString = "${hamqth.cache.cleanup-interval-ms:3600000}",
+            fixedDelayString = "${hamqth.cache.cleanup-interval-ms:3600000}"
+    )
+    public void cleanup() {
+        cacheRepository.deleteFetchedBefore(Instant.now().minus(ttl))
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.debug("Deleted {} expired callsign lookup(s)", count);
+                    }
+                })
+                .doOnError(error -> log.warn("Callsign lookup cache cleanup failed: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+}
@@ -1,17 +1,29 @@
 package com.pl.shugo.gsolog.infrastructure.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pl.shugo.gsolog.domain.port.CallsignLookupPort;
+import com.pl.shugo.gsolog.domain.repository.CallsignLookupCacheRepository;
 import com.pl.shugo.gsolog.infrastructure.adapter.HamQthCallsignLookupAdapter;
+import com.pl.shugo.gsolog.infrastructure.adapter.LocalCallbook;
+import com.pl.shugo.gsolog.infrastructure.adapter.LocalCallbookLookupAdapter;
 import com.pl.shugo.gsolog.infrastructure.adapter.MockCallsignLookupAdapter;
+import com.pl.shugo.gsolog.infrastructure.adapter.PersistentCallsignLookupCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 /**
  * Configuration for callsign lookup adapters.
  * Uses HamQTH if credentials are configured, otherwise falls back to mock.
+ * A configured local callbook answers first, with HamQTH (if configured) looking up the rest.
  */
 @Configuration
 public class CallsignLookupConfig {
@@ -27,15 +39,59 @@ public class CallsignLookupConfig {
     @Value("${hamqth.password:}")
     private String hamqthPassword;
 
+    @Value("${hamqth.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Value("${hamqth.cache.ttl:24h}")
+    private Duration cacheTtl;
+
+    @Value("${hamqth.cache.refresh-after:20h}")
+    private Duration cacheRefreshAfter;
+
+    @Value("${hamqth.cache.negative-ttl:1h}")
+    private Duration negativeCacheTtl;
+
+    @Value("${hamqth.cache.persistent:true}")
+    private boolean persistentCacheEnabled;
+
+    @Value("${callbook.path:}")
+    private String callbookPath;
+
+    @Value("${callbook.source:}")
+    private String callbookSource;
+
+    @Bean
+    @ConditionalOnExpression("!'${callbook.path:}'.isEmpty()")
+    public LocalCallbook localCallbook() {
+        return new LocalCallbook(Path.of(callbookPath), callbookSource.isEmpty() ? null : Path.of(callbookSource));
+    }
+
     @Bean
-    public CallsignLookupPort callsignLookupPort() {
+    public CallsignLookupPort callsignLookupPort(ObjectProvider<MeterRegistry> meterRegistry,
+                                                 CallsignLookupCacheRepository cacheRepository,
+                                                 ObjectMapper objectMapper,
+                                                 ObjectProvider<LocalCallbook> localCallbook) {
+        CallsignLookupPort hamqth = null;
         if (hamqthUsername != null && !hamqthUsername.isEmpty() &&
             hamqthPassword != null && !hamqthPassword.isEmpty()) {
             logger.info("Using HamQTH callsign lookup adapter");
-            return new HamQthCallsignLookupAdapter(hamqthBaseUrl, hamqthUsername, hamqthPassword);
-        } else {
-            logger.info("Using mock callsign lookup adapter (HamQTH credentials not configured)");
-            return new MockCallsignLookupAdapter();
+            PersistentCallsignLookupCache persistentCache = persistentCacheEnabled
+                    ? new PersistentCallsignLookupCache(cacheRepository, objectMapper, cacheTtl, negativeCacheTtl)
+                    : null;
+            hamqth = new HamQthCallsignLookupAdapter(hamqthBaseUrl, hamqthUsername, hamqthPassword,
+                    cacheMaximumSize, cacheTtl, cacheRefreshAfter, negativeCacheTtl, meterRegistry.getIfAvailable(),
+                    persistentCache);
+        }
+
+        LocalCallbook callbook = localCallbook.getIfAvailable();
+        if (callbook != null) {
+            logger.info("Using local callbook {}", hamqth != null ? "before HamQTH" : "only");
+            return new LocalCallbookLookupAdapter(callbook, hamqth);
+        }
+        if (hamqth != null) {
+            return hamqth;
         }
+        logger.info("Using mock callsign lookup adapter (HamQTH credentials not configured)");
+        return new MockCallsignLookupAdapter();
     }
 }
@@ -0,0 +1,43 @@
+package com.pl.shugo.gsolog.infrastructure.config;
+
+import com.pl.shugo.gsolog.application.service.ExportJobService;
+import com.pl.shugo.gsolog.domain.entity.User;
+import com.pl.shugo.gsolog.domain.enums.Role;
+import com.pl.shugo.gsolog.domain.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Submits whole-instance backup jobs on the export.backup.cron schedule (disabled by default).
+ * Scheduled backups are owned by the oldest admin account, so they show up in that
+ * admin's export jobs. Run the schedule on one instance only.
+ */
+@Component
+public class ExportBackupScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportBackupScheduler.class);
+
+    private final ExportJobService exportJobService;
+    private final UserRepository userRepository;
+
+    public ExportBackupScheduler(ExportJobService exportJobService, UserRepository userRepository) {
+        this.exportJobService = exportJobService;
+        this.userRepository = userRepository;
+    }
+
+    @Scheduled(cron = "${export.backup.cron:-}")
+    public void backup() {
+        userRepository.findByRoleOrderByCreatedAt(Role.ADMIN)
+                .next()
+                .map(User::getId)
+                .flatMap(exportJobService::submitBackup)
+                .doOnNext(job -> log.info("Scheduled backup job {} submitted", job.getId()))
+                .switchIfEmpty(Mono.fromRunnable(() -> log.warn("Scheduled backup skipped: no admin account")))
+                .doOnError(error -> log.warn("Scheduled backup failed: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+}
@@ -0,0 +1,88 @@
+package com.pl.shugo.gsolog.infrastructure.config;
+
+import com.pl.shugo.gsolog.application.service.ExportJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Background worker for export jobs.
+ * Keeps the heartbeat of jobs this instance renders fresh, requeues jobs whose heartbeat
+ * has lapsed (their instance stopped), polls for pending jobs (submits also start them
+ * immediately), and deletes jobs and files past their retention.
+ */
+@Component
+@ConditionalOnProperty(name = "export.jobs.worker-enabled", havingValue = "true", matchIfMissing = true)
+public class ExportJobScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobScheduler.class);
+
+    private final ExportJobService exportJobService;
+
+    public ExportJobScheduler(ExportJobService exportJobService) {
+        this.exportJobService = exportJobService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        exportJobService.recoverInterruptedJobs()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("Requeued {} interrupted export job(s)", count);
+                    }
+                })
+                .then(exportJobService.runPendingJobs())
+                .doOnError(error -> log.warn("Export job recovery failed: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+
+    @Scheduled(
+            initialDelayString = "${export.jobs.heartbeat-interval-ms:30000}",
+            fixedDelayString = "${export.jobs.heartbeat-interval-ms:30000}"
+    )
+    public void heartbeat() {
+        exportJobService.heartbeat()
+                .then(exportJobService.recoverInterruptedJobs())
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("Requeued {} orphaned export job(s)", count);
+                    }
+                })
+                .doOnError(error -> log.warn("Export job heartbeat failed: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+
+    @Scheduled(
+            initialDelayString = "${export.jobs.poll-interval-ms:5000}",
+            fixedDelayString = "${export.jobs.poll-interval-ms:5000}"
+    )
+    public void poll() {
+        exportJobService.runPendingJobs()
+                .doOnError(error -> log.warn("Export job poll failed: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+
+    @Scheduled(
+            initialDelayString = "${export.jobs.cleanup-interval-ms:3600000}",
+            fixedDelayString = "${export.jobs.cleanup-interval-ms:3600000}"
+    )
+    public void cleanup() {
+        exportJobService.cleanupExpiredJobs()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.debug("Deleted {} expired export job(s)", count);
+                    }
+                })
+                .doOnError(error -> log.warn("Export job cleanup failed: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+}
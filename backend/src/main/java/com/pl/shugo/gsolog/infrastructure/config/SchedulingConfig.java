@@ -0,0 +1,12 @@
+package com.pl.shugo.gsolog.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's scheduled tasks (background refresh and cleanup jobs).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
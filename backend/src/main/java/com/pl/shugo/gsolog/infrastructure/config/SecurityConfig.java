@@ -25,7 +25,7 @@ import org.springframework.http.HttpStatus;
  * - /api/v1/auth/login
  * - /actuator/**
  * - /swagger-ui.html, /api-docs, /webjars/**
- * - /api/v1/lookup/**
+ * - /api/v1/lookup/** (except POST /api/v1/lookup/batch)
  * - /api/v1/ai/qso-description
  *
  * ADMIN-only access:
@@ -33,6 +33,7 @@ import org.springframework.http.HttpStatus;
  *
  * Authenticated access (JWT required):
  * - /api/v1/qso/**
+ * - POST /api/v1/lookup/batch
  * - /api/v1/stats/**
  * - /api/v1/export/**
  * - /api/v1/ai/** (except qso-description)
@@ -79,6 +80,7 @@ public class SecurityConfig {
                         .pathMatchers("/api-docs", "/api-docs/**").permitAll()
                         .pathMatchers("/v3/api-docs/**").permitAll()
                         .pathMatchers("/webjars/**").permitAll()
+                        .pathMatchers(HttpMethod.POST, "/api/v1/lookup/batch").authenticated()
                         .pathMatchers("/api/v1/lookup/**").permitAll()
                         .pathMatchers("/api/v1/ai/qso-description").permitAll()
 
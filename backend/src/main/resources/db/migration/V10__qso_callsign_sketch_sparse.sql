@@ -0,0 +1,123 @@
+-- QSO Log Database Schema V10
+-- Per-user monthly HyperLogLog sketches of worked callsigns, one per band/mode cell.
+-- Sketches are maintained by trigger and merged at query time to estimate
+-- unique stations for any band, mode, and month range.
+--
+-- Layout: precision 14 (16384 registers, ~0.8% standard error).
+-- Register index = low 14 bits of the callsign hash; register value = position
+-- of the first set bit in the next 50 bits. Registers are stored sparsely, one row
+-- per non-empty register, so a cell costs rows in proportion to its distinct callsigns
+-- (at most 16384) rather than a dense 16 KB sketch.
+--
+-- Write cost per QSO: an insert upserts one small row, and skips the write entirely
+-- when the register already holds an equal or higher rank (the common case for a
+-- repeat callsign). An update or delete only touches the one register the old
+-- callsign hashed to, and only rescans the cell's QSOs when that callsign set it.
+--
+-- Read cost: registers are merged and summed in SQL, so the query reads each stored
+-- register in the range once per dimension (at most 16384 per cell, and no more than
+-- the distinct callsigns in it). It does not depend on the number of QSOs, but does
+-- grow with the number of months and band/mode cells in the range.
+
+CREATE TABLE qso_callsign_sketch_register (
+    user_id UUID NOT NULL,
+    month DATE NOT NULL,
+    band VARCHAR(20) NOT NULL,
+    mode VARCHAR(50) NOT NULL,
+    register_index SMALLINT NOT NULL,
+    rank SMALLINT NOT NULL,
+
+    CONSTRAINT pk_qso_callsign_sketch_register PRIMARY KEY (user_id, month, band, mode, register_index),
+    CONSTRAINT fk_qso_callsign_sketch_register_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- 64-bit hash of the normalized callsign
+CREATE OR REPLACE FUNCTION qso_callsign_hash(callsign TEXT)
+RETURNS BIGINT AS $$
+    SELECT hashtextextended(UPPER(TRIM(callsign)), 0);
+$$ LANGUAGE sql IMMUTABLE STRICT;
+
+CREATE OR REPLACE FUNCTION qso_callsign_hll_index(hash BIGINT)
+RETURNS INTEGER AS $$
+    SELECT (hash & 16383)::integer;
+$$ LANGUAGE sql IMMUTABLE STRICT;
+
+CREATE OR REPLACE FUNCTION qso_callsign_hll_rank(hash BIGINT)
+RETURNS INTEGER AS $$
+    SELECT CASE WHEN position(B'1' IN (hash >> 14)::bit(50)) = 0 THEN 51
+                ELSE position(B'1' IN (hash >> 14)::bit(50)) END;
+$$ LANGUAGE sql IMMUTABLE STRICT;
+
+-- Inserts raise one register; updates and deletes recompute the old callsign's register
+-- from the cell's remaining QSOs, since HyperLogLog registers cannot forget a value
+CREATE OR REPLACE FUNCTION update_qso_callsign_sketch()
+RETURNS TRIGGER AS $$
+DECLARE
+    old_month DATE;
+    new_month DATE;
+    h BIGINT;
+    old_index INTEGER;
+    remaining INTEGER;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        old_month := date_trunc('month', OLD.qso_date::timestamp)::date;
+        h := qso_callsign_hash(OLD.their_callsign);
+        old_index := qso_callsign_hll_index(h);
+
+        -- A lower rank than the stored one was not what set the register
+        IF EXISTS (
+            SELECT 1 FROM qso_callsign_sketch_register
+            WHERE user_id = OLD.user_id AND month = old_month AND band = OLD.band AND mode = OLD.mode
+            AND register_index = old_index AND rank = qso_callsign_hll_rank(h)
+        ) THEN
+            SELECT MAX(qso_callsign_hll_rank(qso_callsign_hash(their_callsign))) INTO remaining
+            FROM qso
+            WHERE user_id = OLD.user_id
+            AND qso_date >= old_month
+            AND qso_date < (old_month + INTERVAL '1 month')::date
+            AND band = OLD.band
+            AND mode = OLD.mode
+            AND qso_callsign_hll_index(qso_callsign_hash(their_callsign)) = old_index;
+
+            IF remaining IS NULL THEN
+                DELETE FROM qso_callsign_sketch_register
+                WHERE user_id = OLD.user_id AND month = old_month AND band = OLD.band AND mode = OLD.mode
+                AND register_index = old_index;
+            ELSE
+                UPDATE qso_callsign_sketch_register
+                SET rank = remaining
+                WHERE user_id = OLD.user_id AND month = old_month AND band = OLD.band AND mode = OLD.mode
+                AND register_index = old_index;
+            END IF;
+        END IF;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        new_month := date_trunc('month', NEW.qso_date::timestamp)::date;
+        h := qso_callsign_hash(NEW.their_callsign);
+
+        INSERT INTO qso_callsign_sketch_register (user_id, month, band, mode, register_index, rank)
+        VALUES (NEW.user_id, new_month, NEW.band, NEW.mode, qso_callsign_hll_index(h), qso_callsign_hll_rank(h))
+        ON CONFLICT (user_id, month, band, mode, register_index) DO UPDATE
+        SET rank = EXCLUDED.rank
+        WHERE qso_callsign_sketch_register.rank < EXCLUDED.rank;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_qso_callsign_sketch
+    AFTER INSERT OR DELETE OR UPDATE OF user_id, qso_date, band, mode, their_callsign ON qso
+    FOR EACH ROW
+    EXECUTE FUNCTION update_qso_callsign_sketch();
+
+-- Backfill sketches for existing logs
+INSERT INTO qso_callsign_sketch_register (user_id, month, band, mode, register_index, rank)
+SELECT user_id, month, band, mode, qso_callsign_hll_index(h), MAX(qso_callsign_hll_rank(h))
+FROM (
+    SELECT user_id, date_trunc('month', qso_date::timestamp)::date AS month, band, mode,
+           qso_callsign_hash(their_callsign) AS h
+    FROM qso
+) hashes
+GROUP BY user_id, month, band, mode, qso_callsign_hll_index(h);
@@ -0,0 +1,10 @@
+-- QSO Log Database Schema V11
+-- Heartbeat of running export jobs. The instance rendering a job refreshes heartbeat_at;
+-- a job whose heartbeat is older than the lease is taken to be orphaned by a stopped
+-- instance and requeued, while jobs that live instances are rendering are left alone.
+
+ALTER TABLE export_job ADD COLUMN heartbeat_at TIMESTAMP WITH TIME ZONE;
+
+UPDATE export_job SET heartbeat_at = started_at WHERE status = 'RUNNING';
+
+CREATE INDEX idx_export_job_heartbeat ON export_job(heartbeat_at) WHERE status = 'RUNNING';
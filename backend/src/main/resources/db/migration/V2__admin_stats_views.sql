@@ -0,0 +1,58 @@
+-- QSO Log Database Schema V2
+-- System-wide statistics for administrators.
+-- Materialized views are refreshed CONCURRENTLY on a schedule, so admin
+-- dashboards never scan the whole qso table while operators are logging.
+-- Each view needs a unique index for REFRESH ... CONCURRENTLY.
+
+-- QSO counts by band across all users
+CREATE MATERIALIZED VIEW mv_admin_stats_by_band AS
+SELECT
+    band,
+    COUNT(*) AS count_all,
+    COUNT(CASE WHEN qsl_status = 'CONFIRMED' OR lotw_status = 'CONFIRMED' OR eqsl_status = 'CONFIRMED'
+               THEN 1 END) AS count_confirmed
+FROM qso
+GROUP BY band;
+
+CREATE UNIQUE INDEX idx_mv_admin_stats_by_band ON mv_admin_stats_by_band(band);
+
+-- QSO counts by mode across all users
+CREATE MATERIALIZED VIEW mv_admin_stats_by_mode AS
+SELECT
+    mode,
+    COUNT(*) AS count_all,
+    COUNT(CASE WHEN qsl_status = 'CONFIRMED' OR lotw_status = 'CONFIRMED' OR eqsl_status = 'CONFIRMED'
+               THEN 1 END) AS count_confirmed
+FROM qso
+GROUP BY mode;
+
+CREATE UNIQUE INDEX idx_mv_admin_stats_by_mode ON mv_admin_stats_by_mode(mode);
+
+-- QSO counts by day across all users
+CREATE MATERIALIZED VIEW mv_admin_stats_by_day AS
+SELECT
+    qso_date,
+    COUNT(*) AS count_all,
+    COUNT(CASE WHEN qsl_status = 'CONFIRMED' OR lotw_status = 'CONFIRMED' OR eqsl_status = 'CONFIRMED'
+               THEN 1 END) AS count_confirmed
+FROM qso
+GROUP BY qso_date;
+
+CREATE UNIQUE INDEX idx_mv_admin_stats_by_day ON mv_admin_stats_by_day(qso_date);
+
+-- System totals (single row, keyed by a constant id for the unique index).
+-- Active users = users who logged at least one QSO in the last 30 days
+-- as of the last refresh. No index on created_at: the refresh scans qso for
+-- the totals anyway, and an index would tax every QSO insert for this count.
+CREATE MATERIALIZED VIEW mv_admin_totals AS
+SELECT
+    1 AS id,
+    (SELECT COUNT(*) FROM users) AS total_users,
+    (SELECT COUNT(DISTINCT user_id) FROM qso
+     WHERE created_at >= NOW() - INTERVAL '30 days') AS active_users,
+    (SELECT COUNT(*) FROM qso) AS count_all,
+    (SELECT COUNT(*) FROM qso
+     WHERE qsl_status = 'CONFIRMED' OR lotw_status = 'CONFIRMED' OR eqsl_status = 'CONFIRMED') AS count_confirmed,
+    NOW() AS refreshed_at;
+
+CREATE UNIQUE INDEX idx_mv_admin_totals ON mv_admin_totals(id);
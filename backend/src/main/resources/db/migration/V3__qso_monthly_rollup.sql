@@ -0,0 +1,67 @@
+-- QSO Log Database Schema V3
+-- Per-user monthly QSO rollups for coarse (month/year) statistics buckets.
+-- Maintained by trigger, so long-range charts read a few hundred rows
+-- instead of aggregating the whole log.
+
+CREATE TABLE qso_stats_monthly (
+    user_id UUID NOT NULL,
+    month DATE NOT NULL,
+    count_all BIGINT NOT NULL DEFAULT 0,
+    count_confirmed BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_qso_stats_monthly PRIMARY KEY (user_id, month),
+    CONSTRAINT fk_qso_stats_monthly_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Keep rollups in step with qso inserts, updates, and deletes
+CREATE OR REPLACE FUNCTION update_qso_stats_monthly()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE qso_stats_monthly
+        SET count_all = count_all - 1,
+            count_confirmed = count_confirmed -
+                CASE WHEN OLD.qsl_status = 'CONFIRMED' OR OLD.lotw_status = 'CONFIRMED' OR OLD.eqsl_status = 'CONFIRMED'
+                     THEN 1 ELSE 0 END
+        WHERE user_id = OLD.user_id
+        AND month = date_trunc('month', OLD.qso_date::timestamp)::date;
+
+        DELETE FROM qso_stats_monthly
+        WHERE user_id = OLD.user_id
+        AND month = date_trunc('month', OLD.qso_date::timestamp)::date
+        AND count_all <= 0;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO qso_stats_monthly (user_id, month, count_all, count_confirmed)
+        VALUES (
+            NEW.user_id,
+            date_trunc('month', NEW.qso_date::timestamp)::date,
+            1,
+            CASE WHEN NEW.qsl_status = 'CONFIRMED' OR NEW.lotw_status = 'CONFIRMED' OR NEW.eqsl_status = 'CONFIRMED'
+                 THEN 1 ELSE 0 END
+        )
+        ON CONFLICT (user_id, month) DO UPDATE
+        SET count_all = qso_stats_monthly.count_all + EXCLUDED.count_all,
+            count_confirmed = qso_stats_monthly.count_confirmed + EXCLUDED.count_confirmed;
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_qso_stats_monthly
+    AFTER INSERT OR DELETE OR UPDATE OF user_id, qso_date, qsl_status, lotw_status, eqsl_status ON qso
+    FOR EACH ROW
+    EXECUTE FUNCTION update_qso_stats_monthly();
+
+-- Backfill rollups for existing logs
+INSERT INTO qso_stats_monthly (user_id, month, count_all, count_confirmed)
+SELECT
+    user_id,
+    date_trunc('month', qso_date::timestamp)::date,
+    COUNT(*),
+    COUNT(CASE WHEN qsl_status = 'CONFIRMED' OR lotw_status = 'CONFIRMED' OR eqsl_status = 'CONFIRMED'
+               THEN 1 END)
+FROM qso
+GROUP BY 1, 2;
@@ -0,0 +1,5 @@
+-- QSO Log Database Schema V5
+-- Index backing the export keyset cursor on (qso_date, time_on, id),
+-- so each export chunk is an index range scan instead of a sort of the whole log.
+
+CREATE INDEX idx_qso_user_export_cursor ON qso(user_id, qso_date, time_on, id);
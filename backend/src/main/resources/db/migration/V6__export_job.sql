@@ -0,0 +1,29 @@
+-- QSO Log Database Schema V6
+-- Asynchronous export jobs rendered to a local file store.
+-- source_fingerprint identifies the exported QSOs, so an unchanged log reuses a finished artifact;
+-- content_hash is the SHA-256 of the stored file and doubles as the download ETag.
+
+CREATE TABLE export_job (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    format VARCHAR(20) NOT NULL,
+    compression VARCHAR(10) NOT NULL DEFAULT 'none',
+    from_date DATE,
+    to_date DATE,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    source_fingerprint VARCHAR(100),
+    file_name VARCHAR(255),
+    size_bytes BIGINT,
+    content_hash VARCHAR(64),
+    error_message VARCHAR(500),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    started_at TIMESTAMP WITH TIME ZONE,
+    completed_at TIMESTAMP WITH TIME ZONE,
+    expires_at TIMESTAMP WITH TIME ZONE,
+
+    CONSTRAINT chk_export_job_status CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE INDEX idx_export_job_user_created ON export_job(user_id, created_at DESC);
+CREATE INDEX idx_export_job_pending ON export_job(created_at) WHERE status = 'PENDING';
+CREATE INDEX idx_export_job_expires ON export_job(expires_at) WHERE expires_at IS NOT NULL;
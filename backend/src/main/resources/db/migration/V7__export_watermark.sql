@@ -0,0 +1,15 @@
+-- QSO Log Database Schema V7
+-- Incremental exports: per-user, per-target watermark of the last successfully exported
+-- updated_at, plus an index so "changed since" scans touch only the changed rows.
+
+CREATE INDEX idx_qso_user_updated_at ON qso(user_id, updated_at);
+
+CREATE TABLE export_watermark (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    target VARCHAR(50) NOT NULL,
+    watermark TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT uq_export_watermark_user_target UNIQUE (user_id, target)
+);
@@ -0,0 +1,10 @@
+-- QSO Log Database Schema V8
+-- Stored normalized callsign (trimmed, upper-case) for case-insensitive lookups, indexed
+-- together with the QSO date so callsign suggestions are a single index range scan
+-- instead of evaluating UPPER(their_callsign) over every QSO of the user.
+
+ALTER TABLE qso
+    ADD COLUMN their_callsign_norm VARCHAR(50)
+        GENERATED ALWAYS AS (UPPER(TRIM(their_callsign))) STORED;
+
+CREATE INDEX idx_qso_user_callsign_norm ON qso(user_id, their_callsign_norm, qso_date DESC, time_on DESC);
@@ -0,0 +1,11 @@
+-- QSO Log Database Schema V9
+-- Second-tier cache of HamQTH callsign lookups, shared by all nodes and surviving restarts.
+-- One row per normalized callsign; rows older than the cache TTL are ignored and purged.
+
+CREATE TABLE callsign_lookup_cache (
+    callsign VARCHAR(50) PRIMARY KEY,
+    payload JSONB,
+    fetched_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_callsign_lookup_cache_fetched_at ON callsign_lookup_cache(fetched_at);
@@ -1,9 +1,11 @@
 package com.pl.shugo.gsolog.api.controller;
 
 import com.pl.shugo.gsolog.QsoLogApplication;
+import com.pl.shugo.gsolog.api.dto.ExportJobResponse;
 import com.pl.shugo.gsolog.api.dto.LoginRequest;
 import com.pl.shugo.gsolog.api.dto.RegisterRequest;
 import com.pl.shugo.gsolog.domain.entity.User;
+import com.pl.shugo.gsolog.domain.enums.ExportJobStatus;
 import com.pl.shugo.gsolog.domain.enums.Role;
 import com.pl.shugo.gsolog.domain.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +22,17 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * Integration tests for admin endpoints.
  */
@@ -38,7 +51,7 @@ class AdminControllerTest {
             .withPassword("test");
 
     @DynamicPropertySource
-    static void configureProperties(DynamicPropertyRegistry registry) {
+    static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
         registry.add("spring.r2dbc.url", () ->
                 String.format("r2dbc:postgresql://%s:%d/%s",
                         postgres.getHost(),
@@ -50,6 +63,8 @@ class AdminControllerTest {
         registry.add("spring.flyway.url", postgres::getJdbcUrl);
         registry.add("spring.flyway.user", postgres::getUsername);
         registry.add("spring.flyway.password", postgres::getPassword);
+        String directory = Files.createTempDirectory("qsolog-backups").toString();
+        registry.add("export.jobs.directory", () -> directory);
     }
 
     @Autowired
@@ -162,6 +177,120 @@ class AdminControllerTest {
                 .jsonPath("$[?(@.role == 'OPERATOR')]").exists();
     }
 
+    @Test
+    void getSystemStats_shouldReturn403ForOperator() {
+        webTestClient.get()
+                .uri("/api/v1/admin/stats")
+                .header("Authorization", "Bearer " + operatorToken)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void refreshSystemStats_shouldReturn403ForOperator() {
+        webTestClient.post()
+                .uri("/api/v1/admin/stats/refresh")
+                .header("Authorization", "Bearer " + operatorToken)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void getSystemStats_shouldReturnTotalsAfterRefresh() {
+        webTestClient.post()
+                .uri("/api/v1/admin/stats/refresh")
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get()
+                .uri("/api/v1/admin/stats")
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totals.users").isEqualTo(2)
+                .jsonPath("$.totals.all").isEqualTo(0)
+                .jsonPath("$.totals.refreshedAt").isNotEmpty()
+                .jsonPath("$.countsByBand.length()").isEqualTo(0)
+                .jsonPath("$.countsByMode.length()").isEqualTo(0)
+                .jsonPath("$.countsByDay.length()").isEqualTo(0);
+    }
+
+    @Test
+    void startBackup_shouldReturn403ForOperator() {
+        webTestClient.post()
+                .uri("/api/v1/admin/backups")
+                .header("Authorization", "Bearer " + operatorToken)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void startBackup_shouldArchiveEveryUsersLog() throws Exception {
+        ExportJobResponse job = webTestClient.post()
+                .uri("/api/v1/admin/backups")
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody(ExportJobResponse.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(job.format()).isEqualTo("backup");
+
+        ExportJobResponse completed = awaitCompletion(job);
+        assertThat(completed.fileName()).startsWith("qsolog_backup_").endsWith(".zip");
+
+        byte[] zip = webTestClient.get()
+                .uri(completed.downloadUrl())
+                .header("Authorization", "Bearer " + adminToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("application/zip")
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                entries.add(entry.getName());
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).contains("<EOH>");
+            }
+        }
+        assertThat(entries).hasSize(2).allMatch(name -> name.endsWith(".adi"));
+    }
+
+    @Test
+    void submitExportJob_backupFormat_shouldReturnBadRequest() {
+        webTestClient.post()
+                .uri("/api/v1/export/jobs")
+                .header("Authorization", "Bearer " + operatorToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"format\":\"backup\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private ExportJobResponse awaitCompletion(ExportJobResponse job) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            ExportJobResponse current = webTestClient.get()
+                    .uri("/api/v1/export/jobs/" + job.id())
+                    .header("Authorization", "Bearer " + adminToken)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(ExportJobResponse.class)
+                    .returnResult()
+                    .getResponseBody();
+            assertThat(current.status()).isNotEqualTo(ExportJobStatus.FAILED);
+            if (current.status() == ExportJobStatus.COMPLETED) {
+                return current;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Backup job did not complete: " + job.id());
+    }
+
     private String extractToken(String responseBody) {
         String[] parts = responseBody.split("\"accessToken\":\"");
         if (parts.length < 2) return "";
@@ -195,6 +195,45 @@ class AiControllerTest {
                 .jsonPath("$.language").isEqualTo("EN");
     }
 
+    @Test
+    void generatePeriodReport_shouldOmitUniqueStationsForPartialMonths() {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15), "20m", AdifMode.CW);
+        createQso("DL1XYZ", LocalDate.of(2024, 1, 25), "40m", AdifMode.SSB);
+
+        // Unique stations are estimated per whole month only
+        webTestClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/ai/period-report")
+                        .queryParam("from", "2024-01-10")
+                        .queryParam("to", "2024-01-20")
+                        .queryParam("lang", "EN")
+                        .build())
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content").value((String content) -> {
+                    assertThat(content).contains("Total contacts: 1");
+                    assertThat(content).doesNotContain("Unique stations");
+                });
+
+        webTestClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/ai/period-report")
+                        .queryParam("from", "2024-01-01")
+                        .queryParam("to", "2024-01-31")
+                        .queryParam("lang", "EN")
+                        .build())
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content").value((String content) -> {
+                    assertThat(content).contains("Total contacts: 2");
+                    assertThat(content).contains("Unique stations worked: about 2");
+                });
+    }
+
     @Test
     void generatePeriodReport_shouldWorkInPolish() {
         // Create some QSOs
@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -19,9 +20,15 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -56,11 +63,17 @@ class ExportControllerTest {
         registry.add("spring.flyway.url", postgres::getJdbcUrl);
         registry.add("spring.flyway.user", postgres::getUsername);
         registry.add("spring.flyway.password", postgres::getPassword);
+        // Small chunks so exports cross several keyset cursor boundaries
+        registry.add("export.chunk-size", () -> "2");
+        registry.add("export.incremental.lag", () -> "5m");
     }
 
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private DatabaseClient databaseClient;
+
     private String userToken;
     private String username;
 
@@ -294,6 +307,94 @@ class ExportControllerTest {
         assertThat(adif).doesNotContain("G4ABC");
     }
 
+    @Test
+    void exportAdif_shouldOrderAscendingAcrossChunks() {
+        // Created out of order, with two QSOs sharing date and time
+        createQso("G4ABC", LocalDate.of(2024, 2, 1), "20m", AdifMode.CW, null, null);
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15), "20m", AdifMode.CW, null, null);
+        createQso("OK1XYZ", LocalDate.of(2024, 1, 20), "40m", AdifMode.SSB, null, null);
+        createQso("DL1XYZ", LocalDate.of(2024, 1, 20), "40m", AdifMode.CW, null, null);
+        createQso("F5ABC", LocalDate.of(2024, 1, 10), "80m", AdifMode.SSB, null, null);
+
+        String unfiltered = exportAdif("/api/v1/export/adif");
+        String filtered = exportAdif("/api/v1/export/adif?from=2024-01-01&to=2024-12-31");
+
+        for (String adif : new String[]{unfiltered, filtered}) {
+            assertThat(adif.split("<EOR>", -1)).hasSize(6);
+            assertThat(adif.indexOf("F5ABC")).isLessThan(adif.indexOf("SP1ABC"));
+            assertThat(adif.indexOf("SP1ABC")).isLessThan(adif.indexOf("OK1XYZ"));
+            assertThat(adif.indexOf("SP1ABC")).isLessThan(adif.indexOf("DL1XYZ"));
+            assertThat(adif.indexOf("OK1XYZ")).isLessThan(adif.indexOf("G4ABC"));
+            assertThat(adif.indexOf("DL1XYZ")).isLessThan(adif.indexOf("G4ABC"));
+        }
+        // Filters do not change the order, including the tie on date and time
+        assertThat(filtered.substring(filtered.indexOf("<EOH>")))
+                .isEqualTo(unfiltered.substring(unfiltered.indexOf("<EOH>")));
+    }
+
+    @Test
+    void exportAdif_shouldUseUtf8ByteLengthForNonAsciiValues() {
+        createQsoWithRequest(new CreateQsoRequest(
+                "SP9XYZ", LocalDate.of(2024, 1, 15), LocalTime.of(14, 30), "20m", null,
+                AdifMode.SSB, null, null, "59", "59", "Kraków", null, "Miło było", null));
+
+        String adif = exportAdif("/api/v1/export/adif");
+
+        assertThat(adif).contains("<QTH:7>Kraków");
+        assertThat(adif).contains("<COMMENT:11>Miło było");
+    }
+
+    @Test
+    void exportAdif_compressGzip_shouldDownloadGzipFile() throws IOException {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15), "20m", AdifMode.CW, null, null);
+
+        byte[] gzipBytes = webTestClient.get()
+                .uri("/api/v1/export/adif?compress=gzip")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("application/gzip")
+                .expectHeader().valueEquals("Content-Disposition", "attachment; filename=\"qsolog.adi.gz\"")
+                .expectHeader().doesNotExist("Content-Encoding")
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        String adif = gunzip(gzipBytes);
+        assertThat(adif).contains("<EOH>");
+        assertThat(adif).contains("<CALL:6>SP1ABC");
+    }
+
+    @Test
+    void exportCsv_acceptEncodingGzip_shouldGzipTransferEncoding() throws IOException {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15), "20m", AdifMode.CW, null, null);
+
+        byte[] gzipBytes = webTestClient.get()
+                .uri("/api/v1/export/csv")
+                .header("Authorization", "Bearer " + userToken)
+                .header("Accept-Encoding", "gzip, deflate")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("text/csv")
+                .expectHeader().valueEquals("Content-Encoding", "gzip")
+                .expectHeader().valueEquals("Vary", "Accept-Encoding")
+                .expectHeader().valueEquals("Content-Disposition", "attachment; filename=\"qsolog.csv\"")
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(gunzip(gzipBytes)).contains("SP1ABC,2024-01-15");
+    }
+
+    @Test
+    void exportAdif_unsupportedCompression_shouldReturnBadRequest() {
+        webTestClient.get()
+                .uri("/api/v1/export/adif?compress=zip")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void exportCsv_shouldIncludeHeaderAndData() {
         // Create a QSO
@@ -354,6 +455,180 @@ class ExportControllerTest {
         assertThat(csv).contains("\"Nice QSO, \"\"great signal\"\"\"");
     }
 
+    @Test
+    void exportAdx_shouldStreamAdifXml() {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15), "20m", AdifMode.CW, null, null);
+        createQso("DL1XYZ", LocalDate.of(2024, 1, 16), "20m", AdifMode.DATA, null, "VARA HF");
+
+        byte[] adxBytes = webTestClient.get()
+                .uri("/api/v1/export/adx")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_XML_VALUE)
+                .expectHeader().valueEquals("Content-Disposition", "attachment; filename=\"qsolog.adx\"")
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        String adx = new String(adxBytes, StandardCharsets.UTF_8);
+
+        assertThat(adx).startsWith("<?xml");
+        assertThat(adx).contains("<CALL>SP1ABC</CALL>", "<MODE>CW</MODE>");
+        assertThat(adx).contains("<APP PROGRAMID=\"QSOLOG\" FIELDNAME=\"CUSTOMMODE\" TYPE=\"S\">VARA HF</APP>");
+        assertThat(adx.indexOf("SP1ABC")).isLessThan(adx.indexOf("DL1XYZ"));
+        assertThat(adx.trim()).endsWith("</ADX>");
+    }
+
+    @Test
+    void exportCabrillo_shouldUseUsernameAsCallsign() {
+        createQsoWithRequest(new CreateQsoRequest(
+                "SP1ABC", LocalDate.of(2024, 1, 15), LocalTime.of(14, 30), "40m", new BigDecimal("7025.0"),
+                AdifMode.CW, null, null, "599", "579", null, null, null, null));
+
+        byte[] logBytes = webTestClient.get()
+                .uri("/api/v1/export/cabrillo")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("Content-Disposition", "attachment; filename=\"qsolog.log\"")
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        String log = new String(logBytes, StandardCharsets.UTF_8);
+        String callsign = username.toUpperCase(Locale.ROOT);
+
+        assertThat(log).startsWith("START-OF-LOG: 3.0\r\n");
+        assertThat(log).contains("CALLSIGN: " + callsign + "\r\n");
+        assertThat(log).contains("QSO:  7025 CW 2024-01-15 1430 " + callsign + " 599 SP1ABC        579\r\n");
+        assertThat(log).endsWith("END-OF-LOG:\r\n");
+    }
+
+    @Test
+    void exportArrow_shouldStreamArrowIpcFile() {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15), "20m", AdifMode.CW, null, null);
+
+        byte[] arrowBytes = webTestClient.get()
+                .uri("/api/v1/export/arrow")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("application/vnd.apache.arrow.file")
+                .expectHeader().valueEquals("Content-Disposition", "attachment; filename=\"qsolog.arrow\"")
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        // Arrow IPC files start and end with the ARROW1 magic
+        String arrow = new String(arrowBytes, StandardCharsets.ISO_8859_1);
+        assertThat(arrow).startsWith("ARROW1").endsWith("ARROW1");
+        assertThat(arrow).contains("SP1ABC");
+    }
+
+    @Test
+    void export_unknownFormat_shouldReturnNotFound() {
+        webTestClient.get()
+                .uri("/api/v1/export/xlsx")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void exportIncremental_shouldOnlyIncludeChangesSinceLastExport() {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15), "20m", AdifMode.CW, null, null);
+        createQso("DL1XYZ", LocalDate.of(2024, 1, 16), "20m", AdifMode.CW, null, null);
+        ageQsos();
+
+        // First incremental export has no watermark yet, so it includes everything
+        String first = exportAdif("/api/v1/export/adif?incremental=true&target=lotw");
+        assertThat(first).contains("<CALL:6>SP1ABC", "<CALL:6>DL1XYZ");
+
+        String unchanged = exportAdif("/api/v1/export/adif?incremental=true&target=lotw");
+        assertThat(unchanged).contains("<EOH>").doesNotContain("<CALL:");
+
+        createQso("G4ABC", LocalDate.of(2024, 1, 10), "40m", AdifMode.CW, null, null);
+        String changes = exportAdif("/api/v1/export/adif?incremental=true&target=lotw");
+        assertThat(changes).contains("<CALL:5>G4ABC").doesNotContain("SP1ABC", "DL1XYZ");
+
+        // Watermarks are kept per target
+        String otherTarget = exportAdif("/api/v1/export/adif?incremental=true&target=clublog");
+        assertThat(otherTarget).contains("SP1ABC", "DL1XYZ", "G4ABC");
+
+        webTestClient.get()
+                .uri("/api/v1/export/watermarks")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].target").isEqualTo("clublog")
+                .jsonPath("$[1].target").isEqualTo("lotw");
+
+        webTestClient.delete()
+                .uri("/api/v1/export/watermarks/lotw")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        String afterReset = exportAdif("/api/v1/export/adif?incremental=true&target=lotw");
+        assertThat(afterReset).contains("SP1ABC", "DL1XYZ", "G4ABC");
+    }
+
+    @Test
+    void exportIncremental_withDateRange_shouldReturnBadRequestAndKeepWatermark() {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15), "20m", AdifMode.CW, null, null);
+        ageQsos();
+        exportAdif("/api/v1/export/adif?incremental=true&target=lotw");
+
+        createQso("G4ABC", LocalDate.of(2024, 1, 20), "40m", AdifMode.CW, null, null);
+        createQso("DL1XYZ", LocalDate.of(2024, 3, 16), "20m", AdifMode.CW, null, null);
+        webTestClient.get()
+                .uri("/api/v1/export/adif?incremental=true&target=lotw&from=2024-01-01&to=2024-01-31")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        // The change outside the requested range was not skipped over by a watermark advance
+        String next = exportAdif("/api/v1/export/adif?incremental=true&target=lotw");
+        assertThat(next).contains("<CALL:5>G4ABC", "<CALL:6>DL1XYZ").doesNotContain("SP1ABC");
+    }
+
+    @Test
+    void exportIncremental_shouldIncludeChangesCommittedAfterTheExportStarted() {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15), "20m", AdifMode.CW, null, null);
+        ageQsos();
+        exportAdif("/api/v1/export/adif?incremental=true&target=lotw");
+
+        // A QSO whose transaction started just before the export, but only became visible after it:
+        // stamped a second before the export's start, which is the watermark plus the 5m lag
+        databaseClient.sql("""
+                        INSERT INTO qso (user_id, their_callsign, qso_date, time_on, band, mode, created_at, updated_at)
+                        SELECT u.id, 'G4ABC', DATE '2024-01-10', TIME '14:30', '40m', 'CW',
+                               w.watermark + INTERVAL '5 minutes' - INTERVAL '1 second',
+                               w.watermark + INTERVAL '5 minutes' - INTERVAL '1 second'
+                        FROM users u
+                        JOIN export_watermark w ON w.user_id = u.id AND w.target = 'lotw'
+                        WHERE u.username = :username
+                        """)
+                .bind("username", username)
+                .fetch().rowsUpdated()
+                .block();
+
+        String next = exportAdif("/api/v1/export/adif?incremental=true&target=lotw");
+        assertThat(next).contains("<CALL:5>G4ABC").doesNotContain("SP1ABC");
+    }
+
+    @Test
+    void exportIncremental_invalidTarget_shouldReturnBadRequest() {
+        webTestClient.get()
+                .uri("/api/v1/export/adif?incremental=true&target=lotw!")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void exportAdif_shouldRequireAuthentication() {
         webTestClient.get()
@@ -370,6 +645,38 @@ class ExportControllerTest {
                 .expectStatus().isUnauthorized();
     }
 
+    private String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Move every QSO's timestamps back past the incremental export lag, as if logged a while ago.
+     * The updated_at trigger is bypassed for this one transaction.
+     */
+    private void ageQsos() {
+        databaseClient.sql("""
+                        SET LOCAL session_replication_role = replica;
+                        UPDATE qso SET created_at = created_at - INTERVAL '10 minutes',
+                                       updated_at = updated_at - INTERVAL '10 minutes'
+                        """)
+                .then()
+                .block();
+    }
+
+    private String exportAdif(String uri) {
+        byte[] adifBytes = webTestClient.get()
+                .uri(uri)
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+        return new String(adifBytes, StandardCharsets.UTF_8);
+    }
+
     private void createQso(String callsign, LocalDate date, String band, AdifMode mode, AdifSubmode submode, String customMode) {
         CreateQsoRequest request = new CreateQsoRequest(
                 callsign,
@@ -0,0 +1,278 @@
+package com.pl.shugo.gsolog.api.controller;
+
+import com.pl.shugo.gsolog.QsoLogApplication;
+import com.pl.shugo.gsolog.api.dto.CreateQsoRequest;
+import com.pl.shugo.gsolog.api.dto.ExportJobRequest;
+import com.pl.shugo.gsolog.api.dto.ExportJobResponse;
+import com.pl.shugo.gsolog.api.dto.LoginRequest;
+import com.pl.shugo.gsolog.api.dto.RegisterRequest;
+import com.pl.shugo.gsolog.domain.enums.AdifMode;
+import com.pl.shugo.gsolog.domain.enums.ExportJobStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for asynchronous export jobs.
+ * Tests background rendering, artifact reuse, and resumable Range downloads.
+ */
+@SpringBootTest(
+        classes = QsoLogApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+)
+@AutoConfigureWebTestClient
+@Testcontainers(disabledWithoutDocker = true)
+class ExportJobControllerTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("qsolog_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("spring.r2dbc.url", () ->
+                String.format("r2dbc:postgresql://%s:%d/%s",
+                        postgres.getHost(),
+                        postgres.getFirstMappedPort(),
+                        postgres.getDatabaseName()));
+        registry.add("spring.r2dbc.username", postgres::getUsername);
+        registry.add("spring.r2dbc.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.url", postgres::getJdbcUrl);
+        registry.add("spring.flyway.user", postgres::getUsername);
+        registry.add("spring.flyway.password", postgres::getPassword);
+        String directory = Files.createTempDirectory("qsolog-export-jobs").toString();
+        registry.add("export.jobs.directory", () -> directory);
+        registry.add("export.jobs.poll-interval-ms", () -> "200");
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private String userToken;
+
+    @BeforeEach
+    void setUp() {
+        // Register and login user
+        String suffix = UUID.randomUUID().toString().replace("-", "");
+        String username = "jobuser_" + suffix;
+        RegisterRequest user = new RegisterRequest("jobuser+" + suffix + "@test.com", username, "password123");
+        webTestClient.post().uri("/api/v1/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(user)
+                .exchange()
+                .expectStatus().isCreated();
+
+        byte[] tokenBytes = webTestClient.post().uri("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequest(username, "password123"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.accessToken").isNotEmpty()
+                .returnResult()
+                .getResponseBody();
+
+        userToken = extractToken(new String(tokenBytes));
+    }
+
+    @Test
+    void exportJob_shouldRenderFileMatchingStreamingExport() throws Exception {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15));
+        createQso("DL1XYZ", LocalDate.of(2024, 1, 16));
+
+        ExportJobResponse job = awaitCompletion(submitJob(new ExportJobRequest("adif", null, null, null)));
+
+        assertThat(job.fileName()).isEqualTo("qsolog.adi");
+        assertThat(job.downloadUrl()).isEqualTo("/api/v1/export/jobs/" + job.id() + "/download");
+
+        byte[] file = webTestClient.get()
+                .uri(job.downloadUrl())
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.TEXT_PLAIN_VALUE)
+                .expectHeader().valueEquals("Accept-Ranges", "bytes")
+                .expectHeader().valueEquals("ETag", "\"" + job.contentHash() + "\"")
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        assertThat((long) file.length).isEqualTo(job.sizeBytes());
+        assertThat(sha256(file)).isEqualTo(job.contentHash());
+
+        String streamed = new String(webTestClient.get()
+                .uri("/api/v1/export/adif")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .returnResult()
+                .getResponseBody(), StandardCharsets.UTF_8);
+        assertThat(new String(file, StandardCharsets.UTF_8)).isEqualTo(streamed);
+    }
+
+    @Test
+    void download_withRange_shouldResumeFromOffset() throws Exception {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15));
+
+        ExportJobResponse job = awaitCompletion(submitJob(new ExportJobRequest("csv", null, null, "gzip")));
+        assertThat(job.fileName()).isEqualTo("qsolog.csv.gz");
+
+        byte[] full = webTestClient.get()
+                .uri(job.downloadUrl())
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("application/gzip")
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        byte[] tail = webTestClient.get()
+                .uri(job.downloadUrl())
+                .header("Authorization", "Bearer " + userToken)
+                .header("Range", "bytes=10-")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                .expectHeader().valueEquals("Content-Range", "bytes 10-" + (full.length - 1) + "/" + full.length)
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(tail).isEqualTo(Arrays.copyOfRange(full, 10, full.length));
+    }
+
+    @Test
+    void submit_unchangedLog_shouldReuseCompletedJob() throws Exception {
+        createQso("SP1ABC", LocalDate.of(2024, 1, 15));
+        ExportJobResponse first = awaitCompletion(submitJob(new ExportJobRequest("adx", null, null, null)));
+
+        ExportJobResponse again = submitJob(new ExportJobRequest("adx", null, null, null));
+        assertThat(again.id()).isEqualTo(first.id());
+        assertThat(again.status()).isEqualTo(ExportJobStatus.COMPLETED);
+
+        createQso("DL1XYZ", LocalDate.of(2024, 1, 16));
+        ExportJobResponse changed = submitJob(new ExportJobRequest("adx", null, null, null));
+        assertThat(changed.id()).isNotEqualTo(first.id());
+    }
+
+    @Test
+    void submit_unknownFormat_shouldReturnBadRequest() {
+        webTestClient.post()
+                .uri("/api/v1/export/jobs")
+                .header("Authorization", "Bearer " + userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ExportJobRequest("xlsx", null, null, null))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getJob_ofAnotherUser_shouldReturnNotFound() {
+        webTestClient.get()
+                .uri("/api/v1/export/jobs/" + UUID.randomUUID())
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void submit_shouldRequireAuthentication() {
+        webTestClient.post()
+                .uri("/api/v1/export/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ExportJobRequest("adif", null, null, null))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private ExportJobResponse submitJob(ExportJobRequest request) {
+        return webTestClient.post()
+                .uri("/api/v1/export/jobs")
+                .header("Authorization", "Bearer " + userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody(ExportJobResponse.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private ExportJobResponse awaitCompletion(ExportJobResponse job) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            ExportJobResponse current = webTestClient.get()
+                    .uri("/api/v1/export/jobs/" + job.id())
+                    .header("Authorization", "Bearer " + userToken)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(ExportJobResponse.class)
+                    .returnResult()
+                    .getResponseBody();
+            assertThat(current.status()).isNotEqualTo(ExportJobStatus.FAILED);
+            if (current.status() == ExportJobStatus.COMPLETED) {
+                return current;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Export job did not complete: " + job.id());
+    }
+
+    private String sha256(byte[] bytes) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    private void createQso(String callsign, LocalDate date) {
+        CreateQsoRequest request = new CreateQsoRequest(
+                callsign,
+                date,
+                LocalTime.of(14, 30),
+                "20m",
+                null,
+                AdifMode.CW,
+                null,
+                null,
+                "599", "599", null, null, null,
+                null
+        );
+        webTestClient.post()
+                .uri("/api/v1/qso")
+                .header("Authorization", "Bearer " + userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    private String extractToken(String responseBody) {
+        String[] parts = responseBody.split("\"accessToken\":\"");
+        if (parts.length < 2) return "";
+        return parts[1].split("\"")[0];
+    }
+}
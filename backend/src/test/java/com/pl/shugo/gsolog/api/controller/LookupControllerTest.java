@@ -1,10 +1,15 @@
 package com.pl.shugo.gsolog.api.controller;
 
 import com.pl.shugo.gsolog.QsoLogApplication;
+import com.pl.shugo.gsolog.api.dto.CallsignBatchLookupRequest;
+import com.pl.shugo.gsolog.api.dto.CallsignBatchLookupResult;
+import com.pl.shugo.gsolog.api.dto.LoginRequest;
+import com.pl.shugo.gsolog.api.dto.RegisterRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -12,6 +17,11 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * Integration tests for lookup endpoint.
  */
@@ -77,4 +87,68 @@ class LookupControllerTest {
                 .exchange()
                 .expectStatus().isNotFound();
     }
+
+    @Test
+    void lookupBatch_shouldStreamOneResultPerDistinctCallsign() {
+        List<CallsignBatchLookupResult> results = webTestClient.post()
+                .uri("/api/v1/lookup/batch")
+                .header("Authorization", "Bearer " + registerAndLogin())
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(new CallsignBatchLookupRequest(List.of("SP1ABC", "sp1abc ", "DL1XYZ", " ")))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(CallsignBatchLookupResult.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // Mock adapter knows no callsigns
+        assertThat(results).extracting(CallsignBatchLookupResult::callsign)
+                .containsExactlyInAnyOrder("SP1ABC", "DL1XYZ");
+        assertThat(results).noneMatch(CallsignBatchLookupResult::found);
+    }
+
+    @Test
+    void lookupBatch_shouldRejectEmptyRequest() {
+        webTestClient.post()
+                .uri("/api/v1/lookup/batch")
+                .header("Authorization", "Bearer " + registerAndLogin())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CallsignBatchLookupRequest(List.of()))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void lookupBatch_shouldRequireAuthentication() {
+        webTestClient.post()
+                .uri("/api/v1/lookup/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CallsignBatchLookupRequest(List.of("SP1ABC")))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private String registerAndLogin() {
+        String suffix = UUID.randomUUID().toString().replace("-", "");
+        String username = "lookupuser_" + suffix;
+        webTestClient.post().uri("/api/v1/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RegisterRequest("lookupuser+" + suffix + "@test.com", username, "password123"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        byte[] tokenBytes = webTestClient.post().uri("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequest(username, "password123"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+
+        String[] parts = new String(tokenBytes).split("\"accessToken\":\"");
+        return parts.length < 2 ? "" : parts[1].split("\"")[0];
+    }
 }
@@ -4,6 +4,7 @@ import com.pl.shugo.gsolog.QsoLogApplication;
 import com.pl.shugo.gsolog.api.dto.CreateQsoRequest;
 import com.pl.shugo.gsolog.api.dto.LoginRequest;
 import com.pl.shugo.gsolog.api.dto.RegisterRequest;
+import com.pl.shugo.gsolog.api.dto.StatsResponse;
 import com.pl.shugo.gsolog.domain.enums.AdifMode;
 import com.pl.shugo.gsolog.domain.enums.QslStatus;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,18 +12,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * Integration tests for statistics endpoint.
  */
@@ -278,6 +287,219 @@ class StatsControllerTest {
                 .jsonPath("$.countsByDay.length()").isEqualTo(0);
     }
 
+    @Test
+    void getStatsSummary_shouldBucketByMonth() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/stats/summary")
+                        .queryParam("granularity", "month")
+                        .build())
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.countsByDay.length()").isEqualTo(2)
+                .jsonPath("$.countsByDay[?(@.date == '2024-01-01')].countAll").isEqualTo(6)
+                .jsonPath("$.countsByDay[?(@.date == '2024-01-01')].countConfirmed").isEqualTo(3)
+                .jsonPath("$.countsByDay[?(@.date == '2024-02-01')].countAll").isEqualTo(1)
+                .jsonPath("$.totals.all").isEqualTo(7);
+    }
+
+    @Test
+    void getStatsSummary_shouldBucketByMonthForPartialMonthRange() {
+        // Range not aligned to whole months is aggregated from the QSO table
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/stats/summary")
+                        .queryParam("from", "2024-01-17")
+                        .queryParam("to", "2024-02-15")
+                        .queryParam("granularity", "MONTH")
+                        .build())
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.countsByDay.length()").isEqualTo(2)
+                .jsonPath("$.countsByDay[?(@.date == '2024-01-01')].countAll").isEqualTo(4)
+                .jsonPath("$.countsByDay[?(@.date == '2024-02-01')].countAll").isEqualTo(1);
+    }
+
+    @Test
+    void getStatsSummary_shouldBucketByYearAndWeek() {
+        webTestClient.get()
+                .uri("/api/v1/stats/summary?granularity=year")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.countsByDay.length()").isEqualTo(1)
+                .jsonPath("$.countsByDay[0].date").isEqualTo("2024-01-01")
+                .jsonPath("$.countsByDay[0].countAll").isEqualTo(7);
+
+        // ISO weeks: Jan 15-19 fall in the week starting Monday Jan 15, Feb 1 in the week of Jan 29
+        webTestClient.get()
+                .uri("/api/v1/stats/summary?granularity=week")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.countsByDay.length()").isEqualTo(2)
+                .jsonPath("$.countsByDay[?(@.date == '2024-01-15')].countAll").isEqualTo(6)
+                .jsonPath("$.countsByDay[?(@.date == '2024-01-29')].countAll").isEqualTo(1);
+    }
+
+    @Test
+    void getStatsSummary_shouldRejectUnknownGranularity() {
+        webTestClient.get()
+                .uri("/api/v1/stats/summary?granularity=decade")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getUniqueStations_shouldEstimateDistinctCallsigns() {
+        // Same station worked again on another day counts once
+        createQso("SP1ABC", LocalDate.of(2024, 1, 20), "20m", AdifMode.SSB, QslStatus.NONE);
+
+        webTestClient.get()
+                .uri("/api/v1/stats/unique-stations")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(7)
+                .jsonPath("$.byBand['20m']").isEqualTo(4)
+                .jsonPath("$.byBand['40m']").isEqualTo(2)
+                .jsonPath("$.byBand['80m']").isEqualTo(1)
+                .jsonPath("$.byMode.SSB").isEqualTo(4)
+                .jsonPath("$.byMode.CW").isEqualTo(3)
+                .jsonPath("$.byMonth['2024-01-01']").isEqualTo(6)
+                .jsonPath("$.byMonth['2024-02-01']").isEqualTo(1);
+    }
+
+    @Test
+    void getUniqueStations_shouldWidenRangeToWholeMonths() {
+        webTestClient.get()
+                .uri("/api/v1/stats/unique-stations?from=2024-01-18&to=2024-01-20")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.from").isEqualTo("2024-01-01")
+                .jsonPath("$.to").isEqualTo("2024-01-31")
+                .jsonPath("$.total").isEqualTo(6)
+                .jsonPath("$.byMonth.length()").isEqualTo(1);
+    }
+
+    @Test
+    void getUniqueStations_shouldForgetDeletedQsos() {
+        String qsoId = createQsoAndGetId(new CreateQsoRequest(
+                "JA1NEW", LocalDate.of(2024, 3, 5), LocalTime.of(10, 0), "15m", null,
+                AdifMode.CW, null, null, null, null, null, null, null, null));
+
+        webTestClient.get()
+                .uri("/api/v1/stats/unique-stations")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(8)
+                .jsonPath("$.byBand['15m']").isEqualTo(1);
+
+        webTestClient.delete()
+                .uri("/api/v1/qso/" + qsoId)
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get()
+                .uri("/api/v1/stats/unique-stations")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(7)
+                .jsonPath("$.byBand['15m']").doesNotExist()
+                .jsonPath("$.byMonth['2024-03-01']").doesNotExist();
+    }
+
+    @Test
+    void getUniqueStations_shouldFollowQsoMovedToAnotherBand() {
+        String qsoId = createQsoAndGetId(new CreateQsoRequest(
+                "JA1NEW", LocalDate.of(2024, 3, 5), LocalTime.of(10, 0), "15m", null,
+                AdifMode.CW, null, null, null, null, null, null, null, null));
+
+        webTestClient.put()
+                .uri("/api/v1/qso/" + qsoId)
+                .header("Authorization", "Bearer " + userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {
+                            "theirCallsign": "JA1NEW",
+                            "qsoDate": "2024-03-05",
+                            "timeOn": "10:00:00",
+                            "band": "10m",
+                            "mode": "CW"
+                        }
+                        """)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/api/v1/stats/unique-stations")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(8)
+                .jsonPath("$.byBand['15m']").doesNotExist()
+                .jsonPath("$.byBand['10m']").isEqualTo(1)
+                .jsonPath("$.byMonth['2024-03-01']").isEqualTo(1);
+    }
+
+    @Test
+    void streamStats_shouldSendSnapshotThenDeltaOnChange() {
+        Flux<ServerSentEvent<StatsResponse>> events = webTestClient.get()
+                .uri("/api/v1/stats/stream")
+                .header("Authorization", "Bearer " + userToken)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<StatsResponse>>() {})
+                .getResponseBody()
+                .filter(event -> event.data() != null);
+
+        StepVerifier.create(events)
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo("snapshot");
+                    assertThat(event.data().totals().all()).isEqualTo(7L);
+                    assertThat(event.data().countsByBand()).hasSize(3);
+                })
+                // Write off the event-loop thread that delivered the snapshot
+                .then(() -> Schedulers.boundedElastic().schedule(() ->
+                        createQso("OK1NEW", LocalDate.of(2024, 3, 1), "10m", AdifMode.CW, QslStatus.NONE)))
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo("delta");
+                    assertThat(event.data().totals().all()).isEqualTo(8L);
+                    // Only the new band/mode/day entries changed
+                    assertThat(event.data().countsByBand()).hasSize(1);
+                    assertThat(event.data().countsByBand().get(0).band()).isEqualTo("10m");
+                    assertThat(event.data().countsByDay()).hasSize(1);
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(15));
+    }
+
+    @Test
+    void streamStats_shouldRequireAuthentication() {
+        webTestClient.get()
+                .uri("/api/v1/stats/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
     private String createQsoAndGetId(CreateQsoRequest request) {
         byte[] responseBytes = webTestClient.post()
                 .uri("/api/v1/qso")
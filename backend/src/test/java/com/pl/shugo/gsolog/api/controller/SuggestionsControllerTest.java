@@ -3,7 +3,9 @@ package com.pl.shugo.gsolog.api.controller;
 import com.pl.shugo.gsolog.QsoLogApplication;
 import com.pl.shugo.gsolog.api.dto.CreateQsoRequest;
 import com.pl.shugo.gsolog.api.dto.LoginRequest;
+import com.pl.shugo.gsolog.api.dto.QsoResponse;
 import com.pl.shugo.gsolog.api.dto.RegisterRequest;
+import com.pl.shugo.gsolog.api.dto.UpdateQsoRequest;
 import com.pl.shugo.gsolog.domain.enums.AdifMode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -122,6 +124,56 @@ class SuggestionsControllerTest {
                 .jsonPath("$.lastKnownQth").isEqualTo("Munich");
     }
 
+    @Test
+    void getSuggestions_shouldMatchCallsignCaseInsensitively() {
+        createQsoWithQth("ok1abc", LocalDate.of(2024, 1, 15), "Prague", "20m", AdifMode.CW);
+
+        webTestClient.get()
+                .uri("/api/v1/suggestions/callsign/Ok1AbC")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.callsign").isEqualTo("OK1ABC")
+                .jsonPath("$.lastKnownQth").isEqualTo("Prague")
+                .jsonPath("$.mostCommonBand").isEqualTo("20m");
+    }
+
+    @Test
+    void getSuggestions_shouldReflectQsoChangesAfterFirstLookup() {
+        UUID qsoId = createQsoWithQth("SP2AAA", LocalDate.of(2024, 1, 15), "Gdansk", "20m", AdifMode.SSB);
+        getSuggestion("SP2AAA").jsonPath("$.lastKnownQth").isEqualTo("Gdansk");
+
+        // Newer QSO is added to the cached history
+        createQsoWithQth("SP2AAA", LocalDate.of(2024, 2, 1), "Sopot", "40m", AdifMode.CW);
+        getSuggestion("SP2AAA").jsonPath("$.lastKnownQth").isEqualTo("Sopot");
+
+        // Moving a QSO to another callsign rebuilds both summaries
+        UpdateQsoRequest update = new UpdateQsoRequest(
+                "SP3BBB", LocalDate.of(2024, 1, 15), LocalTime.of(14, 30), "20m", null, AdifMode.SSB,
+                null, null, "59", "59", "Poznan", null, null, null, null, null);
+        webTestClient.put()
+                .uri("/api/v1/qso/" + qsoId)
+                .header("Authorization", "Bearer " + userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isOk();
+        getSuggestion("SP2AAA").jsonPath("$.mostCommonBand").isEqualTo("40m");
+        getSuggestion("SP3BBB").jsonPath("$.lastKnownQth").isEqualTo("Poznan");
+
+        webTestClient.delete()
+                .uri("/api/v1/qso/" + qsoId)
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get()
+                .uri("/api/v1/suggestions/callsign/SP3BBB")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
     @Test
     void getSuggestions_shouldReturnNotFoundForUnknownCallsign() {
         webTestClient.get()
@@ -158,6 +210,52 @@ class SuggestionsControllerTest {
                 });
     }
 
+    @Test
+    void getPrefixMatches_shouldReturnWorkedCallsignsByRanking() {
+        createQsoWithQth("SP9ABC", LocalDate.of(2024, 1, 15), null, "20m", AdifMode.SSB);
+        createQsoWithQth("SP9ABC", LocalDate.of(2024, 1, 20), null, "20m", AdifMode.SSB);
+        createQsoWithQth("sp9xyz", LocalDate.of(2024, 3, 1), null, "40m", AdifMode.CW);
+        createQsoWithQth("SP1AAA", LocalDate.of(2024, 4, 1), null, "40m", AdifMode.CW);
+
+        webTestClient.get()
+                .uri("/api/v1/suggestions/prefix?q=sp9")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].callsign").isEqualTo("SP9XYZ")
+                .jsonPath("$[1].callsign").isEqualTo("SP9ABC")
+                .jsonPath("$[1].qsoCount").isEqualTo(2)
+                .jsonPath("$[1].lastQsoDate").isEqualTo("2024-01-20");
+
+        // A QSO logged after the history was built is matched too
+        createQsoWithQth("SP9ZZZ", LocalDate.of(2024, 5, 1), null, "40m", AdifMode.CW);
+        webTestClient.get()
+                .uri("/api/v1/suggestions/prefix?q=SP9&rank=frequent&limit=2")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].callsign").isEqualTo("SP9ABC")
+                .jsonPath("$[1].callsign").isEqualTo("SP9ZZZ");
+    }
+
+    @Test
+    void getPrefixMatches_shouldRejectInvalidParameters() {
+        webTestClient.get()
+                .uri("/api/v1/suggestions/prefix?q=SP&rank=loudest")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get()
+                .uri("/api/v1/suggestions/prefix?q=SP&limit=500")
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     private void createQso(String callsign, LocalDate date, String band, AdifMode mode, String notes) {
         CreateQsoRequest request = new CreateQsoRequest(
                 callsign,
@@ -180,7 +278,16 @@ class SuggestionsControllerTest {
                 .expectStatus().isCreated();
     }
 
-    private void createQsoWithQth(String callsign, LocalDate date, String qth, String band, AdifMode mode) {
+    private WebTestClient.BodyContentSpec getSuggestion(String callsign) {
+        return webTestClient.get()
+                .uri("/api/v1/suggestions/callsign/" + callsign)
+                .header("Authorization", "Bearer " + userToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody();
+    }
+
+    private UUID createQsoWithQth(String callsign, LocalDate date, String qth, String band, AdifMode mode) {
         CreateQsoRequest request = new CreateQsoRequest(
                 callsign,
                 date,
@@ -193,13 +300,17 @@ class SuggestionsControllerTest {
                 "59", "59", qth, null, null,
                 null
         );
-        webTestClient.post()
+        return webTestClient.post()
                 .uri("/api/v1/qso")
                 .header("Authorization", "Bearer " + userToken)
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(request)
                 .exchange()
-                .expectStatus().isCreated();
+                .expectStatus().isCreated()
+                .expectBody(QsoResponse.class)
+                .returnResult()
+                .getResponseBody()
+                .id();
     }
 
     private String extractToken(String responseBody) {
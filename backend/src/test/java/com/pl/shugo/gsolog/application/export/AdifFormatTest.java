@@ -0,0 +1,88 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import com.pl.shugo.gsolog.domain.enums.AdifMode;
+import com.pl.shugo.gsolog.domain.enums.AdifSubmode;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static com.pl.shugo.gsolog.application.export.ExportTestData.bytes;
+import static com.pl.shugo.gsolog.application.export.ExportTestData.qso;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ADIF record encoding.
+ */
+class AdifFormatTest {
+
+    private final AdifFormat format = new AdifFormat();
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    @Test
+    void encode_shouldWriteRequiredAndOptionalFields() {
+        Qso qso = qso("SP1ABC", "Warsaw");
+        qso.setFrequencyKhz(new BigDecimal("14074.000"));
+        qso.setMode(AdifMode.MFSK);
+        qso.setSubmode(AdifSubmode.FT8);
+
+        String adif = encodeToString(List.of(qso));
+
+        assertThat(adif).isEqualTo("<CALL:6>SP1ABC <QSO_DATE:8>20240105 <TIME_ON:6>090705 <BAND:3>20m "
+                + "<MODE:4>MFSK <SUBMODE:3>FT8 <FREQ:6>14.074 <RST_SENT:2>59 <RST_RCVD:2>57 <QTH:6>Warsaw "
+                + "<QSL_RCVD:4>NONE <LOTW_QSLRDATE:7>UNKNOWN <EQSL_QSLRDATE:7>UNKNOWN <EOR>\n");
+    }
+
+    @Test
+    void encode_shouldUseUtf8ByteLength() {
+        String adif = encodeToString(List.of(qso("SP1ABC", "Kraków")));
+
+        // "ó" is two bytes in UTF-8
+        assertThat(adif).contains("<QTH:7>Kraków ");
+    }
+
+    @Test
+    void encode_shouldEmitCustomModeAsData() {
+        Qso qso = qso("SP1ABC", null);
+        qso.setMode(AdifMode.DATA);
+        qso.setCustomMode("VARA HF");
+
+        String adif = encodeToString(List.of(qso));
+
+        assertThat(adif).contains("<MODE:4>DATA <APP_QSOLOG_CUSTOMMODE:7>VARA HF ");
+        assertThat(adif).doesNotContain("<QTH:");
+    }
+
+    @Test
+    void encode_shouldSplitLargeChunksIntoBuffers() {
+        List<Qso> qsos = Collections.nCopies(2000, qso("SP1ABC", "Warsaw"));
+
+        List<DataBuffer> buffers = EncoderSupport.encodeAll(qsos, bufferFactory, format::writeRecord);
+        try {
+            assertThat(buffers).hasSizeGreaterThan(1);
+            assertThat(buffers).allSatisfy(buffer ->
+                    assertThat(buffer.readableByteCount()).isLessThanOrEqualTo(EncoderSupport.BUFFER_SIZE));
+            String adif = buffers.stream()
+                    .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                    .reduce("", String::concat);
+            assertThat(adif.split("<EOR>", -1)).hasSize(2001);
+        } finally {
+            buffers.forEach(DataBufferUtils::release);
+        }
+    }
+
+    @Test
+    void encode_shouldReturnNoBuffersForEmptyChunk() {
+        assertThat(EncoderSupport.encodeAll(List.of(), bufferFactory, format::writeRecord)).isEmpty();
+    }
+
+    private String encodeToString(List<Qso> qsos) {
+        return new String(bytes(EncoderSupport.encodeAll(qsos, bufferFactory, format::writeRecord)), StandardCharsets.UTF_8);
+    }
+}
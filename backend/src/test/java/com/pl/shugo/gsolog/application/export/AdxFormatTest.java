@@ -0,0 +1,98 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import com.pl.shugo.gsolog.domain.enums.AdifMode;
+import com.pl.shugo.gsolog.domain.enums.AdifSubmode;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static com.pl.shugo.gsolog.application.export.ExportTestData.export;
+import static com.pl.shugo.gsolog.application.export.ExportTestData.qso;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ADX (ADIF XML) export.
+ */
+class AdxFormatTest {
+
+    private final AdxFormat format = new AdxFormat();
+
+    @Test
+    void export_shouldWriteRecordFields() throws Exception {
+        Qso qso = qso("SP1ABC", "Kraków & <Wawel>");
+        qso.setFrequencyKhz(new BigDecimal("14074.000"));
+        qso.setMode(AdifMode.MFSK);
+        qso.setSubmode(AdifSubmode.FT8);
+
+        Document document = parse(export(format, List.of(List.of(qso))));
+
+        assertThat(document.getDocumentElement().getTagName()).isEqualTo("ADX");
+        assertThat(text(document, "ADIF_VER")).isEqualTo("3.1.4");
+        assertThat(text(document, "PROGRAMID")).isEqualTo("QSOLOG");
+        assertThat(text(document, "CALL")).isEqualTo("SP1ABC");
+        assertThat(text(document, "QSO_DATE")).isEqualTo("20240105");
+        assertThat(text(document, "TIME_ON")).isEqualTo("090705");
+        assertThat(text(document, "MODE")).isEqualTo("MFSK");
+        assertThat(text(document, "SUBMODE")).isEqualTo("FT8");
+        assertThat(text(document, "FREQ")).isEqualTo("14.074");
+        assertThat(text(document, "QTH")).isEqualTo("Kraków & <Wawel>");
+    }
+
+    @Test
+    void export_shouldEmitCustomModeAsAppField() throws Exception {
+        Qso qso = qso("SP1ABC", null);
+        qso.setMode(AdifMode.DATA);
+        qso.setCustomMode("VARA HF");
+
+        Document document = parse(export(format, List.of(List.of(qso))));
+
+        assertThat(text(document, "MODE")).isEqualTo("DATA");
+        Element app = (Element) document.getElementsByTagName("APP").item(0);
+        assertThat(app.getAttribute("PROGRAMID")).isEqualTo("QSOLOG");
+        assertThat(app.getAttribute("FIELDNAME")).isEqualTo("CUSTOMMODE");
+        assertThat(app.getTextContent()).isEqualTo("VARA HF");
+        assertThat(document.getElementsByTagName("QTH").getLength()).isZero();
+    }
+
+    @Test
+    void export_shouldStayWellFormedAcrossChunksAndBuffers() throws Exception {
+        List<Qso> chunk = Collections.nCopies(1500, qso("SP1ABC", "Warsaw"));
+
+        Document document = parse(export(format, List.of(chunk, chunk, List.of(qso("DL1XYZ", null)))));
+
+        NodeList records = document.getElementsByTagName("RECORD");
+        assertThat(records.getLength()).isEqualTo(3001);
+        assertThat(((Element) records.item(3000)).getElementsByTagName("CALL").item(0).getTextContent())
+                .isEqualTo("DL1XYZ");
+    }
+
+    @Test
+    void export_shouldWriteEmptyDocumentWithoutRecords() throws Exception {
+        Document document = parse(export(format, List.of()));
+
+        assertThat(document.getElementsByTagName("RECORDS").getLength()).isEqualTo(1);
+        assertThat(document.getElementsByTagName("RECORD").getLength()).isZero();
+    }
+
+    @Test
+    void sanitize_shouldDropCharactersNotAllowedInXml() {
+        assertThat(AdxFormat.sanitize("73\u0007 de\tSP1ABC")).isEqualTo("73 de\tSP1ABC");
+        assertThat(AdxFormat.sanitize("Kraków")).isEqualTo("Kraków");
+    }
+
+    private Document parse(byte[] xml) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    }
+
+    private String text(Document document, String tagName) {
+        return document.getElementsByTagName(tagName).item(0).getTextContent();
+    }
+}
@@ -0,0 +1,132 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import com.pl.shugo.gsolog.domain.enums.AdifMode;
+import com.pl.shugo.gsolog.domain.enums.AdifSubmode;
+import com.pl.shugo.gsolog.domain.enums.QslStatus;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static com.pl.shugo.gsolog.application.export.ExportTestData.export;
+import static com.pl.shugo.gsolog.application.export.ExportTestData.qso;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for Arrow IPC export, read back with the Arrow file reader.
+ */
+class ArrowFormatTest {
+
+    private final ArrowFormat format = new ArrowFormat();
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private final BufferAllocator readAllocator = new RootAllocator();
+
+    @AfterEach
+    void tearDown() {
+        readAllocator.close();
+        format.closeAllocator();
+    }
+
+    @Test
+    void export_shouldWriteTypedAndDictionaryEncodedColumns() throws Exception {
+        Qso qso = qso("SP1ABC", "Kraków");
+        qso.setFrequencyKhz(new BigDecimal("14074.000"));
+        qso.setMode(AdifMode.MFSK);
+        qso.setSubmode(AdifSubmode.FT8);
+        qso.setQslStatus(QslStatus.CONFIRMED);
+        Instant createdAt = Instant.parse("2024-01-05T09:08:00.123456Z");
+        qso.setCreatedAt(createdAt);
+
+        try (ArrowFileReader reader = reader(export(format, List.of(List.of(qso))))) {
+            assertThat(reader.loadNextBatch()).isTrue();
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+
+            assertThat(root.getRowCount()).isEqualTo(1);
+            assertThat(root.getVector("call").getObject(0).toString()).isEqualTo("SP1ABC");
+            assertThat(root.getVector("qso_date").getObject(0))
+                    .isEqualTo((int) LocalDate.of(2024, 1, 5).toEpochDay());
+            assertThat(root.getVector("time_on").getObject(0)).isEqualTo(LocalTime.of(9, 7, 5).toSecondOfDay());
+            assertThat(root.getVector("frequency_khz").getObject(0)).isEqualTo(14074.0);
+            assertThat(root.getVector("qth").getObject(0).toString()).isEqualTo("Kraków");
+            assertThat(root.getVector("notes").isNull(0)).isTrue();
+            assertThat(decode(reader, root, "band")).isEqualTo("20m");
+            assertThat(decode(reader, root, "mode")).isEqualTo("MFSK");
+            assertThat(decode(reader, root, "submode")).isEqualTo("FT8");
+            assertThat(decode(reader, root, "qsl_status")).isEqualTo("CONFIRMED");
+            assertThat(root.getVector("created_at").getObject(0))
+                    .isEqualTo(ChronoUnit.MICROS.between(Instant.EPOCH, createdAt));
+            assertThat(reader.loadNextBatch()).isFalse();
+        }
+    }
+
+    @Test
+    void export_shouldWriteRecordBatchesAcrossChunks() throws Exception {
+        List<Qso> chunk = Collections.nCopies(3000, qso("SP1ABC", "Warsaw"));
+
+        try (ArrowFileReader reader = reader(export(format, List.of(chunk, chunk, List.of(qso("DL1XYZ", null)))))) {
+            List<Integer> batchSizes = new ArrayList<>();
+            String lastCall = null;
+            while (reader.loadNextBatch()) {
+                VectorSchemaRoot root = reader.getVectorSchemaRoot();
+                batchSizes.add(root.getRowCount());
+                lastCall = root.getVector("call").getObject(root.getRowCount() - 1).toString();
+            }
+
+            assertThat(batchSizes).containsExactly(ArrowFormat.BATCH_SIZE, 6001 - ArrowFormat.BATCH_SIZE);
+            assertThat(lastCall).isEqualTo("DL1XYZ");
+        }
+    }
+
+    @Test
+    void export_shouldWriteValidFileWithoutRecords() throws Exception {
+        try (ArrowFileReader reader = reader(export(format, List.of()))) {
+            assertThat(reader.getVectorSchemaRoot().getSchema().findField("band").getDictionary()).isNotNull();
+            assertThat(reader.getRecordBlocks()).isEmpty();
+        }
+    }
+
+    @Test
+    void export_shouldReleaseMemoryWhenCancelled() {
+        ExportWriter writer = format.newWriter(new ExportContext(UUID.randomUUID(), "sp9xyz", null, null));
+
+        ExportPipeline.encode(Flux.just(List.of(qso("SP1ABC", null))).concatWith(Flux.never()), writer, bufferFactory)
+                .take(1)
+                .doOnNext(DataBufferUtils::release)
+                .blockLast();
+
+        // Closing the root allocator fails if an export still holds Arrow memory
+        format.closeAllocator();
+    }
+
+    private ArrowFileReader reader(byte[] file) {
+        return new ArrowFileReader(new ByteArrayReadableSeekableByteChannel(file), readAllocator);
+    }
+
+    private String decode(ArrowFileReader reader, VectorSchemaRoot root, String column) throws Exception {
+        FieldVector indices = root.getVector(column);
+        Dictionary dictionary = reader.getDictionaryVectors().get(indices.getField().getDictionary().getId());
+        try (FieldVector values = (FieldVector) DictionaryEncoder.decode(indices, dictionary)) {
+            return values.getObject(0).toString();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import com.pl.shugo.gsolog.domain.enums.AdifMode;
+import com.pl.shugo.gsolog.domain.enums.AdifSubmode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.pl.shugo.gsolog.application.export.ExportTestData.export;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for Cabrillo export.
+ */
+class CabrilloFormatTest {
+
+    private final CabrilloFormat format = new CabrilloFormat();
+
+    @Test
+    void export_shouldWriteHeaderQsoLinesAndFooter() {
+        Qso cw = qso("dl1xyz", "20m", AdifMode.CW, "599", "579");
+        cw.setFrequencyKhz(new BigDecimal("14025.600"));
+
+        String log = log(List.of(cw, qso("G4ABC", "2m", AdifMode.SSB, "59", "57")));
+
+        assertThat(log).isEqualTo("""
+                START-OF-LOG: 3.0\r
+                CREATED-BY: QSOLOG\r
+                CALLSIGN: SP9XYZ\r
+                QSO: 14026 CW 2024-01-05 0907 SP9XYZ        599 DL1XYZ        579\r
+                QSO:   144 PH 2024-01-05 0907 SP9XYZ        59  G4ABC         57\r
+                END-OF-LOG:\r
+                """);
+    }
+
+    @Test
+    void export_shouldLeaveOutQsosWithoutFrequencyOrReports() {
+        Qso noFrequency = qso("DL1XYZ", "20m", AdifMode.CW, "599", "599");
+        Qso noReport = qso("G4ABC", "2m", AdifMode.SSB, "59", null);
+        Qso complete = qso("OK1AB", "2m", AdifMode.SSB, "59", "55");
+
+        String log = log(List.of(noFrequency, noReport, complete));
+
+        assertThat(log).isEqualTo("""
+                START-OF-LOG: 3.0\r
+                CREATED-BY: QSOLOG\r
+                CALLSIGN: SP9XYZ\r
+                QSO:   144 PH 2024-01-05 0907 SP9XYZ        59  OK1AB         55\r
+                SOAPBOX: 2 QSO(s) without frequency or signal reports left out\r
+                END-OF-LOG:\r
+                """);
+    }
+
+    @Test
+    void frequency_shouldUseBandDesignatorOnlyAboveHf() {
+        Qso hf = qso("SP1ABC", "40m", AdifMode.CW, null, null);
+        assertThat(CabrilloFormat.frequency(hf)).isNull();
+        hf.setFrequencyKhz(new BigDecimal("7012.4"));
+        assertThat(CabrilloFormat.frequency(hf)).isEqualTo("7012");
+
+        Qso uhf = qso("SP1ABC", "70cm", AdifMode.FM, null, null);
+        uhf.setFrequencyKhz(new BigDecimal("433500"));
+        assertThat(CabrilloFormat.frequency(uhf)).isEqualTo("432");
+
+        assertThat(CabrilloFormat.frequency(qso("SP1ABC", "23CM", AdifMode.FM, null, null))).isEqualTo("1.2G");
+        assertThat(CabrilloFormat.frequency(qso("SP1ABC", "submm", AdifMode.FM, null, null))).isNull();
+    }
+
+    @Test
+    void mode_shouldMapToCabrilloCategories() {
+        assertThat(CabrilloFormat.mode(qso("SP1ABC", "20m", AdifMode.AM, null, null))).isEqualTo("PH");
+        assertThat(CabrilloFormat.mode(qso("SP1ABC", "20m", AdifMode.RTTY, null, null))).isEqualTo("RY");
+
+        Qso ft8 = qso("SP1ABC", "20m", AdifMode.MFSK, null, null);
+        ft8.setSubmode(AdifSubmode.FT8);
+        assertThat(CabrilloFormat.mode(ft8)).isEqualTo("DG");
+
+        Qso custom = qso("SP1ABC", "20m", AdifMode.DATA, null, null);
+        custom.setCustomMode("VARA HF");
+        assertThat(CabrilloFormat.mode(custom)).isEqualTo("DG");
+    }
+
+    private String log(List<Qso> qsos) {
+        return new String(export(format, List.of(qsos)), StandardCharsets.UTF_8);
+    }
+
+    private Qso qso(String callsign, String band, AdifMode mode, String rstSent, String rstRecv) {
+        return Qso.create(UUID.randomUUID(), callsign, LocalDate.of(2024, 1, 5), LocalTime.of(9, 7, 5),
+                band, null, mode, null, null, rstSent, rstRecv, null, null, null);
+    }
+}
@@ -0,0 +1,66 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import com.pl.shugo.gsolog.domain.enums.AdifMode;
+import com.pl.shugo.gsolog.domain.enums.AdifSubmode;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.pl.shugo.gsolog.application.export.ExportTestData.bytes;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CSV row encoding.
+ */
+class CsvFormatTest {
+
+    private final CsvFormat format = new CsvFormat();
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    @Test
+    void encode_shouldWriteAllColumns() {
+        Qso qso = qso(LocalTime.of(14, 30), "Warsaw", null);
+        qso.setFrequencyKhz(new BigDecimal("14074.000"));
+        qso.setMode(AdifMode.MFSK);
+        qso.setSubmode(AdifSubmode.FT8);
+
+        assertThat(encodeToString(qso)).isEqualTo(
+                "SP1ABC,2024-01-05,14:30,20m,14074.000,MFSK,FT8,,59,57,Warsaw,,,NONE,UNKNOWN,UNKNOWN\n");
+    }
+
+    @Test
+    void encode_shouldWriteSecondsOnlyWhenSet() {
+        assertThat(encodeToString(qso(LocalTime.of(9, 7, 5), null, null)))
+                .startsWith("SP1ABC,2024-01-05,09:07:05,");
+    }
+
+    @Test
+    void encode_shouldQuoteAndEscapeSpecialCharacters() {
+        String csv = encodeToString(qso(LocalTime.of(14, 30), "Kraków, PL", "Said \"hi\"\nthen QRT"));
+
+        assertThat(csv).contains(",\"Kraków, PL\",");
+        assertThat(csv).contains(",\"Said \"\"hi\"\"\nthen QRT\",");
+    }
+
+    @Test
+    void encode_shouldLeaveBlankValuesEmpty() {
+        assertThat(encodeToString(qso(LocalTime.of(14, 30), "   ", null)))
+                .contains(",59,57,,,,NONE,");
+    }
+
+    private String encodeToString(Qso qso) {
+        return new String(bytes(EncoderSupport.encodeAll(List.of(qso), bufferFactory, format::writeRecord)), StandardCharsets.UTF_8);
+    }
+
+    private Qso qso(LocalTime timeOn, String qth, String notes) {
+        return Qso.create(UUID.randomUUID(), "SP1ABC", LocalDate.of(2024, 1, 5), timeOn,
+                "20m", null, AdifMode.SSB, null, null, "59", "57", qth, null, notes);
+    }
+}
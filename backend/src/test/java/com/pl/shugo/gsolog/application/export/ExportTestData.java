@@ -0,0 +1,53 @@
+package com.pl.shugo.gsolog.application.export;
+
+import com.pl.shugo.gsolog.domain.entity.Qso;
+import com.pl.shugo.gsolog.domain.enums.AdifMode;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shared export format test fixtures: a plain SSB QSO, and helpers that run QSOs through
+ * a format and collect the encoded bytes.
+ */
+final class ExportTestData {
+
+    private ExportTestData() {
+    }
+
+    static Qso qso(String callsign, String qth) {
+        return Qso.create(UUID.randomUUID(), callsign, LocalDate.of(2024, 1, 5), LocalTime.of(9, 7, 5),
+                "20m", null, AdifMode.SSB, null, null, "59", "57", qth, null, null);
+    }
+
+    /**
+     * Export the chunks through a new writer for the format, as operator SP9XYZ.
+     */
+    static byte[] export(ExportFormat format, List<List<Qso>> chunks) {
+        ExportWriter writer = format.newWriter(new ExportContext(UUID.randomUUID(), "sp9xyz", null, null));
+        return bytes(ExportPipeline.encode(Flux.fromIterable(chunks), writer,
+                DefaultDataBufferFactory.sharedInstance).toIterable());
+    }
+
+    /**
+     * Concatenate and release the buffers. Callers decode the result once, so a character
+     * split across buffers stays intact.
+     */
+    static byte[] bytes(Iterable<DataBuffer> buffers) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (DataBuffer buffer : buffers) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            output.writeBytes(bytes);
+            DataBufferUtils.release(buffer);
+        }
+        return output.toByteArray();
+    }
+}
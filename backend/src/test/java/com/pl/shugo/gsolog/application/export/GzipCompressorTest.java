@@ -0,0 +1,67 @@
+package com.pl.shugo.gsolog.application.export;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for streaming gzip compression.
+ */
+class GzipCompressorTest {
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    @Test
+    void compress_shouldRoundTripTextAcrossBuffers() throws IOException {
+        String record = "<CALL:6>SP1ABC <QSO_DATE:8>20240115 <BAND:3>20m <MODE:2>CW <QTH:7>Kraków <EOR>\n";
+        String text = record.repeat(20_000);
+
+        byte[] compressed = compress(Flux.fromIterable(List.of(text, text))
+                .map(part -> bufferFactory.wrap(part.getBytes(StandardCharsets.UTF_8))));
+
+        assertThat(compressed.length).isLessThan(text.length() / 10);
+        assertThat(new String(gunzip(compressed), StandardCharsets.UTF_8)).isEqualTo(text + text);
+    }
+
+    @Test
+    void compress_shouldHandleIncompressibleData() throws IOException {
+        byte[] random = new byte[300_000];
+        new SplittableRandom(3).nextBytes(random);
+
+        byte[] compressed = compress(Flux.range(0, 3)
+                .map(i -> bufferFactory.wrap(Arrays.copyOfRange(random, i * 100_000, (i + 1) * 100_000))));
+
+        assertThat(gunzip(compressed)).isEqualTo(random);
+    }
+
+    @Test
+    void compress_shouldProduceValidEmptyArchive() throws IOException {
+        assertThat(gunzip(compress(Flux.empty()))).isEmpty();
+    }
+
+    private byte[] compress(Flux<DataBuffer> input) {
+        DataBuffer joined = DataBufferUtils.join(GzipCompressor.compress(input, bufferFactory)).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        return bytes;
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.pl.shugo.gsolog.application.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the streaming zip archiver.
+ */
+class ZipArchiverTest {
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void archive_shouldKeepEntryOrderWhenCompressingConcurrently() throws IOException {
+        String record = "<CALL:6>SP1ABC <QSO_DATE:8>20240115 <BAND:3>20m <MODE:2>CW <EOR>\n";
+        List<ZipArchiver.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            // Earlier entries finish last, so later ones are compressed while they wait
+            Flux<DataBuffer> content = text(record.repeat(5_000 * (i + 1)), 3)
+                    .delaySubscription(Duration.ofMillis(60 - i * 10L));
+            entries.add(new ZipArchiver.Entry("user" + i + ".adi", content));
+        }
+
+        byte[] zip = archive(Flux.fromIterable(entries), 3);
+
+        Map<String, String> unzipped = unzip(zip);
+        assertThat(unzipped.keySet())
+                .containsExactly("user0.adi", "user1.adi", "user2.adi", "user3.adi", "user4.adi", "user5.adi");
+        assertThat(unzipped.get("user5.adi")).isEqualTo(record.repeat(30_000));
+        assertThat(zip.length).isLessThan(record.length() * 5_000 * 21 / 10);
+    }
+
+    @Test
+    void archive_shouldWriteCentralDirectoryWithSizes() throws IOException {
+        byte[] zip = archive(Flux.just(
+                new ZipArchiver.Entry("SP1ABC.adi", text("Kraków ".repeat(1_000), 1)),
+                new ZipArchiver.Entry("żółw.adi", Flux.empty())), 2);
+
+        Path file = Files.write(tempDir.resolve("backup.zip"), zip);
+        try (ZipFile zipFile = new ZipFile(file.toFile())) {
+            ZipEntry first = zipFile.getEntry("SP1ABC.adi");
+            assertThat(first.getSize()).isEqualTo("Kraków ".repeat(1_000).getBytes(StandardCharsets.UTF_8).length);
+            assertThat(first.getCompressedSize()).isLessThan(first.getSize());
+            assertThat(new String(zipFile.getInputStream(first).readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("Kraków ".repeat(1_000));
+            assertThat(zipFile.getEntry("żółw.adi").getSize()).isZero();
+        }
+    }
+
+    @Test
+    void archive_shouldProduceValidEmptyArchive() throws IOException {
+        byte[] zip = archive(Flux.empty(), 2);
+
+        Path file = Files.write(tempDir.resolve("empty.zip"), zip);
+        try (ZipFile zipFile = new ZipFile(file.toFile())) {
+            assertThat(Collections.list(zipFile.entries())).isEmpty();
+        }
+    }
+
+    private Flux<DataBuffer> text(String value, int parts) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int partSize = bytes.length / parts + 1;
+        return Flux.range(0, parts)
+                .map(i -> bufferFactory.wrap(Arrays.copyOfRange(
+                        bytes, Math.min(i * partSize, bytes.length), Math.min((i + 1) * partSize, bytes.length))));
+    }
+
+    private byte[] archive(Flux<ZipArchiver.Entry> entries, int concurrency) {
+        DataBuffer joined = DataBufferUtils.join(ZipArchiver.archive(entries, concurrency, bufferFactory)).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        return bytes;
+    }
+
+    private static Map<String, String> unzip(byte[] zip) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                entries.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
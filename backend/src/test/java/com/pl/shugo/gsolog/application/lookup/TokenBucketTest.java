@@ -0,0 +1,46 @@
+package com.pl.shugo.gsolog.application.lookup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the token bucket rate limiter.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void reserve_shouldAllowBurstThenPaceAtRate() {
+        TokenBucket bucket = new TokenBucket(2, 3);
+        long now = System.nanoTime();
+
+        assertThat(bucket.reserve(now)).isZero();
+        assertThat(bucket.reserve(now)).isZero();
+        assertThat(bucket.reserve(now)).isZero();
+        // Queued reservations are spaced by 1 / rate
+        assertThat(bucket.reserve(now)).isEqualTo(SECOND / 2);
+        assertThat(bucket.reserve(now)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void reserve_shouldRefillUpToBurstWhileIdle() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long now = System.nanoTime();
+        bucket.reserve(now);
+        bucket.reserve(now);
+
+        long later = now + 10 * SECOND;
+        assertThat(bucket.reserve(later)).isZero();
+        assertThat(bucket.reserve(later)).isZero();
+        assertThat(bucket.reserve(later)).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    void constructor_shouldRejectNonPositiveRate() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.pl.shugo.gsolog.application.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Percentage.withPercentage;
+
+/**
+ * Unit tests for HyperLogLog estimation and merging.
+ */
+class HyperLogLogTest {
+
+    @Test
+    void estimate_shouldBeZeroForEmptySketch() {
+        assertThat(new HyperLogLog().estimate()).isZero();
+    }
+
+    @Test
+    void estimate_shouldBeNearlyExactForSmallCardinalities() {
+        HyperLogLog sketch = new HyperLogLog();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100; i++) {
+            long hash = random.nextLong();
+            sketch.add(hash).add(hash);
+        }
+
+        // Linear counting is off by at most a register collision or two at this size
+        assertThat(sketch.estimate()).isBetween(98L, 102L);
+    }
+
+    @Test
+    void estimate_shouldStayWithinErrorBoundForLargeCardinalities() {
+        HyperLogLog sketch = new HyperLogLog();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 200_000; i++) {
+            sketch.add(random.nextLong());
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(200_000, withPercentage(3));
+    }
+
+    @Test
+    void merge_shouldEstimateUnion() {
+        SplittableRandom random = new SplittableRandom(1);
+        long[] hashes = random.longs(3_000).toArray();
+
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 2_000; i++) {
+            first.add(hashes[i]);
+        }
+        for (int i = 1_000; i < 3_000; i++) {
+            second.add(hashes[i]);
+        }
+
+        assertThat((double) first.merge(second).estimate())
+                .isCloseTo(3_000, withPercentage(3));
+    }
+
+    @Test
+    void estimate_shouldMatchEstimateFromRegisterSummary() {
+        // Register 1 gets rank 51 (no set bit), register 2 rank 1 (top bit set)
+        HyperLogLog sketch = new HyperLogLog().add(1L).add(2L | Long.MIN_VALUE);
+
+        // Summary as the database computes it from the stored registers
+        assertThat(HyperLogLog.estimate(2, Math.scalb(1.0, -51) + Math.scalb(1.0, -1)))
+                .isEqualTo(sketch.estimate())
+                .isEqualTo(2);
+        assertThat(HyperLogLog.estimate(0, 0)).isZero();
+    }
+}
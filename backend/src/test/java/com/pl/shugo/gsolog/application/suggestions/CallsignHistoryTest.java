@@ -0,0 +1,124 @@
+package com.pl.shugo.gsolog.application.suggestions;
+
+import com.pl.shugo.gsolog.domain.enums.CallsignRanking;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for in-memory callsign histories.
+ */
+class CallsignHistoryTest {
+
+    private final CallsignHistory history = new CallsignHistory();
+
+    @Test
+    void find_shouldSummarizeQsosWithCallsign() {
+        history.add("SP1ABC", LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), "20m", "SSB", "Warsaw", "Name: John");
+        history.add("SP1ABC", LocalDate.of(2024, 1, 15), LocalTime.of(10, 0), "20m", "CW", "Krakow", "Second");
+        history.add("SP1ABC", LocalDate.of(2024, 2, 1), LocalTime.of(10, 0), "40m", "CW", "Gdansk", null);
+        history.add("DL1XYZ", LocalDate.of(2024, 3, 1), LocalTime.of(10, 0), "10m", "FT8", "Berlin", null);
+
+        CallsignSuggestion suggestion = history.find("SP1ABC").suggestion();
+
+        assertThat(suggestion).isEqualTo(new CallsignSuggestion(3, "John", "Gdansk", null, "20m", "CW"));
+        assertThat(history.find("OK1AAA").suggestion()).isNull();
+        assertThat(history.size()).isEqualTo(2);
+    }
+
+    @Test
+    void find_shouldBreakTiesByMostRecentUse() {
+        history.add("SP1ABC", LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), "20m", "SSB", null, null);
+        history.add("SP1ABC", LocalDate.of(2024, 3, 1), LocalTime.of(10, 0), "40m", "CW", null, null);
+        // Older QSO logged last still does not replace the most recent one
+        history.add("SP1ABC", LocalDate.of(2023, 6, 1), LocalTime.of(10, 0), "80m", "FT8", "Old QTH", null);
+
+        CallsignSuggestion suggestion = history.find("SP1ABC").suggestion();
+
+        assertThat(suggestion.mostCommonBand()).isEqualTo("40m");
+        assertThat(suggestion.mostCommonMode()).isEqualTo("CW");
+        assertThat(suggestion.lastKnownQth()).isNull();
+    }
+
+    @Test
+    void find_shouldTruncateLongNotes() {
+        history.add("SP1ABC", LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), "20m", "SSB", null, "x".repeat(150));
+
+        assertThat(history.find("SP1ABC").suggestion().lastNotes()).hasSize(100).endsWith("...");
+    }
+
+    @Test
+    void invalidate_shouldRequireReloadOfCallsign() {
+        history.add("SP1ABC", LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), "20m", "SSB", "Warsaw", null);
+
+        history.invalidate("SP1ABC");
+        CallsignHistory.Lookup lookup = history.find("SP1ABC");
+        assertThat(lookup.stale()).isTrue();
+
+        CallsignSummary reloaded = new CallsignSummary();
+        reloaded.add(LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), "40m", "CW", "Krakow", null);
+        assertThat(history.replace("SP1ABC", reloaded, lookup.stamp())).isTrue();
+
+        assertThat(history.find("SP1ABC").suggestion().lastKnownQth()).isEqualTo("Krakow");
+    }
+
+    @Test
+    void replace_shouldBeRejectedWhenCallsignWasWrittenDuringReload() {
+        history.invalidate("SP1ABC");
+        CallsignHistory.Lookup lookup = history.find("SP1ABC");
+
+        history.add("SP1ABC", LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), "20m", "SSB", null, null);
+
+        assertThat(history.replace("SP1ABC", new CallsignSummary(), lookup.stamp())).isFalse();
+        assertThat(history.find("SP1ABC").stale()).isTrue();
+    }
+
+    @Test
+    void replace_shouldForgetCallsignNoLongerInLog() {
+        history.add("SP1ABC", LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), "20m", "SSB", null, null);
+        history.invalidate("SP1ABC");
+
+        assertThat(history.replace("SP1ABC", null, history.find("SP1ABC").stamp())).isTrue();
+
+        CallsignHistory.Lookup lookup = history.find("SP1ABC");
+        assertThat(lookup.stale()).isFalse();
+        assertThat(lookup.suggestion()).isNull();
+        assertThat(history.size()).isZero();
+    }
+
+    @Test
+    void findByPrefix_shouldRankByRecencyOrFrequency() {
+        history.add("SP9ABC", LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), "20m", "SSB", null, null);
+        history.add("SP9ABC", LocalDate.of(2024, 1, 2), LocalTime.of(10, 0), "20m", "SSB", null, null);
+        history.add("SP9XYZ", LocalDate.of(2024, 3, 1), LocalTime.of(10, 0), "40m", "CW", null, null);
+        history.add("SP9AAA", LocalDate.of(2024, 3, 1), LocalTime.of(9, 0), "40m", "CW", null, null);
+        history.add("SP1ABC", LocalDate.of(2024, 5, 1), LocalTime.of(10, 0), "40m", "CW", null, null);
+
+        assertThat(history.findByPrefix("SP9", CallsignRanking.RECENT, 10))
+                .extracting(CallsignMatch::callsign)
+                .containsExactly("SP9XYZ", "SP9AAA", "SP9ABC");
+        assertThat(history.findByPrefix("SP9", CallsignRanking.FREQUENT, 2))
+                .containsExactly(
+                        new CallsignMatch("SP9ABC", 2, LocalDate.of(2024, 1, 2)),
+                        new CallsignMatch("SP9XYZ", 1, LocalDate.of(2024, 3, 1)));
+        assertThat(history.findByPrefix("DL", CallsignRanking.RECENT, 10)).isEmpty();
+    }
+
+    @Test
+    void findByPrefix_shouldLeaveOutStaleCallsigns() {
+        history.add("SP9ABC", LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), "20m", "SSB", null, null);
+        history.add("SP9XYZ", LocalDate.of(2024, 1, 1), LocalTime.of(10, 0), "20m", "SSB", null, null);
+
+        history.invalidate("SP9ABC");
+
+        assertThat(history.staleWithPrefix("SP9")).isEqualTo(List.of("SP9ABC"));
+        assertThat(history.staleWithPrefix("SP1")).isEmpty();
+        assertThat(history.findByPrefix("SP9", CallsignRanking.RECENT, 10))
+                .extracting(CallsignMatch::callsign)
+                .containsExactly("SP9XYZ");
+    }
+}
@@ -0,0 +1,84 @@
+package com.pl.shugo.gsolog.application.suggestions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the radix tree behind callsign autocomplete.
+ */
+class RadixTreeTest {
+
+    private final RadixTree<Integer> tree = new RadixTree<>();
+
+    @Test
+    void put_shouldSplitEdgesOfSharedPrefixes() {
+        tree.put("SP9ABC", 1);
+        tree.put("SP9ABD", 2);
+        tree.put("SP9", 3);
+        tree.put("SP1XYZ", 4);
+
+        assertThat(tree.get("SP9ABC")).isEqualTo(1);
+        assertThat(tree.get("SP9ABD")).isEqualTo(2);
+        assertThat(tree.get("SP9")).isEqualTo(3);
+        assertThat(tree.get("SP1XYZ")).isEqualTo(4);
+        assertThat(tree.get("SP")).isNull();
+        assertThat(tree.get("SP9AB")).isNull();
+        assertThat(tree.get("SP9ABCD")).isNull();
+        assertThat(tree.size()).isEqualTo(4);
+        assertThat(tree.put("SP9", 5)).isEqualTo(3);
+        assertThat(tree.size()).isEqualTo(4);
+    }
+
+    @Test
+    void forEachWithPrefix_shouldVisitMatchingKeysInOrder() {
+        tree.put("SP9ABC", 1);
+        tree.put("SP9ABD", 2);
+        tree.put("SP1XYZ", 3);
+        tree.put("DL1AAA", 4);
+
+        assertThat(keysWithPrefix("SP")).containsExactly("SP1XYZ", "SP9ABC", "SP9ABD");
+        // Prefix ending inside an edge label
+        assertThat(keysWithPrefix("SP9A")).containsExactly("SP9ABC", "SP9ABD");
+        assertThat(keysWithPrefix("SP9ABC")).containsExactly("SP9ABC");
+        assertThat(keysWithPrefix("SP9X")).isEmpty();
+        assertThat(keysWithPrefix("SP9ABCD")).isEmpty();
+        assertThat(keysWithPrefix("")).hasSize(4);
+    }
+
+    @Test
+    void remove_shouldMergeEdgesAndKeepOtherKeys() {
+        tree.put("SP9ABC", 1);
+        tree.put("SP9ABD", 2);
+        tree.put("SP9", 3);
+
+        assertThat(tree.remove("SP9ABC")).isEqualTo(1);
+        assertThat(tree.remove("SP9ABC")).isNull();
+        assertThat(tree.remove("SP9A")).isNull();
+        assertThat(tree.get("SP9ABD")).isEqualTo(2);
+
+        assertThat(tree.remove("SP9")).isEqualTo(3);
+        assertThat(tree.get("SP9ABD")).isEqualTo(2);
+        assertThat(keysWithPrefix("SP9A")).containsExactly("SP9ABD");
+
+        tree.put("SP9ABX", 4);
+        assertThat(keysWithPrefix("SP9AB")).containsExactly("SP9ABD", "SP9ABX");
+        assertThat(tree.size()).isEqualTo(2);
+    }
+
+    @Test
+    void computeIfAbsent_shouldKeepExistingValue() {
+        assertThat(tree.computeIfAbsent("SP9ABC", () -> 1)).isEqualTo(1);
+        assertThat(tree.computeIfAbsent("SP9ABC", () -> 2)).isEqualTo(1);
+        assertThat(tree.size()).isEqualTo(1);
+    }
+
+    private List<String> keysWithPrefix(String prefix) {
+        List<String> keys = new ArrayList<>();
+        tree.forEachWithPrefix(prefix, (key, value) -> keys.add(key));
+        return keys;
+    }
+}
@@ -0,0 +1,274 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the HamQTH adapter against a local stub of the HamQTH XML API.
+ */
+class HamQthCallsignLookupAdapterTest {
+
+    private static final String SESSION_RESPONSE = """
+            <?xml version="1.0"?>
+            <HamQTH version="2.8" xmlns="https://www.hamqth.com">
+            <session><session_id>0123456789abcdef</session_id></session>
+            </HamQTH>
+            """;
+
+    private static final String SEARCH_RESPONSE = """
+            <?xml version="1.0"?>
+            <HamQTH version="2.8" xmlns="https://www.hamqth.com">
+            <search>
+              <callsign>SP1ABC</callsign>
+              <nick>Jan</nick>
+              <country>Poland</country>
+              <grid>JO73GK</grid>
+              <adr_city>Szczecin</adr_city>
+            </search>
+            </HamQTH>
+            """;
+
+    private static final String NOT_FOUND_RESPONSE = """
+            <?xml version="1.0"?>
+            <HamQTH version="2.8" xmlns="https://www.hamqth.com">
+            <session><error>Callsign not found</error></session>
+            </HamQTH>
+            """;
+
+    private static final String RATE_LIMITED_RESPONSE = """
+            <?xml version="1.0"?>
+            <HamQTH version="2.8" xmlns="https://www.hamqth.com">
+            <session><error>Too many requests, try again later</error></session>
+            </HamQTH>
+            """;
+
+    private final AtomicInteger logins = new AtomicInteger();
+    private final AtomicInteger searches = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService executor;
+    private HamQthCallsignLookupAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/xml.php", this::handle);
+        executor = Executors.newFixedThreadPool(4);
+        server.setExecutor(executor);
+        server.start();
+        adapter = new HamQthCallsignLookupAdapter(
+                "http://localhost:" + server.getAddress().getPort(), "user", "password");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void lookup_shouldShareOneRequestAndLoginBetweenConcurrentCallers() {
+        List<CallsignLookupResponse> responses = Flux.range(0, 20)
+                .flatMap(i -> adapter.lookup(i % 2 == 0 ? "SP1ABC" : "sp1abc"))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(responses).hasSize(20)
+                .allSatisfy(response -> assertThat(response.qth()).isEqualTo("Szczecin"));
+        assertThat(logins).hasValue(1);
+        assertThat(searches).hasValue(1);
+
+        // Later callers are answered from the cache
+        assertThat(adapter.lookup("SP1ABC").block(Duration.ofSeconds(5))).isEqualTo(responses.get(0));
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    void lookup_shouldCacheUnknownCallsignAsNegativeResult() {
+        assertThat(adapter.lookup("N0CALL").block(Duration.ofSeconds(5))).isNull();
+        assertThat(adapter.lookup("n0call").block(Duration.ofSeconds(5))).isNull();
+
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    void lookup_shouldBackOffInsteadOfCachingServiceErrors() {
+        assertThat(adapter.lookup("ERR1").block(Duration.ofSeconds(5))).isNull();
+        assertThat(searches).hasValue(1);
+        assertThat(adapter.cachedCount()).isZero();
+
+        // Held back by the failure backoff rather than answered as unknown from the cache
+        assertThat(adapter.lookup("ERR1").block(Duration.ofSeconds(5))).isNull();
+        assertThat(searches).hasValue(1);
+        assertThat(adapter.cachedCount()).isZero();
+    }
+
+    @Test
+    void lookup_shouldServeStaleEntryWhileRefreshingInBackground() {
+        HamQthCallsignLookupAdapter refreshingAdapter = new HamQthCallsignLookupAdapter(
+                "http://localhost:" + server.getAddress().getPort(), "user", "password",
+                100, Duration.ofHours(24), Duration.ZERO, Duration.ofHours(1), null, null);
+        CallsignLookupResponse first = refreshingAdapter.lookup("SP1ABC").block(Duration.ofSeconds(5));
+        assertThat(searches).hasValue(1);
+
+        // Answered from the cache at once, well before the stub answers the refresh
+        List<CallsignLookupResponse> responses = Flux.range(0, 10)
+                .flatMap(i -> refreshingAdapter.lookup("SP1ABC"))
+                .collectList()
+                .block(Duration.ofMillis(100));
+
+        assertThat(responses).hasSize(10).containsOnly(first);
+        sleep(1000);
+        assertThat(searches).hasValue(2);
+    }
+
+    @Test
+    void lookupCached_shouldNotRefreshStaleEntry() {
+        HamQthCallsignLookupAdapter refreshingAdapter = new HamQthCallsignLookupAdapter(
+                "http://localhost:" + server.getAddress().getPort(), "user", "password",
+                100, Duration.ofHours(24), Duration.ZERO, Duration.ofHours(1), null, null);
+        CallsignLookupResponse first = refreshingAdapter.lookup("SP1ABC").block(Duration.ofSeconds(5));
+
+        // Cache probes are answered without a remote call, stale or not
+        assertThat(refreshingAdapter.lookupCached("SP1ABC").block(Duration.ofSeconds(5))).contains(first);
+        sleep(500);
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    void lookup_shouldRejectOversizedResponseWithoutRetrying() {
+        assertThat(adapter.lookup("BIG1").block(Duration.ofSeconds(5))).isNull();
+
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    void cache_shouldStayWithinMaximumSize() {
+        HamQthCallsignLookupAdapter smallAdapter = adapter(2, Duration.ofHours(1), Duration.ofHours(1),
+                null, Ticker.systemTicker());
+        for (String callsign : List.of("SP1ABC", "N0CALL", "N1CALL", "N2CALL")) {
+            smallAdapter.lookup(callsign).block(Duration.ofSeconds(5));
+        }
+
+        assertThat(searches).hasValue(4);
+        assertThat(smallAdapter.cachedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cache_shouldExpireEntriesByFetchTime() {
+        AtomicLong nanos = new AtomicLong();
+        HamQthCallsignLookupAdapter tickingAdapter = adapter(100, Duration.ofHours(1), Duration.ofMinutes(1),
+                null, nanos::get);
+        tickingAdapter.lookup("SP1ABC").block(Duration.ofSeconds(5));
+        tickingAdapter.lookup("N0CALL").block(Duration.ofSeconds(5));
+        assertThat(searches).hasValue(2);
+
+        // The negative result expires first
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        tickingAdapter.lookup("SP1ABC").block(Duration.ofSeconds(5));
+        tickingAdapter.lookup("N0CALL").block(Duration.ofSeconds(5));
+        assertThat(searches).hasValue(3);
+
+        nanos.addAndGet(Duration.ofHours(1).toNanos());
+        tickingAdapter.lookup("SP1ABC").block(Duration.ofSeconds(5));
+        assertThat(searches).hasValue(4);
+    }
+
+    @Test
+    void fetchTimeExpiry_shouldCountFromFetchTime() {
+        var expiry = new HamQthCallsignLookupAdapter.FetchTimeExpiry(Duration.ofHours(24), Duration.ofHours(1));
+        CallsignLookupResponse response = new CallsignLookupResponse("SP1ABC", "Jan", null, null, null);
+
+        long fresh = expiry.expireAfterCreate("SP1ABC", new CachedLookup(response, Instant.now()), 0);
+        long promoted = expiry.expireAfterCreate("SP1ABC",
+                new CachedLookup(response, Instant.now().minus(Duration.ofHours(23))), 0);
+        long negative = expiry.expireAfterCreate("N0CALL",
+                new CachedLookup(null, Instant.now().minus(Duration.ofMinutes(30))), 0);
+        long expiredNegative = expiry.expireAfterCreate("N0CALL",
+                new CachedLookup(null, Instant.now().minus(Duration.ofHours(2))), 0);
+
+        assertThat(fresh).isBetween(Duration.ofHours(23).toNanos(), Duration.ofHours(24).toNanos());
+        assertThat(promoted).isBetween(Duration.ofMinutes(59).toNanos(), Duration.ofHours(1).toNanos());
+        assertThat(negative).isBetween(Duration.ofMinutes(29).toNanos(), Duration.ofMinutes(30).toNanos());
+        assertThat(expiredNegative).isZero();
+        // Reads leave the expiry where it was
+        assertThat(expiry.expireAfterRead("SP1ABC", new CachedLookup(response, Instant.now()), 0, 42)).isEqualTo(42);
+    }
+
+    @Test
+    void cache_shouldPublishMetricsUnderHamQthLookup() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HamQthCallsignLookupAdapter meteredAdapter = adapter(100, Duration.ofHours(1), Duration.ofHours(1),
+                registry, Ticker.systemTicker());
+        meteredAdapter.lookup("SP1ABC").block(Duration.ofSeconds(5));
+        meteredAdapter.lookup("SP1ABC").block(Duration.ofSeconds(5));
+
+        assertThat(registry.get("cache.gets").tag("cache", "hamqth.lookup").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "hamqth.lookup").tag("result", "miss")
+                .functionCounter().count()).isPositive();
+        assertThat(registry.get("cache.size").tag("cache", "hamqth.lookup").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("cache.evictions").tag("cache", "hamqth.lookup").functionCounter()).isNotNull();
+    }
+
+    private HamQthCallsignLookupAdapter adapter(long maximumSize, Duration ttl, Duration negativeTtl,
+                                                SimpleMeterRegistry registry, Ticker ticker) {
+        return new HamQthCallsignLookupAdapter(
+                "http://localhost:" + server.getAddress().getPort(), "user", "password",
+                maximumSize, ttl, ttl, negativeTtl, registry, null, ticker);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        String body;
+        if (query.contains("callsign=")) {
+            searches.incrementAndGet();
+            if (query.contains("callsign=ERR1")) {
+                body = RATE_LIMITED_RESPONSE;
+            } else if (query.contains("callsign=BIG1")) {
+                body = SEARCH_RESPONSE.replace("<search>", "<search><!--"
+                        + "x".repeat(HamQthCallsignLookupAdapter.MAX_RESPONSE_BYTES) + "-->");
+            } else {
+                body = query.contains("callsign=SP1ABC") ? SEARCH_RESPONSE : NOT_FOUND_RESPONSE;
+            }
+        } else {
+            logins.incrementAndGet();
+            body = SESSION_RESPONSE;
+        }
+        sleep(200); // Keep the request in flight while the other callers arrive
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
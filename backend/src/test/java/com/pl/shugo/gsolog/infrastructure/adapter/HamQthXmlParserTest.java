@@ -0,0 +1,77 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.pl.shugo.gsolog.infrastructure.adapter.HamQthXmlParser.HamQthResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the HamQTH XML response parser.
+ */
+class HamQthXmlParserTest {
+
+    @Test
+    void parse_shouldReadSearchFieldsInOnePass() {
+        HamQthResponse response = HamQthXmlParser.parse(bytes("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <HamQTH version="2.8" xmlns="https://www.hamqth.com">
+                <search>
+                  <callsign>SP1ABC</callsign>
+                  <nick>Jan</nick>
+                  <qth>Szczecin</qth>
+                  <country>Poland</country>
+                  <grid>JO73GK</grid>
+                  <adr_name>Jan Kowalski</adr_name>
+                  <adr_city> Łódź </adr_city>
+                  <adr_country>Poland</adr_country>
+                </search>
+                </HamQTH>
+                """));
+
+        assertThat(response).isEqualTo(
+                new HamQthResponse(null, null, "Jan", "Jan Kowalski", "Łódź", "JO73GK", "Poland"));
+    }
+
+    @Test
+    void parse_shouldDecodeEntitiesAndCdata() {
+        HamQthResponse response = HamQthXmlParser.parse("""
+                <HamQTH><search>
+                  <nick><![CDATA[Jan & <Zosia>]]></nick>
+                  <adr_name>O&apos;Brien &amp; S&#243;n</adr_name>
+                </search></HamQTH>
+                """);
+
+        assertThat(response.nick()).isEqualTo("Jan & <Zosia>");
+        assertThat(response.adrName()).isEqualTo("O'Brien & Són");
+    }
+
+    @Test
+    void parse_shouldReadSessionAndError() {
+        HamQthResponse response = HamQthXmlParser.parse("""
+                <HamQTH><session>
+                  <session_id>09b0ae90050be03c452ad235a1f2915ad684393c</session_id>
+                  <error>Callsign not found</error>
+                </session></HamQTH>
+                """);
+
+        assertThat(response.sessionId()).isEqualTo("09b0ae90050be03c452ad235a1f2915ad684393c");
+        assertThat(response.error()).isEqualTo("Callsign not found");
+        assertThat(response.nick()).isNull();
+    }
+
+    @Test
+    void parse_shouldRejectExternalEntities() {
+        assertThatThrownBy(() -> HamQthXmlParser.parse("""
+                <!DOCTYPE HamQTH [<!ENTITY e SYSTEM "file:///etc/passwd">]>
+                <HamQTH><search><nick>&e;</nick></search></HamQTH>
+                """)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static ByteArrayInputStream bytes(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,99 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the memory-mapped local callbook.
+ */
+class LocalCallbookTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void find_shouldAnswerFromCompiledSource() throws Exception {
+        Path source = writeDump("source.csv", """
+                callsign,name,qth,grid,country
+                SP1ABC,Jan,Szczecin,JO73GK,Poland
+                sp2xyz,"Kowalski, Anna",Łódź,,Poland
+                DL1AAA,,,JO62,
+                SP1ABC,Duplicate,,,
+                VERYLONGCALLSIGN/P,Too long,,,
+                """);
+
+        LocalCallbook callbook = new LocalCallbook(directory.resolve("callbook.bin"), source);
+
+        assertThat(callbook.size()).isEqualTo(3);
+        assertThat(callbook.find("sp1abc"))
+                .isEqualTo(new CallsignLookupResponse("SP1ABC", "Jan", "Szczecin", "JO73GK", "Poland"));
+        assertThat(callbook.find("SP2XYZ"))
+                .isEqualTo(new CallsignLookupResponse("SP2XYZ", "Kowalski, Anna", "Łódź", null, "Poland"));
+        assertThat(callbook.find("DL1AAA"))
+                .isEqualTo(new CallsignLookupResponse("DL1AAA", null, null, "JO62", null));
+        assertThat(callbook.find("SP1AB")).isNull();
+        assertThat(callbook.find("SP1ABCD")).isNull();
+        assertThat(callbook.find("")).isNull();
+    }
+
+    @Test
+    void reload_shouldSwapInReplacedFile() throws Exception {
+        Path path = directory.resolve("callbook.bin");
+        CallbookFile.compile(writeDump("first.csv", "callsign,name\nSP1ABC,Jan\n"), path);
+        LocalCallbook callbook = new LocalCallbook(path, null);
+        assertThat(callbook.reload()).isFalse();
+
+        Path replacement = directory.resolve("replacement.bin");
+        CallbookFile.compile(writeDump("second.csv", "callsign,name\nSP1ABC,Janusz\nSP3QQQ,Ewa\n"), replacement);
+        Files.setLastModifiedTime(replacement, FileTime.from(Instant.now().plusSeconds(5)));
+        Files.move(replacement, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        assertThat(callbook.reload()).isTrue();
+        assertThat(callbook.find("SP1ABC").name()).isEqualTo("Janusz");
+        assertThat(callbook.find("SP3QQQ").name()).isEqualTo("Ewa");
+    }
+
+    @Test
+    void reload_shouldKeepLoadedCallbookWhenNewFileIsInvalid() throws Exception {
+        Path path = directory.resolve("callbook.bin");
+        CallbookFile.compile(writeDump("first.csv", "callsign,name\nSP1ABC,Jan\n"), path);
+        LocalCallbook callbook = new LocalCallbook(path, null);
+
+        Path invalid = Files.writeString(directory.resolve("invalid.bin"), "not a callbook");
+        Files.move(invalid, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        assertThat(callbook.reload()).isFalse();
+        assertThat(callbook.find("SP1ABC").name()).isEqualTo("Jan");
+    }
+
+    @Test
+    void lookup_shouldFallBackOnlyForCallsignsNotInCallbook() throws Exception {
+        Path path = directory.resolve("callbook.bin");
+        CallbookFile.compile(writeDump("dump.csv", "callsign,name\nSP1ABC,Jan\n"), path);
+        LocalCallbook callbook = new LocalCallbook(path, null);
+        MockCallsignLookupAdapter fallback = new MockCallsignLookupAdapter();
+
+        LocalCallbookLookupAdapter alone = new LocalCallbookLookupAdapter(callbook, null);
+        LocalCallbookLookupAdapter tiered = new LocalCallbookLookupAdapter(callbook, fallback);
+
+        assertThat(alone.lookup("SP1ABC").block().name()).isEqualTo("Jan");
+        assertThat(alone.lookupCached("SP9ZZZ").block()).isEqualTo(Optional.empty());
+        assertThat(tiered.lookupCached("SP1ABC").block()).map(CallsignLookupResponse::name).hasValue("Jan");
+        assertThat(tiered.lookupCached("SP9ZZZ").blockOptional()).isEmpty();
+    }
+
+    private Path writeDump(String name, String content) throws Exception {
+        return Files.writeString(directory.resolve(name), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.pl.shugo.gsolog.domain.port.ExportFileStorePort.StoredFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the local export file store.
+ */
+class LocalExportFileStoreAdapterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void store_shouldWriteFileWithSizeAndSha256() throws Exception {
+        LocalExportFileStoreAdapter store = new LocalExportFileStoreAdapter(directory.toString());
+        UUID jobId = UUID.randomUUID();
+
+        StoredFile stored = store.store(jobId, Flux.just(buffer("<EOH>\n"), buffer("<CALL:6>SP1ABC <EOR>\n"))).block();
+
+        byte[] expected = "<EOH>\n<CALL:6>SP1ABC <EOR>\n".getBytes(StandardCharsets.UTF_8);
+        assertThat(stored.sizeBytes()).isEqualTo(expected.length);
+        assertThat(stored.contentHash())
+                .isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(expected)));
+
+        Resource file = store.open(jobId).block();
+        assertThat(file.getContentAsByteArray()).isEqualTo(expected);
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString())).containsExactly(jobId.toString());
+        }
+    }
+
+    @Test
+    void store_failedContent_shouldLeaveNoFile() throws Exception {
+        LocalExportFileStoreAdapter store = new LocalExportFileStoreAdapter(directory.toString());
+        UUID jobId = UUID.randomUUID();
+
+        Flux<DataBuffer> content = Flux.concat(Flux.just(buffer("partial")),
+                Flux.error(new IllegalStateException("boom")));
+
+        assertThatThrownBy(() -> store.store(jobId, content).block()).hasMessageContaining("boom");
+        assertThat(store.open(jobId).block()).isNull();
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void delete_shouldRemoveStoredFile() {
+        LocalExportFileStoreAdapter store = new LocalExportFileStoreAdapter(directory.toString());
+        UUID jobId = UUID.randomUUID();
+        store.store(jobId, Flux.just(buffer("data"))).block();
+
+        store.delete(jobId).block();
+
+        assertThat(store.open(jobId).block()).isNull();
+    }
+
+    private DataBuffer buffer(String text) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
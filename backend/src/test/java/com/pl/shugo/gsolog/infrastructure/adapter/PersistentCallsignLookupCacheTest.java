@@ -0,0 +1,173 @@
+package com.pl.shugo.gsolog.infrastructure.adapter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pl.shugo.gsolog.QsoLogApplication;
+import com.pl.shugo.gsolog.api.dto.CallsignLookupResponse;
+import com.pl.shugo.gsolog.domain.repository.CallsignLookupCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the persistent callsign lookup cache against PostgreSQL.
+ */
+@SpringBootTest(classes = QsoLogApplication.class)
+@Testcontainers(disabledWithoutDocker = true)
+class PersistentCallsignLookupCacheTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("qsolog_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () ->
+                String.format("r2dbc:postgresql://%s:%d/%s",
+                        postgres.getHost(),
+                        postgres.getFirstMappedPort(),
+                        postgres.getDatabaseName()));
+        registry.add("spring.r2dbc.username", postgres::getUsername);
+        registry.add("spring.r2dbc.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.url", postgres::getJdbcUrl);
+        registry.add("spring.flyway.user", postgres::getUsername);
+        registry.add("spring.flyway.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private CallsignLookupCacheRepository repository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicInteger batchQueries = new AtomicInteger();
+    private PersistentCallsignLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM callsign_lookup_cache").fetch().rowsUpdated().block();
+        cache = new PersistentCallsignLookupCache(countingRepository(), objectMapper,
+                Duration.ofHours(24), Duration.ofHours(1));
+    }
+
+    @Test
+    void get_shouldAnswerConcurrentReadsInBatches() throws Exception {
+        Instant now = Instant.now();
+        for (int i = 0; i < 250; i++) {
+            store("SP" + i + "ABC", now);
+        }
+
+        List<CachedLookup> found = Flux.range(0, 250)
+                .flatMap(i -> cache.get("SP" + i + "ABC"), 250)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(found).hasSize(250)
+                .allSatisfy(lookup -> assertThat(lookup.response().name()).isEqualTo("Jan"));
+        // At most 100 callsigns per query
+        assertThat(batchQueries.get()).isBetween(3, 25);
+    }
+
+    @Test
+    void get_shouldSkipExpiredEntries() throws Exception {
+        Instant now = Instant.now();
+        store("SP1ABC", now.minus(Duration.ofHours(23)));
+        store("SP2ABC", now.minus(Duration.ofHours(25)));
+
+        StepVerifier.create(cache.get("SP1ABC"))
+                .assertNext(lookup -> assertThat(lookup.response().callsign()).isEqualTo("SP1ABC"))
+                .verifyComplete();
+        StepVerifier.create(cache.get("SP2ABC")).verifyComplete();
+        StepVerifier.create(cache.get("SP3ABC")).verifyComplete();
+    }
+
+    @Test
+    void get_shouldReturnNegativeEntriesWithinTheirShorterTtl() {
+        Instant now = Instant.now();
+        repository.upsert("N0CALL", null, now.minus(Duration.ofMinutes(30))).block();
+        repository.upsert("N1CALL", null, now.minus(Duration.ofHours(2))).block();
+
+        StepVerifier.create(cache.get("N0CALL"))
+                .assertNext(lookup -> assertThat(lookup.response()).isNull())
+                .verifyComplete();
+        StepVerifier.create(cache.get("N1CALL")).verifyComplete();
+    }
+
+    @Test
+    void upsert_shouldNotReplaceMoreRecentlyFetchedResult() throws Exception {
+        Instant newer = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Instant older = newer.minus(Duration.ofMinutes(10));
+        assertThat(repository.upsert("SP1ABC", payload("Jan"), newer).block()).isEqualTo(1);
+
+        assertThat(repository.upsert("SP1ABC", payload("Old"), older).block()).isZero();
+        StepVerifier.create(cache.get("SP1ABC"))
+                .assertNext(lookup -> {
+                    assertThat(lookup.response().name()).isEqualTo("Jan");
+                    assertThat(lookup.fetchedAt()).isEqualTo(newer);
+                })
+                .verifyComplete();
+
+        // A later fetch replaces it, also through the background put
+        cache.put("SP1ABC", new CachedLookup(
+                new CallsignLookupResponse("SP1ABC", "Janek", null, null, null), newer.plusSeconds(60)));
+        StepVerifier.create(Mono.defer(() -> cache.get("SP1ABC"))
+                        .filter(lookup -> lookup.response().name().equals("Janek"))
+                        .repeatWhenEmpty(5, repeats -> repeats.delayElements(Duration.ofMillis(100))))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    private void store(String callsign, Instant fetchedAt) throws JsonProcessingException {
+        repository.upsert(callsign, objectMapper.writeValueAsString(
+                new CallsignLookupResponse(callsign, "Jan", "Szczecin", "JO73GK", "Poland")), fetchedAt).block();
+    }
+
+    private String payload(String name) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(new CallsignLookupResponse("SP1ABC", name, null, null, null));
+    }
+
+    /**
+     * The repository, counting batched reads.
+     */
+    private CallsignLookupCacheRepository countingRepository() {
+        return (CallsignLookupCacheRepository) Proxy.newProxyInstance(
+                CallsignLookupCacheRepository.class.getClassLoader(),
+                new Class<?>[]{CallsignLookupCacheRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findFetchedAfter")) {
+                        batchQueries.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(repository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -77,6 +77,15 @@ class DatabaseMigrationTest {
         ).assertNext(result -> {
             assertThat(result).containsKey("count");
         }).verifyComplete();
+
+        // Verify callsign_lookup_cache table exists
+        StepVerifier.create(
+                databaseClient.sql("SELECT COUNT(*) FROM callsign_lookup_cache")
+                        .fetch()
+                        .first()
+        ).assertNext(result -> {
+            assertThat(result).containsKey("count");
+        }).verifyComplete();
     }
 
     @Test
@@ -112,12 +121,13 @@ class DatabaseMigrationTest {
                     SELECT indexname
                     FROM pg_indexes
                     WHERE tablename = 'qso'
-                    AND indexname IN ('idx_qso_user_date', 'idx_qso_user_callsign', 'idx_qso_user_band')
+                    AND indexname IN ('idx_qso_user_date', 'idx_qso_user_callsign', 'idx_qso_user_band',
+                                      'idx_qso_user_callsign_norm')
                     ORDER BY indexname
                 """)
                 .fetch()
                 .all()
-        ).expectNextCount(3)
+        ).expectNextCount(4)
          .verifyComplete();
     }
 }
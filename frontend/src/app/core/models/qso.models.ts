@@ -51,6 +51,12 @@ export interface CallsignSuggestion {
   mostCommonMode?: string;
 }
 
+export interface CallsignMatch {
+  callsign: string;
+  qsoCount: number;
+  lastQsoDate: string;
+}
+
 export interface ModeOption {
   label: string;
   mode: string;
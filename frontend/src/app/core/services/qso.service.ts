@@ -2,7 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../../environments/environment';
-import { QsoRequest, QsoResponse, CallsignSuggestion } from '../models/qso.models';
+import { QsoRequest, QsoResponse, CallsignSuggestion, CallsignMatch } from '../models/qso.models';
 
 @Injectable({
   providedIn: 'root'
@@ -51,4 +51,9 @@ export class QsoService {
   getCallsignSuggestions(callsign: string): Observable<CallsignSuggestion> {
     return this.http.get<CallsignSuggestion>(`${this.suggestionsUrl}/callsign/${callsign}`);
   }
+
+  getCallsignMatches(prefix: string, limit = 10): Observable<CallsignMatch[]> {
+    const params = new HttpParams().set('q', prefix).set('limit', limit.toString());
+    return this.http.get<CallsignMatch[]>(`${this.suggestionsUrl}/prefix`, { params });
+  }
 }
@@ -6,6 +6,7 @@ import { MatCardModule } from '@angular/material/card';
 import { MatFormFieldModule } from '@angular/material/form-field';
 import { MatInputModule } from '@angular/material/input';
 import { MatSelectModule } from '@angular/material/select';
+import { MatAutocompleteModule } from '@angular/material/autocomplete';
 import { MatButtonModule } from '@angular/material/button';
 import { MatDatepickerModule } from '@angular/material/datepicker';
 import { MatNativeDateModule } from '@angular/material/core';
@@ -13,9 +14,10 @@ import { MatProgressSpinnerModule } from '@angular/material/progress-spinner';
 import { MatDialogModule, MatDialog } from '@angular/material/dialog';
 import { MatSnackBar, MatSnackBarModule } from '@angular/material/snack-bar';
 import { HttpErrorResponse } from '@angular/common/http';
+import { catchError, debounceTime, distinctUntilChanged, of, switchMap } from 'rxjs';
 import { QsoService } from '../../../core/services/qso.service';
 import { AiService } from '../../../core/services/ai.service';
-import { QsoRequest, QsoResponse, MODE_OPTIONS, BAND_OPTIONS, ModeOption } from '../../../core/models/qso.models';
+import { QsoRequest, QsoResponse, MODE_OPTIONS, BAND_OPTIONS, ModeOption, CallsignMatch } from '../../../core/models/qso.models';
 
 @Component({
   selector: 'app-qso-form',
@@ -27,6 +29,7 @@ import { QsoRequest, QsoResponse, MODE_OPTIONS, BAND_OPTIONS, ModeOption } from
     MatFormFieldModule,
     MatInputModule,
     MatSelectModule,
+    MatAutocompleteModule,
     MatButtonModule,
     MatDatepickerModule,
     MatNativeDateModule,
@@ -48,6 +51,7 @@ export class QsoFormComponent implements OnInit {
   bandOptions = BAND_OPTIONS;
   selectedModeOption?: ModeOption;
   showCustomModeField = false;
+  callsignMatches: CallsignMatch[] = [];
 
   aiGenerating = false;
   aiLanguage: 'EN' | 'PL' = 'EN';
@@ -100,6 +104,17 @@ export class QsoFormComponent implements OnInit {
         this.loadSuggestions(callsign);
       }
     });
+
+    // Autocomplete previously worked callsigns
+    this.qsoForm.get('theirCallsign')?.valueChanges.pipe(
+      debounceTime(150),
+      distinctUntilChanged(),
+      switchMap(callsign => callsign && callsign.trim().length >= 2 && !this.isEditMode
+        ? this.qsoService.getCallsignMatches(callsign.trim()).pipe(catchError(() => of([])))
+        : of([]))
+    ).subscribe(matches => {
+      this.callsignMatches = matches;
+    });
   }
 
   loadQso(id: string): void {